@@ -1,5 +1,6 @@
 package com.github.ddth.commons.jsonrpc;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -8,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.ddth.commons.utils.CompiledDPathSet;
 import com.github.ddth.commons.utils.JacksonUtils;
 import com.github.ddth.commons.utils.MapUtils;
 import com.github.ddth.commons.utils.SerializationUtils;
@@ -48,6 +50,16 @@ public class RequestResponse {
         }
     }
 
+    private final static class ParsedJson {
+        private final static ParsedJson NONE = new ParsedJson(null);
+
+        private final JsonNode json;
+
+        private ParsedJson(JsonNode json) {
+            this.json = json;
+        }
+    }
+
     private String requestUrl, requestMethod;
     private Map<String, Object> requestHeaders;
     private Map<String, Object> requestParams;
@@ -58,7 +70,8 @@ public class RequestResponse {
     private RpcStatus rpcStatus = RpcStatus.NO_RESPONSE;
     private String responseStatus;
     private byte[] responseData;
-    private JsonNode responseJson;
+    /* parsed response data, published as a whole; null if not parsed yet */
+    private volatile ParsedJson responseJson = ParsedJson.NONE;
 
     private long timestampStart = System.currentTimeMillis();
     private long timestampEnd = 0;
@@ -297,22 +310,65 @@ public class RequestResponse {
      */
     public RequestResponse setResponseData(byte[] responseData) {
         this.responseData = responseData;
-        try {
-            responseJson = responseData != null ? SerializationUtils.readJson(responseData) : null;
-        } catch (Exception e) {
-            responseJson = null;
-            LOGGER.error(e.getMessage(), e);
-        }
+        this.responseJson = responseData == null ? ParsedJson.NONE : null;
         return this;
     }
 
     /**
      * HTTP response data as Json object.
      * 
+     * <p>
+     * Since v1.1.1: response data is parsed on first access. To read only a few values from a
+     * large response, {@link #getResponseValues(CompiledDPathSet)} avoids building the JSON tree.
+     * </p>
+     * 
      * @return
      */
     public JsonNode getResponseJson() {
-        return responseJson;
+        ParsedJson parsed = responseJson;
+        if (parsed == null) {
+            synchronized (this) {
+                parsed = responseJson;
+                if (parsed == null) {
+                    JsonNode json = null;
+                    try {
+                        json = SerializationUtils.readJson(responseData);
+                    } catch (Exception e) {
+                        LOGGER.error(e.getMessage(), e);
+                    }
+                    parsed = new ParsedJson(json);
+                    responseJson = parsed;
+                }
+            }
+        }
+        return parsed.json;
+    }
+
+    /**
+     * Get several response values using a set of compiled dPath expressions.
+     * 
+     * <p>
+     * If the response data has not been parsed into a JSON tree yet, values are extracted by
+     * streaming over the raw response data (see {@link CompiledDPathSet#extract(byte[])}), without
+     * building the tree.
+     * </p>
+     * 
+     * @param dPaths
+     * @return array of values, the i'th element is the value of the i'th expression
+     * @since 1.1.1
+     */
+    public JsonNode[] getResponseValues(CompiledDPathSet dPaths) {
+        ParsedJson parsed = responseJson;
+        if (parsed == null) {
+            try {
+                return dPaths.extract(responseData);
+            } catch (Exception e) {
+                LOGGER.error(e.getMessage(), e);
+                return new JsonNode[dPaths.size()];
+            }
+        }
+        Object[] values = dPaths.extract(parsed.json);
+        return Arrays.copyOf(values, values.length, JsonNode[].class);
     }
 
     /**
@@ -322,7 +378,7 @@ public class RequestResponse {
      * @return
      */
     public JsonNode getResponseValue(String dPath) {
-        return JacksonUtils.getValue(responseJson, dPath);
+        return JacksonUtils.getValue(getResponseJson(), dPath);
     }
 
     /**
@@ -332,7 +388,7 @@ public class RequestResponse {
      * @return
      */
     public Optional<JsonNode> getResponseValueOptional(String path) {
-        return JacksonUtils.getValueOptional(responseJson, path);
+        return JacksonUtils.getValueOptional(getResponseJson(), path);
     }
 
     /**
@@ -343,7 +399,7 @@ public class RequestResponse {
      * @return
      */
     public <T> T getResponseValue(String path, Class<T> clazz) {
-        return JacksonUtils.getValue(responseJson, path, clazz);
+        return JacksonUtils.getValue(getResponseJson(), path, clazz);
     }
 
     /**
@@ -354,7 +410,7 @@ public class RequestResponse {
      * @return
      */
     public <T> Optional<T> getResponseValueOptional(String path, Class<T> clazz) {
-        return JacksonUtils.getValueOptional(responseJson, path, clazz);
+        return JacksonUtils.getValueOptional(getResponseJson(), path, clazz);
     }
 
     /**
@@ -374,7 +430,7 @@ public class RequestResponse {
         toString.put("rpc", rpc);
 
         Map<String, Object> response = MapUtils.removeNulls(MapUtils.createMap("status",
-                responseStatus, "data", responseData, "dataJson", responseJson));
+                responseStatus, "data", responseData, "dataJson", getResponseJson()));
         toString.put("response", response);
 
         Map<String, Object> tracking = MapUtils.removeNulls(MapUtils.createMap("start",
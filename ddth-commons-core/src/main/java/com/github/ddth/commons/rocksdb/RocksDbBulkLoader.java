@@ -0,0 +1,491 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Bulk-load key/values into a column family of a {@link RocksDbWrapper} by building SST files
+ * and ingesting them, bypassing memtables, WAL and most of the compaction work.
+ *
+ * <p>
+ * Pipeline:
+ * </p>
+ * <ol>
+ * <li>Records passed to {@link #add(byte[], byte[])} are buffered in chunks. Full chunks are
+ * sorted in parallel on a thread pool and spilled to temp files ("runs").</li>
+ * <li>{@link #finish()} merges all runs (external k-way merge) into SST files using
+ * {@link SstFileWriter}, then ingests them via
+ * {@link RocksDbWrapper#ingestExternalFiles(String, List, boolean)}.</li>
+ * </ol>
+ *
+ * <p>
+ * If a key is added more than once, the last added value wins. Keys are ordered bytewise, hence
+ * the target column family must use the default (bytewise) comparator.
+ * </p>
+ *
+ * <p>
+ * Note: an instance of this class is not thread-safe and can be used only once.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbBulkLoader implements AutoCloseable {
+    private final Logger LOGGER = LoggerFactory.getLogger(RocksDbBulkLoader.class);
+
+    /**
+     * Bulk-load phases.
+     */
+    public enum Phase {
+        /**
+         * Records are being sorted & spilled to disk.
+         */
+        SORTING,
+        /**
+         * Sorted runs are being merged into SST files.
+         */
+        MERGING,
+        /**
+         * SST files are being ingested into the DB.
+         */
+        INGESTING,
+        /**
+         * Bulk-load is done.
+         */
+        DONE
+    }
+
+    /**
+     * Receive progress notifications. Callbacks may be invoked from worker threads.
+     */
+    public interface IProgressListener {
+        /**
+         * Called when progress is made.
+         *
+         * @param phase
+         * @param done
+         *            number of records processed in the current phase
+         * @param total
+         *            total number of records of the current phase ({@code -1} if not known yet)
+         */
+        void onProgress(Phase phase, long done, long total);
+    }
+
+    private final static Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes
+            .lexicographicalComparator();
+
+    private final static class Record {
+        private final byte[] key, value;
+
+        public Record(byte[] key, byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Sequential reader of a sorted run.
+     */
+    private final static class RunReader implements AutoCloseable {
+        private final int runIndex;
+        private final DataInputStream dis;
+        private byte[] key, value;
+
+        public RunReader(int runIndex, File file) throws IOException {
+            this.runIndex = runIndex;
+            this.dis = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file), 256 * 1024));
+        }
+
+        public boolean next() throws IOException {
+            int keyLen;
+            try {
+                keyLen = dis.readInt();
+            } catch (EOFException e) {
+                key = value = null;
+                return false;
+            }
+            key = new byte[keyLen];
+            dis.readFully(key);
+            value = new byte[dis.readInt()];
+            dis.readFully(value);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            dis.close();
+        }
+    }
+
+    private final RocksDbWrapper rocksDbWrapper;
+    private final String cfName;
+    private final File workDir;
+
+    private long chunkSize = 64 * 1024 * 1024;
+    private long sstFileSize = 256 * 1024 * 1024;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private IProgressListener progressListener;
+
+    private ExecutorService executor;
+    private Semaphore pendingChunks;
+    private final List<Future<File>> runs = new ArrayList<>();
+    private List<Record> buffer = new ArrayList<>();
+    private long bufferSize = 0;
+    private long numRecordsAdded = 0;
+    private final AtomicLong numRecordsSorted = new AtomicLong();
+    private boolean finished = false;
+
+    /**
+     * Construct a new {@link RocksDbBulkLoader} object.
+     *
+     * @param rocksDbWrapper
+     *            target DB, must be opened in read-write mode
+     * @param cfName
+     *            target column family
+     * @param tempDir
+     *            directory to store temp files (sorted runs and SST files); should be on the same
+     *            file system as the DB so that SST files can be moved instead of copied
+     */
+    public RocksDbBulkLoader(RocksDbWrapper rocksDbWrapper, String cfName, File tempDir) {
+        this.rocksDbWrapper = rocksDbWrapper;
+        this.cfName = cfName != null ? cfName : RocksDbWrapper.DEFAULT_COLUMN_FAMILY;
+        this.workDir = new File(tempDir, "bulkload-" + UUID.randomUUID());
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Approximate size (in bytes) of in-memory chunks to sort before spilling to disk (default
+     * 64Mb). Up to {@code numThreads + 1} chunks may be held in memory at the same time.
+     *
+     * @param chunkSize
+     * @return
+     */
+    public RocksDbBulkLoader setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public long getSstFileSize() {
+        return sstFileSize;
+    }
+
+    /**
+     * Approximate size (in bytes) of generated SST files (default 256Mb).
+     *
+     * @param sstFileSize
+     * @return
+     */
+    public RocksDbBulkLoader setSstFileSize(long sstFileSize) {
+        this.sstFileSize = sstFileSize;
+        return this;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Number of threads to sort chunks (default: number of available processors).
+     *
+     * @param numThreads
+     * @return
+     */
+    public RocksDbBulkLoader setNumThreads(int numThreads) {
+        this.numThreads = numThreads;
+        return this;
+    }
+
+    public IProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public RocksDbBulkLoader setProgressListener(IProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    private void notifyProgress(Phase phase, long done, long total) {
+        if (progressListener != null) {
+            try {
+                progressListener.onProgress(phase, done, total);
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Add a key/value.
+     *
+     * @param key
+     * @param value
+     * @return
+     * @throws RocksDbException
+     */
+    public RocksDbBulkLoader add(String key, String value) throws RocksDbException {
+        return add(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Add a key/value.
+     *
+     * @param key
+     * @param value
+     * @return
+     * @throws RocksDbException
+     */
+    public RocksDbBulkLoader add(String key, byte[] value) throws RocksDbException {
+        return add(key.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    /**
+     * Add a key/value.
+     *
+     * @param key
+     * @param value
+     * @return
+     * @throws RocksDbException
+     */
+    public RocksDbBulkLoader add(byte[] key, byte[] value) throws RocksDbException {
+        if (finished) {
+            throw new IllegalStateException("Bulk-load has been finished.");
+        }
+        if (key == null || value == null) {
+            throw new NullPointerException("Key and value must not be null.");
+        }
+        buffer.add(new Record(key, value));
+        bufferSize += key.length + value.length + 32;
+        numRecordsAdded++;
+        if (bufferSize >= chunkSize) {
+            spillBuffer();
+        }
+        return this;
+    }
+
+    /**
+     * Hand the current buffer to a worker thread to be sorted and spilled to disk.
+     */
+    private void spillBuffer() throws RocksDbException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        if (executor == null) {
+            try {
+                FileUtils.forceMkdir(workDir);
+            } catch (IOException e) {
+                throw new RocksDbException(e);
+            }
+            executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+            pendingChunks = new Semaphore(Math.max(1, numThreads));
+        }
+        try {
+            // limit number of in-memory chunks
+            pendingChunks.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RocksDbException(e);
+        }
+        final List<Record> chunk = buffer;
+        final File runFile = new File(workDir, "run-" + runs.size());
+        buffer = new ArrayList<>();
+        bufferSize = 0;
+        runs.add(executor.submit(() -> {
+            try {
+                sortAndSpill(chunk, runFile);
+                notifyProgress(Phase.SORTING, numRecordsSorted.addAndGet(chunk.size()), -1);
+                return runFile;
+            } finally {
+                pendingChunks.release();
+            }
+        }));
+    }
+
+    /**
+     * Sort a chunk (stable, so that the last added value of a duplicated key is kept) and write
+     * it to a run file.
+     */
+    private static void sortAndSpill(List<Record> chunk, File runFile) throws IOException {
+        chunk.sort((a, b) -> KEY_COMPARATOR.compare(a.key, b.key));
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(runFile), 256 * 1024))) {
+            int n = chunk.size();
+            for (int i = 0; i < n; i++) {
+                Record r = chunk.get(i);
+                if (i + 1 < n && KEY_COMPARATOR.compare(r.key, chunk.get(i + 1).key) == 0) {
+                    continue;
+                }
+                dos.writeInt(r.key.length);
+                dos.write(r.key);
+                dos.writeInt(r.value.length);
+                dos.write(r.value);
+            }
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Sort & merge all added records into SST files and ingest them into the DB.
+     *
+     * @return number of distinct keys ingested
+     * @throws RocksDbException
+     */
+    public long finish() throws RocksDbException {
+        if (finished) {
+            throw new IllegalStateException("Bulk-load has been finished.");
+        }
+        finished = true;
+        try {
+            spillBuffer();
+            List<File> runFiles = new ArrayList<>();
+            for (Future<File> run : runs) {
+                runFiles.add(run.get());
+            }
+            List<String> sstFiles = new ArrayList<>();
+            long numKeys = mergeRuns(runFiles, sstFiles);
+            if (!sstFiles.isEmpty()) {
+                notifyProgress(Phase.INGESTING, 0, sstFiles.size());
+                rocksDbWrapper.ingestExternalFiles(cfName, sstFiles, true);
+                notifyProgress(Phase.INGESTING, sstFiles.size(), sstFiles.size());
+            }
+            notifyProgress(Phase.DONE, numKeys, numKeys);
+            return numKeys;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RocksDbException(e);
+        } catch (Exception e) {
+            Throwable t = e instanceof ExecutionException ? e.getCause() : e;
+            throw t instanceof RocksDbException ? (RocksDbException) t : new RocksDbException(t);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * K-way merge sorted runs into SST files. For duplicated keys, value from the latest run wins.
+     */
+    private long mergeRuns(List<File> runFiles, List<String> sstFiles) throws Exception {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runFiles.size()),
+                (a, b) -> {
+                    int c = KEY_COMPARATOR.compare(a.key, b.key);
+                    return c != 0 ? c : Integer.compare(b.runIndex, a.runIndex);
+                });
+        ColumnFamilyOptions cfOptions = rocksDbWrapper.getColumnFamilyOptions(cfName);
+        try (EnvOptions envOptions = new EnvOptions();
+                Options options = cfOptions != null
+                        ? new Options(rocksDbWrapper.getDbOptions(), cfOptions)
+                        : new Options()) {
+            for (int i = 0; i < runFiles.size(); i++) {
+                RunReader reader = new RunReader(i, runFiles.get(i));
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            SstFileWriter writer = null;
+            long numKeys = 0, fileSize = 0;
+            byte[] lastKey = null;
+            try {
+                while (!queue.isEmpty()) {
+                    RunReader reader = queue.poll();
+                    byte[] key = reader.key, value = reader.value;
+                    if (reader.next()) {
+                        queue.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                    if (lastKey != null && KEY_COMPARATOR.compare(lastKey, key) == 0) {
+                        // older value of a duplicated key
+                        continue;
+                    }
+                    lastKey = key;
+                    if (writer == null || fileSize >= sstFileSize) {
+                        if (writer != null) {
+                            writer.finish();
+                            writer.close();
+                        }
+                        String sstFile = new File(workDir, "data-" + sstFiles.size() + ".sst")
+                                .getAbsolutePath();
+                        writer = new SstFileWriter(envOptions, options);
+                        writer.open(sstFile);
+                        sstFiles.add(sstFile);
+                        fileSize = 0;
+                    }
+                    writer.put(key, value);
+                    fileSize += key.length + value.length;
+                    if (++numKeys % 100_000 == 0) {
+                        notifyProgress(Phase.MERGING, numKeys, -1);
+                    }
+                }
+                if (writer != null) {
+                    writer.finish();
+                }
+            } finally {
+                RocksDbUtils.closeRocksObjects(writer);
+                for (RunReader reader : queue) {
+                    reader.close();
+                }
+            }
+            notifyProgress(Phase.MERGING, numKeys, numKeys);
+            return numKeys;
+        }
+    }
+
+    /**
+     * Number of records added so far (including duplicated keys).
+     *
+     * @return
+     */
+    public long getNumRecordsAdded() {
+        return numRecordsAdded;
+    }
+
+    /**
+     * Abort (if not finished yet) and clean up temp files.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        buffer = new ArrayList<>();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        FileUtils.deleteQuietly(workDir);
+    }
+}
@@ -66,4 +66,25 @@ public class RocksDbException extends RuntimeException {
             super("Modification operation [" + operation + "] is not permitted in read-only mode!");
         }
     }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Thrown to indicate a transaction could not complete because of a conflict with another
+     * transaction (write-conflict detected at commit time in optimistic mode, lock timeout or
+     * deadlock in pessimistic mode). The transaction can be retried.
+     * 
+     * @author Thanh Nguyen <btnguyen2k@gmail.com>
+     * @since 1.1.1
+     */
+    public static class TransactionConflict extends RocksDbException {
+        private static final long serialVersionUID = "1.1.1".hashCode();
+
+        public TransactionConflict() {
+            super("Transaction conflict!");
+        }
+
+        public TransactionConflict(Throwable cause) {
+            super("Transaction conflict: " + cause.getMessage(), cause);
+        }
+    }
 }
@@ -0,0 +1,236 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.rocksdb.LiveFileMetaData;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Export a column family of a {@link RocksDbWrapper} to files, point-in-time consistent and
+ * without blocking writes.
+ *
+ * <p>
+ * The key space is split into ranges using boundaries of live SST files; ranges are scanned
+ * concurrently (all over the same {@link Snapshot}) on a thread pool, each into its own chunked
+ * output files {@code part-<range>-<chunk>.dat}. Each record in an output file is stored as
+ * {@code [key-length:int][key][value-length:int][value]} (big-endian), records in a file are
+ * sorted by key.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbExporter {
+    private final static Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes
+            .lexicographicalComparator();
+
+    private final RocksDbWrapper rocksDbWrapper;
+    private final String cfName;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private int numRanges = numThreads;
+    private long chunkSize = 256 * 1024 * 1024;
+
+    /**
+     * Construct a new {@link RocksDbExporter} object.
+     *
+     * @param rocksDbWrapper
+     * @param cfName
+     *            column family to export
+     */
+    public RocksDbExporter(RocksDbWrapper rocksDbWrapper, String cfName) {
+        this.rocksDbWrapper = rocksDbWrapper;
+        this.cfName = cfName != null ? cfName : RocksDbWrapper.DEFAULT_COLUMN_FAMILY;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Number of threads to scan ranges (default: number of available processors).
+     *
+     * @param numThreads
+     * @return
+     */
+    public RocksDbExporter setNumThreads(int numThreads) {
+        this.numThreads = numThreads;
+        return this;
+    }
+
+    public int getNumRanges() {
+        return numRanges;
+    }
+
+    /**
+     * Max number of ranges to split the key space into (default: number of available
+     * processors). The actual number of ranges may be less if there are not enough SST files.
+     *
+     * @param numRanges
+     * @return
+     */
+    public RocksDbExporter setNumRanges(int numRanges) {
+        this.numRanges = numRanges;
+        return this;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Approximate max size (in bytes) of an output file (default 256Mb).
+     *
+     * @param chunkSize
+     * @return
+     */
+    public RocksDbExporter setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Compute split keys, based on boundaries of live SST files.
+     *
+     * @param numRanges
+     * @return sorted list of at most {@code numRanges - 1} split keys
+     */
+    public List<byte[]> computeSplitKeys(int numRanges) {
+        TreeSet<byte[]> boundaries = new TreeSet<>(KEY_COMPARATOR);
+        for (LiveFileMetaData metadata : rocksDbWrapper.getLiveFilesMetaData(cfName)) {
+            boundaries.add(metadata.smallestKey());
+            boundaries.add(metadata.largestKey());
+        }
+        // the smallest boundary can not split anything
+        if (!boundaries.isEmpty()) {
+            boundaries.pollFirst();
+        }
+        List<byte[]> candidates = new ArrayList<>(boundaries);
+        List<byte[]> result = new ArrayList<>();
+        int numSplits = Math.min(numRanges - 1, candidates.size());
+        for (int i = 1; i <= numSplits; i++) {
+            byte[] key = candidates.get(i * candidates.size() / (numSplits + 1));
+            if (result.isEmpty() || KEY_COMPARATOR.compare(result.get(result.size() - 1), key) < 0) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Export the column family, at a point-in-time snapshot taken by this method.
+     *
+     * @param outputDir
+     * @return number of exported records
+     * @throws RocksDbException
+     */
+    public long export(File outputDir) throws RocksDbException {
+        Snapshot snapshot = rocksDbWrapper.getSnapshot();
+        try {
+            return export(outputDir, snapshot);
+        } finally {
+            rocksDbWrapper.releaseSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Export the column family, at the specified snapshot.
+     *
+     * @param outputDir
+     * @param snapshot
+     * @return number of exported records
+     * @throws RocksDbException
+     */
+    public long export(File outputDir, Snapshot snapshot) throws RocksDbException {
+        List<byte[]> splitKeys = computeSplitKeys(Math.max(1, numRanges));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            FileUtils.forceMkdir(outputDir);
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i <= splitKeys.size(); i++) {
+                final int rangeIndex = i;
+                final byte[] lower = i > 0 ? splitKeys.get(i - 1) : null;
+                final byte[] upper = i < splitKeys.size() ? splitKeys.get(i) : null;
+                futures.add(executor.submit(
+                        () -> exportRange(outputDir, snapshot, rangeIndex, lower, upper)));
+            }
+            long numRecords = 0;
+            for (Future<Long> future : futures) {
+                numRecords += future.get();
+            }
+            return numRecords;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RocksDbException(e);
+        } catch (Exception e) {
+            Throwable t = e instanceof ExecutionException ? e.getCause() : e;
+            throw t instanceof RocksDbException ? (RocksDbException) t : new RocksDbException(t);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Export keys in range {@code [lower, upper)}.
+     */
+    private long exportRange(File outputDir, Snapshot snapshot, int rangeIndex, byte[] lower,
+            byte[] upper) throws IOException {
+        long numRecords = 0;
+        int chunkIndex = 0;
+        long fileSize = 0;
+        DataOutputStream dos = null;
+        try (ReadOptions readOptions = new ReadOptions().setSnapshot(snapshot).setFillCache(false)
+                .setReadaheadSize(2 * 1024 * 1024);
+                RocksIterator it = rocksDbWrapper.newIterator(cfName, readOptions)) {
+            if (lower == null) {
+                it.seekToFirst();
+            } else {
+                it.seek(lower);
+            }
+            for (; it.isValid(); it.next()) {
+                byte[] key = it.key();
+                if (upper != null && KEY_COMPARATOR.compare(key, upper) >= 0) {
+                    break;
+                }
+                byte[] value = it.value();
+                if (dos == null || fileSize >= chunkSize) {
+                    if (dos != null) {
+                        dos.close();
+                    }
+                    File file = new File(outputDir,
+                            String.format("part-%04d-%04d.dat", rangeIndex, chunkIndex++));
+                    dos = new DataOutputStream(
+                            new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024));
+                    fileSize = 0;
+                }
+                dos.writeInt(key.length);
+                dos.write(key);
+                dos.writeInt(value.length);
+                dos.write(value);
+                fileSize += 8 + key.length + value.length;
+                numRecords++;
+            }
+        } finally {
+            if (dos != null) {
+                dos.close();
+            }
+        }
+        return numRecords;
+    }
+}
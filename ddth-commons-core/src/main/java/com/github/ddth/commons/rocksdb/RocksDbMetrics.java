@@ -0,0 +1,198 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.TickerType;
+
+/**
+ * Point-in-time snapshot of RocksDB metrics collected by {@link RocksDbWrapper#collectMetrics()}:
+ * {@link org.rocksdb.Statistics} tickers & histograms (if statistics is enabled) and
+ * per-column-family properties.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbMetrics {
+    /**
+     * Receive metrics snapshots collected periodically. See
+     * {@link RocksDbWrapper#startMetricsCollector(long, java.util.concurrent.TimeUnit, IMetricsListener)}.
+     */
+    public interface IMetricsListener {
+        /**
+         * Called each time a snapshot is collected.
+         *
+         * @param metrics
+         */
+        void onMetrics(RocksDbMetrics metrics);
+    }
+
+    /**
+     * Numeric column family properties collected by default.
+     */
+    public final static String[] CF_PROPERTIES = { "rocksdb.estimate-num-keys",
+            "rocksdb.estimate-live-data-size", "rocksdb.total-sst-files-size",
+            "rocksdb.live-sst-files-size", "rocksdb.cur-size-all-mem-tables",
+            "rocksdb.size-all-mem-tables", "rocksdb.num-immutable-mem-table",
+            "rocksdb.mem-table-flush-pending", "rocksdb.compaction-pending",
+            "rocksdb.estimate-pending-compaction-bytes", "rocksdb.num-running-compactions",
+            "rocksdb.num-running-flushes", "rocksdb.actual-delayed-write-rate",
+            "rocksdb.is-write-stopped", "rocksdb.block-cache-usage",
+            "rocksdb.block-cache-pinned-usage", "rocksdb.estimate-table-readers-mem",
+            "rocksdb.num-snapshots" };
+
+    private final long timestamp;
+    private final Map<TickerType, Long> tickers;
+    private final Map<HistogramType, HistogramData> histograms;
+    private final Map<String, Map<String, Long>> cfProperties;
+
+    public RocksDbMetrics(long timestamp, Map<TickerType, Long> tickers,
+            Map<HistogramType, HistogramData> histograms,
+            Map<String, Map<String, Long>> cfProperties) {
+        this.timestamp = timestamp;
+        this.tickers = new EnumMap<>(TickerType.class);
+        if (tickers != null) {
+            this.tickers.putAll(tickers);
+        }
+        this.histograms = new EnumMap<>(HistogramType.class);
+        if (histograms != null) {
+            this.histograms.putAll(histograms);
+        }
+        Map<String, Map<String, Long>> props = new HashMap<>();
+        if (cfProperties != null) {
+            cfProperties.forEach((cf, p) -> props.put(cf, Collections.unmodifiableMap(p)));
+        }
+        this.cfProperties = Collections.unmodifiableMap(props);
+    }
+
+    /**
+     * Time (UNIX timestamp in milliseconds) the snapshot was taken.
+     *
+     * @return
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * All collected tickers (empty if statistics is not enabled).
+     *
+     * @return
+     */
+    public Map<TickerType, Long> getTickers() {
+        return Collections.unmodifiableMap(tickers);
+    }
+
+    /**
+     * Get a ticker's value.
+     *
+     * @param ticker
+     * @return ticker's value, {@code 0} if not collected
+     */
+    public long getTicker(TickerType ticker) {
+        Long value = tickers.get(ticker);
+        return value != null ? value.longValue() : 0;
+    }
+
+    /**
+     * All collected histograms (empty if statistics is not enabled).
+     *
+     * @return
+     */
+    public Map<HistogramType, HistogramData> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Get a histogram's data.
+     *
+     * @param histogram
+     * @return histogram's data, {@code null} if not collected
+     */
+    public HistogramData getHistogram(HistogramType histogram) {
+        return histograms.get(histogram);
+    }
+
+    /**
+     * Collected properties, as map of {column-family-name:{property-name:value}}.
+     *
+     * @return
+     */
+    public Map<String, Map<String, Long>> getColumnFamilyProperties() {
+        return cfProperties;
+    }
+
+    /**
+     * Get a column family's property.
+     *
+     * @param cfName
+     * @param propName
+     * @return property's value, {@code -1} if not collected
+     */
+    public long getColumnFamilyProperty(String cfName, String propName) {
+        Map<String, Long> props = cfProperties.get(cfName);
+        Long value = props != null ? props.get(propName) : null;
+        return value != null ? value.longValue() : -1;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Block cache hit rate (since DB open or last statistics reset).
+     *
+     * @return hit rate in range {@code [0.0, 1.0]}, {@code 0.0} if no block cache access
+     */
+    public double getBlockCacheHitRate() {
+        long hit = getTicker(TickerType.BLOCK_CACHE_HIT);
+        long total = hit + getTicker(TickerType.BLOCK_CACHE_MISS);
+        return total > 0 ? (double) hit / total : 0.0;
+    }
+
+    /**
+     * Total time (in microseconds) writes have been stalled.
+     *
+     * @return
+     */
+    public long getStallMicros() {
+        return getTicker(TickerType.STALL_MICROS);
+    }
+
+    /**
+     * Bytes read by compactions.
+     *
+     * @return
+     */
+    public long getCompactionReadBytes() {
+        return getTicker(TickerType.COMPACT_READ_BYTES);
+    }
+
+    /**
+     * Bytes written by compactions.
+     *
+     * @return
+     */
+    public long getCompactionWriteBytes() {
+        return getTicker(TickerType.COMPACT_WRITE_BYTES);
+    }
+
+    /**
+     * Latency histogram (microseconds) of get operations.
+     *
+     * @return
+     */
+    public HistogramData getGetLatency() {
+        return getHistogram(HistogramType.DB_GET);
+    }
+
+    /**
+     * Latency histogram (microseconds) of write (put/delete/batch) operations.
+     *
+     * @return
+     */
+    public HistogramData getWriteLatency() {
+        return getHistogram(HistogramType.DB_WRITE);
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * In-heap read-through cache used by {@link RocksDbWrapper} to serve hot keys without crossing
+ * JNI into {@code RocksDB.get}.
+ *
+ * <p>
+ * The cache is bounded by (estimated) number of bytes of cached keys and values. Eviction is
+ * delegated to Guava's {@link Cache}, which is a segmented-LRU.
+ * </p>
+ *
+ * <p>
+ * Notes:
+ * </p>
+ * <ul>
+ * <li>Non-existing keys are cached too (negative caching).</li>
+ * <li>Keys and values are copied into the cache, values are copied out of the cache: callers can
+ * safely reuse key buffers and modify returned arrays.</li>
+ * <li>Column families are identified by their ids ({@link org.rocksdb.ColumnFamilyHandle#getID()},
+ * resolved once per handle by {@link RocksDbWrapper}), hence a cache instance must not be shared
+ * among {@link RocksDbWrapper}s.</li>
+ * </ul>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbReadCache {
+    /**
+     * Estimated per-entry overhead (in bytes): cache entry, key object and array headers.
+     */
+    private final static int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Marker for "key does not exist".
+     */
+    private final static byte[] NULL_VALUE = new byte[0];
+
+    private final static int NUM_STRIPES = 1024;
+
+    private final static class CacheKey {
+        private final int cfId;
+        private final byte[] key;
+        private final int hash;
+
+        public CacheKey(int cfId, byte[] key) {
+            this.cfId = cfId;
+            this.key = key;
+            this.hash = 31 * cfId + Arrays.hashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) obj;
+            return hash == that.hash && cfId == that.cfId && Arrays.equals(key, that.key);
+        }
+    }
+
+    private final long maxBytes;
+    private final Cache<CacheKey, byte[]> cache;
+
+    /*
+     * Write-stamps to prevent in-flight loads from caching stale values: a writer bumps the
+     * stamp of the key's stripe (or the global generation for batch writes) before
+     * invalidating; a loader drops what it has just cached if the stamp has changed.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray stripes = new AtomicLongArray(NUM_STRIPES);
+
+    /**
+     * Construct a new {@link RocksDbReadCache} object.
+     *
+     * @param maxBytes
+     *            max (estimated) number of bytes of cached entries
+     */
+    public RocksDbReadCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.cache = CacheBuilder.newBuilder().maximumWeight(maxBytes)
+                .weigher(new Weigher<CacheKey, byte[]>() {
+                    @Override
+                    public int weigh(CacheKey key, byte[] value) {
+                        return ENTRY_OVERHEAD + key.key.length + value.length;
+                    }
+                }).recordStats().build();
+    }
+
+    /**
+     * Max (estimated) number of bytes of cached entries.
+     *
+     * @return
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private long stamp(CacheKey key) {
+        return generation.get() + stripes.get(key.hash & (NUM_STRIPES - 1));
+    }
+
+    /**
+     * Get a value from cache, load it with {@code loader} if not cached.
+     *
+     * @param cfId
+     * @param key
+     * @param loader
+     * @return
+     */
+    public byte[] get(int cfId, byte[] key, Supplier<byte[]> loader) {
+        CacheKey cacheKey = new CacheKey(cfId, key);
+        byte[] value = cache.getIfPresent(cacheKey);
+        if (value != null) {
+            return value == NULL_VALUE ? null : value.clone();
+        }
+        // the cache must own its keys: callers may reuse/modify their key buffers
+        CacheKey ownKey = new CacheKey(cfId, key.clone());
+        long stamp = stamp(ownKey);
+        value = loader.get();
+        cache.put(ownKey, value != null ? value.clone() : NULL_VALUE);
+        if (stamp(ownKey) != stamp) {
+            cache.invalidate(ownKey);
+        }
+        return value;
+    }
+
+    /**
+     * Invalidate a cached entry. Must be called after the key has been written/deleted.
+     *
+     * @param cfId
+     * @param key
+     */
+    public void invalidate(int cfId, byte[] key) {
+        CacheKey cacheKey = new CacheKey(cfId, key);
+        stripes.incrementAndGet(cacheKey.hash & (NUM_STRIPES - 1));
+        cache.invalidate(cacheKey);
+    }
+
+    /**
+     * Invalidate all cached entries. Must be called after a write whose keys are not known
+     * (e.g. a {@link org.rocksdb.WriteBatch}).
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get cache statistics (hits, misses, evictions...).
+     *
+     * @return
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Number of cache hits.
+     *
+     * @return
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Number of cache misses.
+     *
+     * @return
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Ratio of cache hits over total requests ({@code 1.0} if no request has been made).
+     *
+     * @return
+     */
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Approximate number of cached entries.
+     *
+     * @return
+     */
+    public long size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read replica of a {@link RocksDbWrapper}: opens the primary's data directory in read-only
+ * mode and periodically re-opens it to catch up with the primary's new writes, so that several
+ * reader processes on the same host can serve reads with bounded staleness.
+ *
+ * <p>
+ * A read-only instance is a static view of the data directory (including WAL content at the time
+ * it is opened). {@link #refresh()} opens a new read-only instance if the data directory has
+ * changed since the last refresh, atomically swaps it in and closes the old one after in-flight
+ * reads have finished. Staleness is thus bounded by the refresh period (see
+ * {@link #startAutoRefresh(long, TimeUnit)}).
+ * </p>
+ *
+ * <p>
+ * Note: reads must be made through this object (not via a {@link RocksDbWrapper} reference
+ * kept from {@link #execute(Function)}), because the underlying wrapper is replaced and closed
+ * on refresh.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbReadReplica implements AutoCloseable {
+    private final Logger LOGGER = LoggerFactory.getLogger(RocksDbReadReplica.class);
+
+    private final File directory;
+    private final String[] columnFamilies;
+    private RocksDbUtils.OptionsProfile optionsProfile = RocksDbUtils.OptionsProfile.DEFAULT;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RocksDbWrapper rocksDbWrapper;
+    private String dirSignature;
+    private volatile long lastRefreshTimestamp;
+    private ScheduledExecutorService refreshScheduler;
+
+    /**
+     * Construct a new {@link RocksDbReadReplica} object.
+     *
+     * @param directory
+     *            the primary's data directory
+     * @param columnFamilies
+     *            column families to open (if not specified, all existing column families are
+     *            opened, including ones created by the primary after the replica is opened)
+     */
+    public RocksDbReadReplica(File directory, String... columnFamilies) {
+        this.directory = directory;
+        this.columnFamilies = columnFamilies != null ? columnFamilies : new String[0];
+    }
+
+    /**
+     * Construct a new {@link RocksDbReadReplica} object.
+     *
+     * @param dirPath
+     *            the primary's data directory
+     * @param columnFamilies
+     *            see {@link #RocksDbReadReplica(File, String...)}
+     */
+    public RocksDbReadReplica(String dirPath, String... columnFamilies) {
+        this(new File(dirPath), columnFamilies);
+    }
+
+    public RocksDbUtils.OptionsProfile getOptionsProfile() {
+        return optionsProfile;
+    }
+
+    /**
+     * Performance profile to build DB/read options. Must be called before {@link #init()}.
+     *
+     * @param optionsProfile
+     * @return
+     */
+    public RocksDbReadReplica setOptionsProfile(RocksDbUtils.OptionsProfile optionsProfile) {
+        this.optionsProfile = optionsProfile != null ? optionsProfile
+                : RocksDbUtils.OptionsProfile.DEFAULT;
+        return this;
+    }
+
+    /**
+     * Time (UNIX timestamp in milliseconds) of the last successful refresh check.
+     *
+     * @return
+     */
+    public long getLastRefreshTimestamp() {
+        return lastRefreshTimestamp;
+    }
+
+    /**
+     * Open the replica.
+     *
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     */
+    public RocksDbReadReplica init() throws RocksDbException, IOException {
+        refresh();
+        return this;
+    }
+
+    /**
+     * Signature of the data directory's current state: names, sizes and modification times of
+     * all its files (SST files are immutable, WAL & MANIFEST files grow as the primary writes).
+     * Info log files are ignored as they are also written by read-only instances.
+     */
+    private String computeDirSignature() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return "";
+        }
+        Arrays.sort(files);
+        StringBuilder sb = new StringBuilder();
+        for (File file : files) {
+            if (file.getName().startsWith("LOG")) {
+                continue;
+            }
+            sb.append(file.getName()).append(':').append(file.length()).append(':')
+                    .append(file.lastModified()).append(';');
+        }
+        return sb.toString();
+    }
+
+    private RocksDbWrapper openWrapper() throws RocksDbException, IOException {
+        RocksDbWrapper wrapper = new RocksDbWrapper(directory, true);
+        wrapper.setOptionsProfile(optionsProfile);
+        if (columnFamilies.length > 0) {
+            wrapper.setColumnFamilies(RocksDbUtils.buildColumnFamilyDescriptors(columnFamilies));
+        }
+        return wrapper.init();
+    }
+
+    /**
+     * Catch up with the primary: re-open the data directory if it has changed since the last
+     * refresh.
+     *
+     * @return {@code true} if the replica has been re-opened, {@code false} if the data directory
+     *         has not changed
+     * @throws RocksDbException
+     * @throws IOException
+     */
+    synchronized public boolean refresh() throws RocksDbException, IOException {
+        String signature = computeDirSignature();
+        if (rocksDbWrapper != null && signature.equals(dirSignature)) {
+            lastRefreshTimestamp = System.currentTimeMillis();
+            return false;
+        }
+        RocksDbWrapper newWrapper = openWrapper();
+        RocksDbWrapper oldWrapper;
+        lock.writeLock().lock();
+        try {
+            oldWrapper = rocksDbWrapper;
+            rocksDbWrapper = newWrapper;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirSignature = signature;
+        lastRefreshTimestamp = System.currentTimeMillis();
+        if (oldWrapper != null) {
+            oldWrapper.destroy();
+        }
+        return true;
+    }
+
+    /**
+     * Start a background thread to refresh the replica periodically.
+     *
+     * @param period
+     * @param unit
+     * @return
+     */
+    synchronized public RocksDbReadReplica startAutoRefresh(long period, TimeUnit unit) {
+        stopAutoRefresh();
+        refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RocksDbReadReplica-" + directory.getName());
+            t.setDaemon(true);
+            return t;
+        });
+        refreshScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }, period, period, unit);
+        return this;
+    }
+
+    /**
+     * Stop the background refresh thread started by {@link #startAutoRefresh(long, TimeUnit)}.
+     *
+     * @return
+     */
+    synchronized public RocksDbReadReplica stopAutoRefresh() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+            refreshScheduler = null;
+        }
+        return this;
+    }
+
+    /**
+     * Stop the background refresh thread and close the underlying read-only instance.
+     */
+    @Override
+    synchronized public void close() {
+        stopAutoRefresh();
+        lock.writeLock().lock();
+        try {
+            if (rocksDbWrapper != null) {
+                rocksDbWrapper.destroy();
+                rocksDbWrapper = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Execute a read operation against the current read-only instance. The instance is
+     * guaranteed not to be closed while {@code reader} is running.
+     *
+     * @param reader
+     * @return
+     * @throws RocksDbException
+     */
+    public <T> T execute(Function<RocksDbWrapper, T> reader) throws RocksDbException {
+        lock.readLock().lock();
+        try {
+            if (rocksDbWrapper == null) {
+                throw new IllegalStateException("The replica is not opened.");
+            }
+            return reader.apply(rocksDbWrapper);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a value from the "default" column family.
+     *
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String key) throws RocksDbException {
+        return execute(wrapper -> wrapper.get(key));
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param cfName
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String cfName, String key) throws RocksDbException {
+        return execute(wrapper -> wrapper.get(cfName, key));
+    }
+}
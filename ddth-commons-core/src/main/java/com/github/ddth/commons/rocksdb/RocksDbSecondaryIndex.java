@@ -0,0 +1,435 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+import org.rocksdb.WriteBatch;
+
+import com.github.ddth.commons.utils.HashUtils;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Maintain secondary indexes of a column family of a {@link RocksDbWrapper} in separate index
+ * column families.
+ *
+ * <p>
+ * Each write through this helper updates the primary column family and all its indexes in one
+ * {@link WriteBatch}, so indexes are always consistent with the primary data. An index entry's
+ * key is {@code [hash-of-attribute:8 bytes][attribute-length:int][attribute][primary-key]} (with
+ * empty value): the 8-byte hash is the fixed-length prefix extracted by the index column family's
+ * prefix extractor, hence lookups are answered by a prefix-bloom-filtered, bounded prefix
+ * iterator instead of scanning the whole primary column family.
+ * </p>
+ *
+ * <p>
+ * Index column families should be created with
+ * {@link #buildIndexColumnFamilyOptions(RocksDbUtils.OptionsProfile)} (see
+ * {@link #createIndexColumnFamily(String)}) to benefit from the prefix bloom filter; lookups are
+ * still correct on column families without prefix extractor, just slower.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbSecondaryIndex {
+    /**
+     * Extract indexed attribute values from a primary record.
+     */
+    public interface IAttributeExtractor {
+        /**
+         * Extract attribute values of a record.
+         *
+         * @param key
+         * @param value
+         * @return attribute values to index the record under (may be empty or {@code null})
+         */
+        Collection<String> extract(String key, byte[] value);
+    }
+
+    /**
+     * Length of the prefix extracted from index keys.
+     */
+    public final static int PREFIX_LENGTH = 8;
+
+    /**
+     * Build options for an index column family: fixed-length prefix extractor of
+     * {@link #PREFIX_LENGTH} bytes, with prefix bloom filters.
+     *
+     * @param profile
+     * @return
+     */
+    public static ColumnFamilyOptions buildIndexColumnFamilyOptions(
+            RocksDbUtils.OptionsProfile profile) {
+        return RocksDbUtils.buildColumnFamilyOptions(profile, RocksDbUtils.getSharedBlockCache(),
+                PREFIX_LENGTH);
+    }
+
+    private final RocksDbWrapper rocksDbWrapper;
+    private final String primaryCf;
+    private final Map<String, IAttributeExtractor> indexes = new ConcurrentHashMap<>();
+    private final Striped<Lock> keyLocks = Striped.lock(1024);
+
+    /**
+     * Construct a new {@link RocksDbSecondaryIndex} object.
+     *
+     * @param rocksDbWrapper
+     * @param primaryCf
+     *            the primary column family
+     */
+    public RocksDbSecondaryIndex(RocksDbWrapper rocksDbWrapper, String primaryCf) {
+        this.rocksDbWrapper = rocksDbWrapper;
+        this.primaryCf = primaryCf != null ? primaryCf : RocksDbWrapper.DEFAULT_COLUMN_FAMILY;
+    }
+
+    public String getPrimaryColumnFamily() {
+        return primaryCf;
+    }
+
+    /**
+     * Create an index column family (if not exist) with options built by
+     * {@link #buildIndexColumnFamilyOptions(RocksDbUtils.OptionsProfile)}.
+     *
+     * @param indexCf
+     * @return
+     * @throws RocksDbException
+     */
+    public RocksDbSecondaryIndex createIndexColumnFamily(String indexCf) throws RocksDbException {
+        if (rocksDbWrapper.getColumnFamilyHandle(indexCf) == null) {
+            rocksDbWrapper.createColumnFamily(indexCf,
+                    buildIndexColumnFamilyOptions(rocksDbWrapper.getOptionsProfile()));
+        }
+        return this;
+    }
+
+    /**
+     * Register an index. The index column family must exist.
+     *
+     * <p>
+     * Note: existing records are not indexed by this method, see {@link #rebuildIndex(String)}.
+     * </p>
+     *
+     * @param indexCf
+     *            the index column family
+     * @param extractor
+     * @return
+     */
+    public RocksDbSecondaryIndex addIndex(String indexCf, IAttributeExtractor extractor) {
+        if (rocksDbWrapper.getColumnFamilyHandle(indexCf) == null) {
+            throw new RocksDbException.ColumnFamilyNotExists(indexCf);
+        }
+        indexes.put(indexCf, extractor);
+        return this;
+    }
+
+    /**
+     * Get names of all registered index column families.
+     *
+     * @return
+     */
+    public Collection<String> getIndexes() {
+        return Collections.unmodifiableCollection(indexes.keySet());
+    }
+
+    /*----------------------------------------------------------------------*/
+    private static byte[] buildIndexPrefix(byte[] attr) {
+        return ByteBuffer.allocate(PREFIX_LENGTH)
+                .putLong(HashUtils.fastHashFunc.hashBytes(attr).asLong()).array();
+    }
+
+    private static byte[] buildIndexKey(byte[] attr, byte[] primaryKey) {
+        return ByteBuffer.allocate(PREFIX_LENGTH + 4 + attr.length + primaryKey.length)
+                .put(buildIndexPrefix(attr)).putInt(attr.length).put(attr).put(primaryKey)
+                .array();
+    }
+
+    /**
+     * Smallest key greater than all keys starting with {@code prefix}, {@code null} if none.
+     */
+    private static byte[] prefixUpperBound(byte[] prefix) {
+        byte[] result = Arrays.copyOf(prefix, prefix.length);
+        for (int i = result.length - 1; i >= 0; i--) {
+            if (++result[i] != 0) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> extract(IAttributeExtractor extractor, String key, byte[] value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        Collection<String> attrs = extractor.extract(key, value);
+        return attrs != null ? new LinkedHashSet<>(attrs) : Collections.emptySet();
+    }
+
+    private void addIndexChanges(WriteBatch batch, List<Object[]> writtenKeys, String key,
+            byte[] oldValue, byte[] newValue) throws Exception {
+        byte[] primaryKey = key.getBytes(StandardCharsets.UTF_8);
+        for (Map.Entry<String, IAttributeExtractor> index : indexes.entrySet()) {
+            Set<String> oldAttrs = extract(index.getValue(), key, oldValue);
+            Set<String> newAttrs = extract(index.getValue(), key, newValue);
+            RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper
+                    .acquireColumnFamily(index.getKey());
+            ColumnFamilyHandle cfh = ref.getHandle();
+            try {
+                for (String attr : oldAttrs) {
+                    if (!newAttrs.contains(attr)) {
+                        byte[] indexKey = buildIndexKey(attr.getBytes(StandardCharsets.UTF_8),
+                                primaryKey);
+                        batch.delete(cfh, indexKey);
+                        writtenKeys.add(new Object[] { ref.getId(), indexKey });
+                    }
+                }
+                for (String attr : newAttrs) {
+                    if (!oldAttrs.contains(attr)) {
+                        byte[] indexKey = buildIndexKey(attr.getBytes(StandardCharsets.UTF_8),
+                                primaryKey);
+                        batch.put(cfh, indexKey, new byte[0]);
+                        writtenKeys.add(new Object[] { ref.getId(), indexKey });
+                    }
+                }
+            } finally {
+                ref.release();
+            }
+        }
+    }
+
+    /**
+     * Put a record to the primary column family and update all indexes, in one
+     * {@link WriteBatch}.
+     *
+     * @param key
+     * @param value
+     *            {@code null} to delete the record
+     * @throws RocksDbException
+     */
+    public void put(String key, byte[] value) throws RocksDbException {
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(primaryCf);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        Lock lock = keyLocks.get(key);
+        lock.lock();
+        try (WriteBatch batch = new WriteBatch()) {
+            byte[] oldValue = rocksDbWrapper.get(primaryCf, key);
+            byte[] primaryKey = key.getBytes(StandardCharsets.UTF_8);
+            if (value != null) {
+                batch.put(cfh, primaryKey, value);
+            } else {
+                batch.delete(cfh, primaryKey);
+            }
+            List<Object[]> writtenKeys = new ArrayList<>();
+            writtenKeys.add(new Object[] { ref.getId(), primaryKey });
+            addIndexChanges(batch, writtenKeys, key, oldValue, value);
+            // invalidate only the written keys from the read cache
+            rocksDbWrapper.write(null, batch, writtenKeys);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            lock.unlock();
+            ref.release();
+        }
+    }
+
+    /**
+     * Put a record to the primary column family and update all indexes, in one
+     * {@link WriteBatch}.
+     *
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(String key, String value) throws RocksDbException {
+        put(key, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Delete a record from the primary column family and its entries from all indexes, in one
+     * {@link WriteBatch}.
+     *
+     * @param key
+     * @throws RocksDbException
+     */
+    public void delete(String key) throws RocksDbException {
+        put(key, (byte[]) null);
+    }
+
+    /**
+     * Get a record from the primary column family.
+     *
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String key) throws RocksDbException {
+        return rocksDbWrapper.get(primaryCf, key);
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Lookup keys of primary records that have the specified attribute value.
+     *
+     * @param indexCf
+     * @param attr
+     * @return
+     * @throws RocksDbException
+     */
+    public List<String> lookup(String indexCf, String attr) throws RocksDbException {
+        return lookup(indexCf, attr, 0);
+    }
+
+    /**
+     * Lookup keys of primary records that have the specified attribute value.
+     *
+     * @param indexCf
+     * @param attr
+     * @param limit
+     *            max number of returned keys, {@code 0} means "no limit"
+     * @return
+     * @throws RocksDbException
+     */
+    public List<String> lookup(String indexCf, String attr, int limit) throws RocksDbException {
+        byte[] attrBytes = attr.getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = buildIndexPrefix(attrBytes);
+        byte[] upperBound = prefixUpperBound(prefix);
+        List<String> result = new ArrayList<>();
+        // fresh (non-tailing) options: prefix bloom filters apply to the seek
+        try (Slice upperBoundSlice = upperBound != null ? new Slice(upperBound) : null;
+                ReadOptions readOptions = new ReadOptions().setPrefixSameAsStart(true)) {
+            if (upperBoundSlice != null) {
+                readOptions.setIterateUpperBound(upperBoundSlice);
+            }
+            try (RocksIterator it = rocksDbWrapper.newIterator(indexCf, readOptions)) {
+                for (it.seek(prefix); it.isValid(); it.next()) {
+                    byte[] indexKey = it.key();
+                    if (!startsWith(indexKey, prefix)) {
+                        break;
+                    }
+                    ByteBuffer buff = ByteBuffer.wrap(indexKey, PREFIX_LENGTH,
+                            indexKey.length - PREFIX_LENGTH);
+                    int attrLength = buff.getInt();
+                    // skip entries of other attribute values with the same hash
+                    if (attrLength == attrBytes.length
+                            && equals(indexKey, PREFIX_LENGTH + 4, attrBytes)) {
+                        int offset = PREFIX_LENGTH + 4 + attrLength;
+                        result.add(new String(indexKey, offset, indexKey.length - offset,
+                                StandardCharsets.UTF_8));
+                        if (limit > 0 && result.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Lookup primary records that have the specified attribute value.
+     *
+     * @param indexCf
+     * @param attr
+     * @param limit
+     *            max number of returned records, {@code 0} means "no limit"
+     * @return map of {primary-key:value}, in index order
+     * @throws RocksDbException
+     */
+    public Map<String, byte[]> lookupRecords(String indexCf, String attr, int limit)
+            throws RocksDbException {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (String key : lookup(indexCf, attr, limit)) {
+            byte[] value = rocksDbWrapper.get(primaryCf, key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && equals(data, 0, prefix);
+    }
+
+    private static boolean equals(byte[] data, int offset, byte[] expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Rebuild an index from all records of the primary column family. Entries of records that
+     * no longer exist are not removed; drop and re-create the index column family for a clean
+     * rebuild.
+     *
+     * @param indexCf
+     * @return number of indexed records
+     * @throws RocksDbException
+     */
+    public long rebuildIndex(String indexCf) throws RocksDbException {
+        IAttributeExtractor extractor = indexes.get(indexCf);
+        if (extractor == null) {
+            throw new RocksDbException.ColumnFamilyNotExists(indexCf);
+        }
+        final int BATCH_SIZE = 1000;
+        long numRecords = 0;
+        try (ReadOptions readOptions = new ReadOptions().setFillCache(false);
+                RocksIterator it = rocksDbWrapper.newIterator(primaryCf, readOptions);
+                WriteBatch batch = new WriteBatch()) {
+            List<Object[]> writtenKeys = new ArrayList<>();
+            it.seekToFirst();
+            while (it.isValid()) {
+                // hold the index column family per batch, not for the whole scan
+                RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(indexCf);
+                try {
+                    ColumnFamilyHandle cfh = ref.getHandle();
+                    Integer cfId = ref.getId();
+                    for (int n = 0; n < BATCH_SIZE && it.isValid(); n++, it.next()) {
+                        byte[] primaryKey = it.key();
+                        String key = new String(primaryKey, StandardCharsets.UTF_8);
+                        for (String attr : extract(extractor, key, it.value())) {
+                            byte[] indexKey = buildIndexKey(
+                                    attr.getBytes(StandardCharsets.UTF_8), primaryKey);
+                            batch.put(cfh, indexKey, new byte[0]);
+                            writtenKeys.add(new Object[] { cfId, indexKey });
+                        }
+                        numRecords++;
+                    }
+                    if (batch.count() > 0) {
+                        rocksDbWrapper.write(null, batch, writtenKeys);
+                    }
+                } finally {
+                    ref.release();
+                }
+                batch.clear();
+                writtenKeys.clear();
+            }
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+        return numRecords;
+    }
+}
@@ -0,0 +1,292 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.rocksdb.ColumnFamilyOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Store time-series data of a {@link RocksDbWrapper} in time-bucketed column families, so that
+ * expired data is purged by dropping whole column families in O(1) instead of deleting key by
+ * key (which creates tombstones and compaction debt).
+ *
+ * <p>
+ * Each bucket covers {@code bucketDuration} milliseconds and is stored in a column family named
+ * {@code <prefix>@<bucket-start-timestamp-in-ms>}. A bucket is expired (and dropped by
+ * {@link #purgeExpired()}) when its whole time range is older than {@code retention}
+ * milliseconds.
+ * </p>
+ *
+ * <p>
+ * Note: bucket column families are created at runtime, hence the wrapper should be opened without
+ * an explicit list of column families (existing column families are then discovered from the data
+ * directory).
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbTimePartitioner implements AutoCloseable {
+    private final Logger LOGGER = LoggerFactory.getLogger(RocksDbTimePartitioner.class);
+
+    private final RocksDbWrapper rocksDbWrapper;
+    private final String prefix;
+    private final long bucketDuration;
+    private final long retention;
+    private ColumnFamilyOptions cfOptions;
+    private ScheduledExecutorService purgeScheduler;
+
+    /**
+     * Construct a new {@link RocksDbTimePartitioner} object.
+     *
+     * @param rocksDbWrapper
+     * @param prefix
+     *            prefix of bucket column family names
+     * @param bucketDuration
+     *            time range (in milliseconds) of a bucket
+     * @param retention
+     *            how long (in milliseconds) data is kept
+     */
+    public RocksDbTimePartitioner(RocksDbWrapper rocksDbWrapper, String prefix,
+            long bucketDuration, long retention) {
+        if (bucketDuration <= 0 || retention <= 0) {
+            throw new IllegalArgumentException("Bucket duration and retention must be positive.");
+        }
+        this.rocksDbWrapper = rocksDbWrapper;
+        this.prefix = prefix + "@";
+        this.bucketDuration = bucketDuration;
+        this.retention = retention;
+    }
+
+    public ColumnFamilyOptions getColumnFamilyOptions() {
+        return cfOptions;
+    }
+
+    /**
+     * Options of newly created bucket column families ({@code null} to build options from the
+     * wrapper's profile).
+     *
+     * @param cfOptions
+     * @return
+     */
+    public RocksDbTimePartitioner setColumnFamilyOptions(ColumnFamilyOptions cfOptions) {
+        this.cfOptions = cfOptions;
+        return this;
+    }
+
+    /**
+     * Start timestamp of the bucket that contains {@code timestamp}.
+     *
+     * @param timestamp
+     * @return
+     */
+    public long bucketStart(long timestamp) {
+        return Math.floorDiv(timestamp, bucketDuration) * bucketDuration;
+    }
+
+    /**
+     * Name of the bucket column family that stores data at {@code timestamp}.
+     *
+     * @param timestamp
+     * @return
+     */
+    public String bucketName(long timestamp) {
+        return prefix + bucketStart(timestamp);
+    }
+
+    /**
+     * Is data at {@code timestamp} expired, relative to {@code now}?
+     *
+     * @param timestamp
+     * @param now
+     * @return
+     */
+    public boolean isExpired(long timestamp, long now) {
+        return bucketStart(timestamp) + bucketDuration <= now - retention;
+    }
+
+    /**
+     * Get (and create if not exist) the bucket column family that stores data at
+     * {@code timestamp}.
+     *
+     * @param timestamp
+     * @return
+     * @throws RocksDbException
+     * @throws IllegalArgumentException
+     *             if {@code timestamp} is already out of the retention window
+     */
+    public String getBucket(long timestamp) throws RocksDbException {
+        if (isExpired(timestamp, System.currentTimeMillis())) {
+            throw new IllegalArgumentException(
+                    "Timestamp [" + timestamp + "] is out of the retention window.");
+        }
+        String cfName = bucketName(timestamp);
+        if (rocksDbWrapper.getColumnFamilyHandle(cfName) == null) {
+            rocksDbWrapper.createColumnFamily(cfName, cfOptions);
+        }
+        return cfName;
+    }
+
+    /**
+     * Get all existing bucket column families, sorted by time.
+     *
+     * @return
+     */
+    public List<String> getBuckets() {
+        List<Long> starts = new ArrayList<>();
+        for (String cfName : rocksDbWrapper.getColumnFamilyNames()) {
+            if (cfName.startsWith(prefix)) {
+                try {
+                    starts.add(Long.parseLong(cfName.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // not a bucket of this partitioner
+                }
+            }
+        }
+        Collections.sort(starts);
+        List<String> result = new ArrayList<>(starts.size());
+        starts.forEach(start -> result.add(prefix + start));
+        return result;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Put a key/value to the bucket of {@code timestamp}.
+     *
+     * @param timestamp
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(long timestamp, String key, byte[] value) throws RocksDbException {
+        rocksDbWrapper.put(getBucket(timestamp), key, value);
+    }
+
+    /**
+     * Put a key/value to the bucket of {@code timestamp}.
+     *
+     * @param timestamp
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(long timestamp, String key, String value) throws RocksDbException {
+        rocksDbWrapper.put(getBucket(timestamp), key, value);
+    }
+
+    /**
+     * Get a value from the bucket of {@code timestamp}.
+     *
+     * @param timestamp
+     * @param key
+     * @return the value, {@code null} if not found or the bucket does not exist
+     * @throws RocksDbException
+     */
+    public byte[] get(long timestamp, String key) throws RocksDbException {
+        String cfName = bucketName(timestamp);
+        return rocksDbWrapper.getColumnFamilyHandle(cfName) != null
+                ? rocksDbWrapper.get(cfName, key)
+                : null;
+    }
+
+    /**
+     * Delete a key from the bucket of {@code timestamp}.
+     *
+     * @param timestamp
+     * @param key
+     * @throws RocksDbException
+     */
+    public void delete(long timestamp, String key) throws RocksDbException {
+        String cfName = bucketName(timestamp);
+        if (rocksDbWrapper.getColumnFamilyHandle(cfName) != null) {
+            rocksDbWrapper.delete(cfName, key);
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Drop all expired buckets.
+     *
+     * @return list of dropped buckets
+     * @throws RocksDbException
+     */
+    public List<String> purgeExpired() throws RocksDbException {
+        return purgeExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Drop all buckets that are expired relative to {@code now}.
+     *
+     * @param now
+     * @return list of dropped buckets
+     * @throws RocksDbException
+     */
+    public List<String> purgeExpired(long now) throws RocksDbException {
+        List<String> result = new ArrayList<>();
+        for (String cfName : getBuckets()) {
+            long start = Long.parseLong(cfName.substring(prefix.length()));
+            if (!isExpired(start, now)) {
+                // buckets are sorted by time
+                break;
+            }
+            if (rocksDbWrapper.dropColumnFamily(cfName)) {
+                result.add(cfName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Start a background thread to purge expired buckets periodically.
+     *
+     * @param period
+     * @param unit
+     * @return
+     */
+    synchronized public RocksDbTimePartitioner startAutoPurge(long period, TimeUnit unit) {
+        stopAutoPurge();
+        purgeScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RocksDbTimePartitioner-" + prefix);
+            t.setDaemon(true);
+            return t;
+        });
+        purgeScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                List<String> dropped = purgeExpired();
+                if (!dropped.isEmpty()) {
+                    LOGGER.info("Dropped expired buckets: " + dropped);
+                }
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }, 0, period, unit);
+        return this;
+    }
+
+    /**
+     * Stop the background purge thread started by {@link #startAutoPurge(long, TimeUnit)}.
+     *
+     * @return
+     */
+    synchronized public RocksDbTimePartitioner stopAutoPurge() {
+        if (purgeScheduler != null) {
+            purgeScheduler.shutdownNow();
+            purgeScheduler = null;
+        }
+        return this;
+    }
+
+    /**
+     * Stop the background purge thread (the underlying {@link RocksDbWrapper} is not closed).
+     */
+    @Override
+    public void close() {
+        stopAutoPurge();
+    }
+}
@@ -0,0 +1,405 @@
+package com.github.ddth.commons.rocksdb;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Snapshot;
+import org.rocksdb.Status;
+import org.rocksdb.Transaction;
+
+/**
+ * A transaction of a transactional {@link RocksDbWrapper}, see
+ * {@link RocksDbWrapper#beginTransaction()}.
+ *
+ * <p>
+ * Reads see the transaction's own uncommitted writes. If the transaction was started with
+ * snapshot isolation, reads (and write-conflict checks) are made against the snapshot taken when
+ * the transaction began.
+ * </p>
+ *
+ * <p>
+ * Conflicts (write-conflict detected at commit time in {@link Mode#OPTIMISTIC} mode, lock
+ * timeout or deadlock in {@link Mode#PESSIMISTIC} mode) are reported as
+ * {@link RocksDbException.TransactionConflict}. Closing a transaction that has not been committed
+ * rolls it back.
+ * </p>
+ *
+ * <p>
+ * Note: a transaction is not thread-safe.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class RocksDbTransaction implements AutoCloseable {
+    /**
+     * Concurrency control mode of a transactional DB.
+     */
+    public enum Mode {
+        /**
+         * Backed by {@link org.rocksdb.OptimisticTransactionDB}: no locking, conflicts are
+         * detected at commit time. Best for low-contention workloads.
+         */
+        OPTIMISTIC,
+
+        /**
+         * Backed by {@link org.rocksdb.TransactionDB}: keys are locked when written (or read via
+         * {@code getForUpdate}), conflicts are detected as soon as a lock can not be acquired.
+         * Best for high-contention workloads.
+         */
+        PESSIMISTIC
+    }
+
+    private final RocksDbWrapper rocksDbWrapper;
+    private final Transaction transaction;
+    private final ReadOptions readOptions;
+    private final List<Object[]> writtenKeys = new ArrayList<>();
+    private boolean completed = false;
+
+    RocksDbTransaction(RocksDbWrapper rocksDbWrapper, Transaction transaction,
+            ReadOptions readOptions) {
+        this.rocksDbWrapper = rocksDbWrapper;
+        this.transaction = transaction;
+        this.readOptions = readOptions;
+    }
+
+    /**
+     * Get the underlying {@link Transaction} object.
+     *
+     * @return
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Get the snapshot this transaction reads from.
+     *
+     * @return the snapshot, or {@code null} if the transaction was not started with snapshot
+     *         isolation
+     */
+    public Snapshot getSnapshot() {
+        return readOptions.snapshot();
+    }
+
+    /**
+     * Has this transaction been committed or rolled back?
+     *
+     * @return
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    private void ensureActive() {
+        if (completed) {
+            throw new IllegalStateException("Transaction has already been completed.");
+        }
+    }
+
+    /**
+     * Is the exception caused by a conflict with another transaction?
+     *
+     * @param e
+     * @return
+     */
+    static boolean isConflict(RocksDBException e) {
+        Status status = e.getStatus();
+        Status.Code code = status != null ? status.getCode() : null;
+        return code == Status.Code.Busy || code == Status.Code.TimedOut
+                || code == Status.Code.TryAgain;
+    }
+
+    private RocksDbException translate(Exception e) {
+        if (e instanceof RocksDBException && isConflict((RocksDBException) e)) {
+            rocksDbWrapper.recordTransactionConflict();
+            return new RocksDbException.TransactionConflict(e);
+        }
+        return e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Get a value from the "default" column family.
+     *
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String key) throws RocksDbException {
+        return get(RocksDbWrapper.DEFAULT_COLUMN_FAMILY, key);
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param cfName
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String cfName, String key) throws RocksDbException {
+        return get(cfName, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param cfName
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] get(String cfName, byte[] key) throws RocksDbException {
+        ensureActive();
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(cfName);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        try {
+            return transaction.get(cfh, readOptions, key);
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /**
+     * Get a value from the "default" column family and mark the key as "read for update": commit
+     * will fail if the key is modified by another writer after this read.
+     *
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] getForUpdate(String key) throws RocksDbException {
+        return getForUpdate(RocksDbWrapper.DEFAULT_COLUMN_FAMILY, key);
+    }
+
+    /**
+     * Get a value and mark the key as "read for update": in {@link Mode#PESSIMISTIC} mode the key
+     * is locked exclusively, in {@link Mode#OPTIMISTIC} mode commit will fail if the key is
+     * modified by another writer after this read.
+     *
+     * @param cfName
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] getForUpdate(String cfName, String key) throws RocksDbException {
+        return getForUpdate(cfName, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * See {@link #getForUpdate(String, String)}.
+     *
+     * @param cfName
+     * @param key
+     * @return
+     * @throws RocksDbException
+     */
+    public byte[] getForUpdate(String cfName, byte[] key) throws RocksDbException {
+        ensureActive();
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(cfName);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        try {
+            return transaction.getForUpdate(readOptions, cfh, key, true);
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Put a key/value to the "default" column family.
+     *
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(String key, String value) throws RocksDbException {
+        put(RocksDbWrapper.DEFAULT_COLUMN_FAMILY, key, value);
+    }
+
+    /**
+     * Put a key/value.
+     *
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(String cfName, String key, String value) throws RocksDbException {
+        put(cfName, key.getBytes(StandardCharsets.UTF_8),
+                value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Put a key/value.
+     *
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(String cfName, String key, byte[] value) throws RocksDbException {
+        put(cfName, key.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    /**
+     * Put a key/value. If {@code value} is {@code null}, the key is deleted.
+     *
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void put(String cfName, byte[] key, byte[] value) throws RocksDbException {
+        if (value == null) {
+            delete(cfName, key);
+            return;
+        }
+        ensureActive();
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(cfName);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        try {
+            transaction.put(cfh, key, value);
+            writtenKeys.add(new Object[] { ref.getId(), key });
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /**
+     * Merge a value to an existing key (the column family must be configured with a merge
+     * operator).
+     *
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     */
+    public void merge(String cfName, String key, byte[] value) throws RocksDbException {
+        ensureActive();
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(cfName);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        try {
+            transaction.merge(cfh, k, value);
+            writtenKeys.add(new Object[] { ref.getId(), k });
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /**
+     * Delete a key from the "default" column family.
+     *
+     * @param key
+     * @throws RocksDbException
+     */
+    public void delete(String key) throws RocksDbException {
+        delete(RocksDbWrapper.DEFAULT_COLUMN_FAMILY, key);
+    }
+
+    /**
+     * Delete a key.
+     *
+     * @param cfName
+     * @param key
+     * @throws RocksDbException
+     */
+    public void delete(String cfName, String key) throws RocksDbException {
+        delete(cfName, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Delete a key.
+     *
+     * @param cfName
+     * @param key
+     * @throws RocksDbException
+     */
+    public void delete(String cfName, byte[] key) throws RocksDbException {
+        ensureActive();
+        RocksDbWrapper.ColumnFamilyRef ref = rocksDbWrapper.acquireColumnFamily(cfName);
+        ColumnFamilyHandle cfh = ref.getHandle();
+        try {
+            transaction.delete(cfh, key);
+            writtenKeys.add(new Object[] { ref.getId(), key });
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Commit the transaction.
+     *
+     * @throws RocksDbException.TransactionConflict
+     *             if the transaction conflicts with another one (the transaction is rolled back
+     *             and can be retried)
+     * @throws RocksDbException
+     */
+    public void commit() throws RocksDbException {
+        ensureActive();
+        try {
+            transaction.commit();
+            completed = true;
+            rocksDbWrapper.recordTransactionCommit();
+        } catch (Exception e) {
+            RocksDbException ex = translate(e);
+            if (ex instanceof RocksDbException.TransactionConflict) {
+                rollback();
+            }
+            throw ex;
+        } finally {
+            RocksDbReadCache readCache = rocksDbWrapper.getReadCache();
+            if (readCache != null) {
+                writtenKeys.forEach(k -> readCache.invalidate((Integer) k[0], (byte[]) k[1]));
+            }
+        }
+    }
+
+    /**
+     * Rollback the transaction, discarding all its writes.
+     *
+     * @throws RocksDbException
+     */
+    public void rollback() throws RocksDbException {
+        if (completed) {
+            return;
+        }
+        try {
+            transaction.rollback();
+            rocksDbWrapper.recordTransactionRollback();
+        } catch (Exception e) {
+            throw translate(e);
+        } finally {
+            completed = true;
+        }
+    }
+
+    /**
+     * Rollback the transaction if it has not been completed, then release its resources.
+     */
+    @Override
+    public void close() {
+        try {
+            rollback();
+        } finally {
+            RocksDbUtils.closeRocksObjects(readOptions, transaction);
+        }
+    }
+}
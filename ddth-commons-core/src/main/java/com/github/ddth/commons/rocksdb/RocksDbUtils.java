@@ -2,20 +2,35 @@ package com.github.ddth.commons.rocksdb;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.rocksdb.BackupEngine;
+import org.rocksdb.BackupableDBOptions;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.CompressionType;
 import org.rocksdb.DBOptions;
+import org.rocksdb.DataBlockIndexType;
 import org.rocksdb.Env;
+import org.rocksdb.Filter;
+import org.rocksdb.LRUCache;
+import org.rocksdb.MergeOperator;
 import org.rocksdb.Options;
 import org.rocksdb.Priority;
+import org.rocksdb.RateLimiter;
 import org.rocksdb.ReadOptions;
+import org.rocksdb.RestoreOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksObject;
+import org.rocksdb.StringAppendOperator;
+import org.rocksdb.UInt64AddOperator;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -135,6 +150,331 @@ public class RocksDbUtils {
 
     /*----------------------------------------------------------------------*/
 
+    /**
+     * Named performance profiles to build RocksDb options.
+     * 
+     * @since 1.1.1
+     */
+    public enum OptionsProfile {
+        /**
+         * Same as {@code defaultXXXOptions()}.
+         */
+        DEFAULT,
+        /**
+         * Random point lookups: small blocks, bloom filters, data-block hash index, index &
+         * filter blocks cached (and pinned for L0) in the shared block cache.
+         */
+        POINT_LOOKUP,
+        /**
+         * Range scans: large blocks, iterator read-ahead, block cache.
+         */
+        SCAN_HEAVY,
+        /**
+         * Write-intensive workloads: large/multiple write buffers, more background jobs, relaxed
+         * L0 write-stall triggers, compaction I/O smoothed by an auto-tuned rate limiter.
+         */
+        WRITE_HEAVY,
+        /**
+         * One-off bulk loads: auto compactions disabled, WAL disabled, very large write buffers.
+         * Call {@link RocksDbWrapper#compactRange()} once loading is done, then re-open the DB
+         * with another profile.
+         */
+        BULK_LOAD
+    }
+
+    /**
+     * Size of the shared block cache (256Mb).
+     * 
+     * @since 1.1.1
+     */
+    public final static long SHARED_BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * Bits-per-key of bloom filters built by profiles (~1% false positive rate).
+     * 
+     * @since 1.1.1
+     */
+    public final static int BLOOM_FILTER_BITS_PER_KEY = 10;
+
+    /**
+     * Write rate limit (bytes/second) of the shared rate limiter (128Mb/s).
+     * 
+     * @since 1.1.1
+     */
+    public final static long SHARED_RATE_LIMIT = 128L * 1024 * 1024;
+
+    private static Cache sharedBlockCache;
+    private static RateLimiter sharedRateLimiter;
+    private static Filter sharedBloomFilter;
+    private static MergeOperator sharedUInt64AddOperator;
+    private static Map<Character, MergeOperator> sharedStringAppendOperators = new HashMap<>();
+
+    /**
+     * Get the process-wide LRU block cache shared by all column families built by profiles.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public static Cache getSharedBlockCache() {
+        if (sharedBlockCache == null) {
+            sharedBlockCache = new LRUCache(SHARED_BLOCK_CACHE_SIZE);
+        }
+        return sharedBlockCache;
+    }
+
+    /**
+     * Get the process-wide rate limiter (flushes and compactions) shared by all DBs built by the
+     * {@link OptionsProfile#WRITE_HEAVY} profile.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public static RateLimiter getSharedRateLimiter() {
+        if (sharedRateLimiter == null) {
+            sharedRateLimiter = new RateLimiter(SHARED_RATE_LIMIT,
+                    RateLimiter.DEFAULT_REFILL_PERIOD_MICROS, RateLimiter.DEFAULT_FAIRNESS,
+                    RateLimiter.DEFAULT_MODE, true);
+        }
+        return sharedRateLimiter;
+    }
+
+    /*
+     * Native objects referenced by options built by profiles are shared (the same way as the
+     * block cache) so that they are not leaked each time options are built: they are immutable
+     * and RocksDB keeps its own reference to them.
+     */
+    synchronized private static Filter getSharedBloomFilter() {
+        if (sharedBloomFilter == null) {
+            sharedBloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        }
+        return sharedBloomFilter;
+    }
+
+    synchronized private static MergeOperator getSharedUInt64AddOperator() {
+        if (sharedUInt64AddOperator == null) {
+            sharedUInt64AddOperator = new UInt64AddOperator();
+        }
+        return sharedUInt64AddOperator;
+    }
+
+    synchronized private static MergeOperator getSharedStringAppendOperator(char delimiter) {
+        return sharedStringAppendOperators.computeIfAbsent(delimiter,
+                k -> new StringAppendOperator(k));
+    }
+
+    /**
+     * Build {@link DBOptions} for a profile.
+     * 
+     * @param profile
+     * @return
+     * @since 1.1.1
+     */
+    public static DBOptions buildDbOptions(OptionsProfile profile) {
+        DBOptions opts = defaultDbOptions();
+        switch (profile != null ? profile : OptionsProfile.DEFAULT) {
+        case WRITE_HEAVY:
+            opts.setMaxBackgroundCompactions(8).setMaxBackgroundFlushes(4)
+                    .setMaxSubcompactions(4);
+            opts.setRateLimiter(getSharedRateLimiter());
+            break;
+        case BULK_LOAD:
+            opts.setMaxBackgroundFlushes(4).setMaxSubcompactions(4);
+            break;
+        default:
+            break;
+        }
+        return opts;
+    }
+
+    /**
+     * Build {@link ReadOptions} for a profile.
+     * 
+     * <p>
+     * {@link OptionsProfile#POINT_LOOKUP} and {@link OptionsProfile#SCAN_HEAVY} use
+     * {@code tailing=false}: lookups and (snapshot/prefix) scans do not need tailing iterators.
+     * Other profiles keep the default {@code tailing=true}. Long-lived iterators obtained via
+     * {@link RocksDbWrapper#getIterator(String)} are always tailing.
+     * </p>
+     * 
+     * @param profile
+     * @return
+     * @since 1.1.1
+     */
+    public static ReadOptions buildReadOptions(OptionsProfile profile) {
+        ReadOptions opts = defaultReadOptions();
+        if (profile == OptionsProfile.POINT_LOOKUP) {
+            opts.setTailing(false);
+        } else if (profile == OptionsProfile.SCAN_HEAVY) {
+            opts.setTailing(false).setReadaheadSize(2 * 1024 * 1024);
+        }
+        return opts;
+    }
+
+    /**
+     * Build {@link WriteOptions} for a profile.
+     * 
+     * @param profile
+     * @return
+     * @since 1.1.1
+     */
+    public static WriteOptions buildWriteOptions(OptionsProfile profile) {
+        WriteOptions opts = defaultWriteOptions();
+        if (profile == OptionsProfile.BULK_LOAD) {
+            opts.setDisableWAL(true);
+        }
+        return opts;
+    }
+
+    /**
+     * Build {@link ColumnFamilyOptions} for a profile, using the shared block cache and no
+     * prefix extractor.
+     * 
+     * @param profile
+     * @return
+     * @since 1.1.1
+     */
+    public static ColumnFamilyOptions buildColumnFamilyOptions(OptionsProfile profile) {
+        return buildColumnFamilyOptions(profile, getSharedBlockCache(), 0);
+    }
+
+    /**
+     * Build {@link ColumnFamilyOptions} for a profile.
+     * 
+     * <p>
+     * If {@code prefixLength > 0}, a fixed-length prefix extractor is installed, bloom filters
+     * (SST and memtable) are built on key prefixes. Iterators then operate in prefix mode: use
+     * {@link ReadOptions#setTotalOrderSeek(boolean)} for full scans.
+     * </p>
+     * 
+     * @param profile
+     * @param blockCache
+     *            block cache to use, {@code null} to use the shared block cache
+     * @param prefixLength
+     *            length (in bytes) of key prefix, {@code 0} to disable prefix extractor
+     * @return
+     * @since 1.1.1
+     */
+    public static ColumnFamilyOptions buildColumnFamilyOptions(OptionsProfile profile,
+            Cache blockCache, int prefixLength) {
+        ColumnFamilyOptions opts = defaultColumnFamilyOptions();
+        if (profile == null || profile == OptionsProfile.DEFAULT) {
+            return opts;
+        }
+
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setBlockCache(blockCache != null ? blockCache : getSharedBlockCache())
+                .setCacheIndexAndFilterBlocks(true).setFormatVersion(4);
+        tableConfig.setFilterPolicy(getSharedBloomFilter())
+                .setWholeKeyFiltering(prefixLength <= 0);
+        switch (profile) {
+        case POINT_LOOKUP:
+            tableConfig.setBlockSize(4 * 1024).setPinL0FilterAndIndexBlocksInCache(true)
+                    .setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash)
+                    .setDataBlockHashTableUtilRatio(0.75);
+            break;
+        case SCAN_HEAVY:
+            tableConfig.setBlockSize(64 * 1024);
+            break;
+        case WRITE_HEAVY:
+            tableConfig.setBlockSize(16 * 1024);
+            opts.setWriteBufferSize(128L * 1024 * 1024).setMaxWriteBufferNumber(4)
+                    .setMinWriteBufferNumberToMerge(2).setLevel0FileNumCompactionTrigger(4)
+                    .setLevel0SlowdownWritesTrigger(20).setLevel0StopWritesTrigger(36)
+                    .setTargetFileSizeBase(64L * 1024 * 1024)
+                    .setMaxBytesForLevelBase(512L * 1024 * 1024);
+            break;
+        case BULK_LOAD:
+            tableConfig.setBlockSize(16 * 1024);
+            opts.setDisableAutoCompactions(true).setWriteBufferSize(256L * 1024 * 1024)
+                    .setMaxWriteBufferNumber(6).setMinWriteBufferNumberToMerge(1)
+                    .setLevel0FileNumCompactionTrigger(1 << 30)
+                    .setLevel0SlowdownWritesTrigger(1 << 30).setLevel0StopWritesTrigger(1 << 30)
+                    .setSoftPendingCompactionBytesLimit(0).setHardPendingCompactionBytesLimit(0);
+            break;
+        default:
+            break;
+        }
+        if (prefixLength > 0) {
+            opts.useFixedLengthPrefixExtractor(prefixLength).setMemtablePrefixBloomSizeRatio(0.1);
+        }
+        opts.setTableFormatConfig(tableConfig);
+        return opts;
+    }
+
+    /**
+     * Build {@link ColumnFamilyOptions} for a column family of counters: values are 64-bit
+     * integers (see {@link #encodeCounter(long)}) combined by the {@link UInt64AddOperator} merge
+     * operator, so that a counter can be updated by a single blind write (see
+     * {@link RocksDbWrapper#increment(String, String, long)}).
+     * 
+     * @param profile
+     * @return
+     * @since 1.1.1
+     */
+    public static ColumnFamilyOptions buildCounterColumnFamilyOptions(OptionsProfile profile) {
+        ColumnFamilyOptions opts = buildColumnFamilyOptions(profile);
+        opts.setMergeOperator(getSharedUInt64AddOperator());
+        return opts;
+    }
+
+    /**
+     * Build {@link ColumnFamilyOptions} for a column family whose values are appended by the
+     * {@link StringAppendOperator} merge operator (see
+     * {@link RocksDbWrapper#merge(String, String, String)}).
+     * 
+     * @param profile
+     * @param delimiter
+     *            delimiter to put between appended values
+     * @return
+     * @since 1.1.1
+     */
+    public static ColumnFamilyOptions buildStringAppendColumnFamilyOptions(OptionsProfile profile,
+            char delimiter) {
+        ColumnFamilyOptions opts = buildColumnFamilyOptions(profile);
+        opts.setMergeOperator(getSharedStringAppendOperator(delimiter));
+        return opts;
+    }
+
+    /**
+     * Encode a counter value to the format used by {@link UInt64AddOperator} (8-byte
+     * little-endian).
+     * 
+     * @param value
+     * @return
+     * @since 1.1.1
+     */
+    public static byte[] encodeCounter(long value) {
+        byte[] result = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            result[i] = (byte) (value >>> (i * 8));
+        }
+        return result;
+    }
+
+    /**
+     * Decode a counter value encoded by {@link #encodeCounter(long)}.
+     * 
+     * @param data
+     * @return the counter value, {@code 0} if {@code data} is {@code null}
+     * @since 1.1.1
+     */
+    public static long decodeCounter(byte[] data) {
+        if (data == null) {
+            return 0;
+        }
+        if (data.length != 8) {
+            throw new IllegalArgumentException(
+                    "Invalid counter value, expect 8 bytes but got " + data.length);
+        }
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /*----------------------------------------------------------------------*/
+
     /**
      * Silently close RocksDb objects.
      * 
@@ -224,4 +564,45 @@ public class RocksDbUtils {
         }
         return result;
     }
+
+    /**
+     * Build a list of {@link ColumnFamilyDescriptor}s, each column family with its own profile.
+     * 
+     * @param cfProfiles
+     *            map of {column-family-name:profile}, {@code null} profile means
+     *            {@link OptionsProfile#DEFAULT}
+     * @return
+     * @since 1.1.1
+     */
+    public static List<ColumnFamilyDescriptor> buildColumnFamilyDescriptors(
+            Map<String, OptionsProfile> cfProfiles) {
+        List<ColumnFamilyDescriptor> result = new ArrayList<>();
+        if (cfProfiles != null) {
+            cfProfiles.forEach((cfName, profile) -> result
+                    .add(buildColumnFamilyDescriptor(buildColumnFamilyOptions(profile), cfName)));
+        }
+        return result;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * Restore a DB from the latest backup created by
+     * {@link RocksDbWrapper#createBackup(java.io.File, boolean, int)}. The DB must not be opened
+     * while restoring.
+     * 
+     * @param backupDir
+     * @param dbDir
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public static void restoreLatestBackup(String backupDir, String dbDir) throws RocksDbException {
+        try (BackupableDBOptions backupOptions = new BackupableDBOptions(backupDir);
+                BackupEngine backupEngine = BackupEngine.open(Env.getDefault(), backupOptions);
+                RestoreOptions restoreOptions = new RestoreOptions(false)) {
+            backupEngine.restoreDbFromLatestBackup(dbDir, dbDir, restoreOptions);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+    }
 }
@@ -7,20 +7,49 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.apache.commons.io.FileUtils;
+import org.rocksdb.BackupEngine;
+import org.rocksdb.BackupInfo;
+import org.rocksdb.BackupableDBOptions;
+import org.rocksdb.Checkpoint;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.Env;
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.LiveFileMetaData;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.OptimisticTransactionOptions;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+import org.rocksdb.Transaction;
+import org.rocksdb.TransactionDB;
+import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.TransactionOptions;
+import org.rocksdb.TtlDB;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteBatchWithIndex;
 import org.rocksdb.WriteOptions;
@@ -110,6 +139,51 @@ public class RocksDbWrapper implements AutoCloseable {
         return rocksDbWrapper;
     }
 
+    /**
+     * Open a read replica of a {@link RocksDB}: the data directory is opened in read-only mode and
+     * re-opened periodically to catch up with the primary's new writes. See
+     * {@link RocksDbReadReplica}.
+     * 
+     * @param directory
+     *            the primary's data directory
+     * @param refreshPeriodMs
+     *            refresh period in milliseconds (bound of staleness), {@code 0} to disable
+     *            automatic refresh
+     * @param columnFamilies
+     *            list of column families to open (if not specified, all existing column families
+     *            are opened)
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbReadReplica openReadReplica(File directory, long refreshPeriodMs,
+            String... columnFamilies) throws RocksDbException, IOException {
+        RocksDbReadReplica replica = new RocksDbReadReplica(directory, columnFamilies).init();
+        if (refreshPeriodMs > 0) {
+            replica.startAutoRefresh(refreshPeriodMs, TimeUnit.MILLISECONDS);
+        }
+        return replica;
+    }
+
+    /**
+     * Open a read replica of a {@link RocksDB}, see
+     * {@link #openReadReplica(File, long, String...)}.
+     * 
+     * @param dirPath
+     *            the primary's data directory
+     * @param refreshPeriodMs
+     * @param columnFamilies
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbReadReplica openReadReplica(String dirPath, long refreshPeriodMs,
+            String... columnFamilies) throws RocksDbException, IOException {
+        return openReadReplica(new File(dirPath), refreshPeriodMs, columnFamilies);
+    }
+
     /**
      * Open a {@link RocksDB} with default options in read-write mode.
      * 
@@ -201,6 +275,98 @@ public class RocksDbWrapper implements AutoCloseable {
         rocksDbWrapper.init();
         return rocksDbWrapper;
     }
+
+    /**
+     * Open a {@link RocksDB} in read-write mode, options are built from performance profiles.
+     * 
+     * @param directory
+     *            directory to store {@link RocksDB} data
+     * @param profile
+     *            profile to build DB/read/write options
+     * @param columnFamilies
+     *            map of {column-family-name:profile} (the column family "default" will be
+     *            automatically added with {@code profile} if not specified)
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbWrapper openReadWrite(File directory, RocksDbUtils.OptionsProfile profile,
+            Map<String, RocksDbUtils.OptionsProfile> columnFamilies)
+            throws RocksDbException, IOException {
+        RocksDbWrapper rocksDbWrapper = new RocksDbWrapper(directory, false);
+        rocksDbWrapper.setOptionsProfile(profile);
+        rocksDbWrapper.setColumnFamilies(RocksDbUtils.buildColumnFamilyDescriptors(columnFamilies));
+        rocksDbWrapper.init();
+        return rocksDbWrapper;
+    }
+
+    /**
+     * Open a {@link RocksDB} in read-write mode, options are built from performance profiles.
+     * 
+     * @param dirPath
+     *            directory to store {@link RocksDB} data
+     * @param profile
+     *            profile to build DB/read/write options
+     * @param columnFamilies
+     *            map of {column-family-name:profile} (the column family "default" will be
+     *            automatically added with {@code profile} if not specified)
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbWrapper openReadWrite(String dirPath, RocksDbUtils.OptionsProfile profile,
+            Map<String, RocksDbUtils.OptionsProfile> columnFamilies)
+            throws RocksDbException, IOException {
+        return openReadWrite(new File(dirPath), profile, columnFamilies);
+    }
+
+    /**
+     * Open a transactional {@link RocksDB} with default options, see
+     * {@link #beginTransaction(boolean)}.
+     * 
+     * @param directory
+     *            directory to store {@link RocksDB} data
+     * @param mode
+     *            optimistic or pessimistic concurrency control
+     * @param columnFamilies
+     *            list of column families to store key/value (the column family
+     *            "default" will be automatically added)
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbWrapper openTransactional(File directory, RocksDbTransaction.Mode mode,
+            String... columnFamilies) throws RocksDbException, IOException {
+        RocksDbWrapper rocksDbWrapper = new RocksDbWrapper(directory, false);
+        rocksDbWrapper.setTransactionMode(mode);
+        rocksDbWrapper.setColumnFamilies(RocksDbUtils.buildColumnFamilyDescriptors(columnFamilies));
+        rocksDbWrapper.init();
+        return rocksDbWrapper;
+    }
+
+    /**
+     * Open a transactional {@link RocksDB} with default options, see
+     * {@link #beginTransaction(boolean)}.
+     * 
+     * @param dirPath
+     *            directory to store {@link RocksDB} data
+     * @param mode
+     *            optimistic or pessimistic concurrency control
+     * @param columnFamilies
+     *            list of column families to store key/value (the column family
+     *            "default" will be automatically added)
+     * @return
+     * @throws RocksDbException
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static RocksDbWrapper openTransactional(String dirPath, RocksDbTransaction.Mode mode,
+            String... columnFamilies) throws RocksDbException, IOException {
+        return openTransactional(new File(dirPath), mode, columnFamilies);
+    }
     /*----------------------------------------------------------------------*/
 
     private final Logger LOGGER = LoggerFactory.getLogger(RocksDbWrapper.class);
@@ -218,10 +384,33 @@ public class RocksDbWrapper implements AutoCloseable {
     private ReadOptions readOptions;
     private boolean myOwnReadOptions = true;
 
-    private Set<ColumnFamilyDescriptor> columnFamilies = new HashSet<>();
-    private Set<String> columnFamilyNames = new HashSet<>();
-    private Map<String, ColumnFamilyHandle> columnFamilyHandles = new HashMap<>();
+    private Set<ColumnFamilyDescriptor> columnFamilies = ConcurrentHashMap.newKeySet();
+    private Set<String> columnFamilyNames = ConcurrentHashMap.newKeySet();
+    private Map<String, ColumnFamilyHandle> columnFamilyHandles = new ConcurrentHashMap<>();
+    /* handle -> reference count, copy-on-write so that lookups are lock-free */
+    private volatile Map<ColumnFamilyHandle, ColumnFamilyRef> columnFamilyRefs = Collections
+            .emptyMap();
+
+    private int ttl = 0;
+    private Map<String, Integer> columnFamilyTtls = new HashMap<>();
     private Map<String, RocksIterator> iterators = new HashMap<>();
+    /* tailing copy of readOptions, for long-lived iterators of getIterator(String) */
+    private ReadOptions iteratorReadOptions;
+
+    private volatile RocksDbReadCache readCache;
+
+    private RocksDbUtils.OptionsProfile optionsProfile = RocksDbUtils.OptionsProfile.DEFAULT;
+
+    private boolean statisticsEnabled = false;
+    private Statistics statistics;
+    private ScheduledExecutorService metricsCollector;
+    private volatile RocksDbMetrics lastMetrics;
+
+    private RocksDbTransaction.Mode transactionMode;
+    private TransactionDBOptions transactionDbOptions;
+    private long lockTimeout = -1;
+    private AtomicLong numTxnCommits = new AtomicLong(), numTxnRollbacks = new AtomicLong(),
+            numTxnConflicts = new AtomicLong(), numTxnRetries = new AtomicLong();
 
     /**
      * Construct a new {@link RocksDbWrapper} object.
@@ -253,6 +442,7 @@ public class RocksDbWrapper implements AutoCloseable {
         RocksDbUtils.closeRocksObjects(
                 this.columnFamilyHandles.values().toArray(new ColumnFamilyHandle[0]));
         this.columnFamilyHandles.clear();
+        this.columnFamilyRefs = Collections.emptyMap();
 
         if (columnFamilies != null) {
             columnFamilies.forEach(cf -> {
@@ -310,6 +500,209 @@ public class RocksDbWrapper implements AutoCloseable {
         return writeOptions;
     }
 
+    /**
+     * Set the performance profile used to build options that are not explicitly specified
+     * (DB/read/write options, and options of column families discovered from the data
+     * directory). Must be called before {@link #init()}.
+     * 
+     * @param optionsProfile
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setOptionsProfile(
+            RocksDbUtils.OptionsProfile optionsProfile) {
+        this.optionsProfile = optionsProfile != null ? optionsProfile
+                : RocksDbUtils.OptionsProfile.DEFAULT;
+        return this;
+    }
+
+    public RocksDbUtils.OptionsProfile getOptionsProfile() {
+        return optionsProfile;
+    }
+
+    /**
+     * Open the DB as a {@link TtlDB}: key/values older than {@code ttl} seconds are removed
+     * during compactions. Must be called before {@link #init()}.
+     * 
+     * <p>
+     * Notes:
+     * </p>
+     * <ul>
+     * <li>Expired key/values may still be returned until they are compacted away.</li>
+     * <li>A DB created as a {@link TtlDB} must always be opened as a {@link TtlDB} (values are
+     * suffixed with a timestamp).</li>
+     * </ul>
+     * 
+     * @param ttl
+     *            default TTL in seconds of all column families, {@code 0} means "no TTL"
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setTtl(int ttl) {
+        this.ttl = ttl;
+        return this;
+    }
+
+    public int getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Set TTL of a specific column family, see {@link #setTtl(int)}. Must be called before
+     * {@link #init()}.
+     * 
+     * @param cfName
+     * @param ttl
+     *            TTL in seconds, {@code 0} means "no TTL"
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setTtl(String cfName, int ttl) {
+        columnFamilyTtls.put(cfName, ttl);
+        return this;
+    }
+
+    /**
+     * Is the DB opened as a {@link TtlDB}?
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public boolean isTtlDb() {
+        return ttl > 0 || !columnFamilyTtls.isEmpty();
+    }
+
+    private int getColumnFamilyTtl(String cfName) {
+        Integer cfTtl = columnFamilyTtls.get(cfName);
+        return cfTtl != null ? cfTtl.intValue() : ttl;
+    }
+
+    /**
+     * Enable/Disable collecting of RocksDB {@link Statistics} (tickers & histograms). Must be
+     * called before {@link #init()}.
+     * 
+     * <p>
+     * Note: when enabled, a {@link Statistics} object is attached to the {@link DBOptions} (even
+     * if the {@link DBOptions} is supplied via {@link #setDbOptions(DBOptions)}).
+     * </p>
+     * 
+     * @param statisticsEnabled
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        return this;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Get the RocksDB {@link Statistics} object.
+     * 
+     * @return the {@link Statistics} object, or {@code null} if statistics is not enabled
+     * @since 1.1.1
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Open the DB as a transactional DB ({@link OptimisticTransactionDB} or
+     * {@link TransactionDB}), see {@link #beginTransaction(boolean)}. Must be called before
+     * {@link #init()}.
+     * 
+     * <p>
+     * Note: a transactional DB can not be opened in read-only mode, nor as a {@link TtlDB}.
+     * </p>
+     * 
+     * @param transactionMode
+     *            {@code null} to open as a non-transactional DB
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setTransactionMode(RocksDbTransaction.Mode transactionMode) {
+        this.transactionMode = transactionMode;
+        return this;
+    }
+
+    public RocksDbTransaction.Mode getTransactionMode() {
+        return transactionMode;
+    }
+
+    /**
+     * Is the DB opened as a transactional DB?
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public boolean isTransactional() {
+        return transactionMode != null;
+    }
+
+    /**
+     * Max time (in milliseconds) a {@link RocksDbTransaction.Mode#PESSIMISTIC} transaction waits
+     * to acquire a lock before failing with {@link RocksDbException.TransactionConflict}.
+     * 
+     * @param lockTimeout
+     *            negative value to use RocksDB's default (1000ms)
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setLockTimeout(long lockTimeout) {
+        this.lockTimeout = lockTimeout;
+        return this;
+    }
+
+    public long getLockTimeout() {
+        return lockTimeout;
+    }
+
+    /**
+     * Enable/Disable the in-heap read-through cache.
+     * 
+     * <p>
+     * When enabled, values fetched via {@code get(...)} with the wrapper's own
+     * {@link ReadOptions} are cached. Puts and deletes made through this wrapper invalidate the
+     * affected entries; batch writes ({@code write(...)}) invalidate the whole cache.
+     * </p>
+     * 
+     * @param maxBytes
+     *            max (estimated) number of bytes of cached entries, {@code 0} to disable the cache
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper setReadCacheSize(long maxBytes) {
+        this.readCache = maxBytes > 0 ? new RocksDbReadCache(maxBytes) : null;
+        return this;
+    }
+
+    /**
+     * Get the in-heap read-through cache (e.g. to query hit/miss statistics).
+     * 
+     * @return the read cache, or {@code null} if not enabled
+     * @since 1.1.1
+     */
+    public RocksDbReadCache getReadCache() {
+        return readCache;
+    }
+
+    private void invalidateReadCache(int cfId, byte[] key) {
+        RocksDbReadCache readCache = this.readCache;
+        if (readCache != null) {
+            readCache.invalidate(cfId, key);
+        }
+    }
+
+    private void invalidateReadCache() {
+        RocksDbReadCache readCache = this.readCache;
+        if (readCache != null) {
+            readCache.invalidateAll();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -319,11 +712,14 @@ public class RocksDbWrapper implements AutoCloseable {
     }
 
     public void destroy() {
+        stopMetricsCollector();
+
         try {
             RocksDbUtils.closeRocksObjects(iterators.values().toArray(new RocksIterator[0]));
         } catch (Exception e) {
             LOGGER.warn(e.getMessage(), e);
         }
+        RocksDbUtils.closeRocksObjects(iteratorReadOptions);
 
         if (myOwnReadOptions) {
             RocksDbUtils.closeRocksObjects(readOptions);
@@ -338,6 +734,11 @@ public class RocksDbWrapper implements AutoCloseable {
         }
 
         try {
+            synchronized (this) {
+                columnFamilyRefs.values().forEach(ColumnFamilyRef::release);
+                columnFamilyRefs = Collections.emptyMap();
+            }
+            // handles must be closed before the DB, even if still in use
             RocksDbUtils.closeRocksObjects(
                     columnFamilyHandles.values().toArray(new ColumnFamilyHandle[0]));
         } catch (Exception e) {
@@ -345,6 +746,7 @@ public class RocksDbWrapper implements AutoCloseable {
         }
 
         RocksDbUtils.closeRocksObjects(rocksDb);
+        RocksDbUtils.closeRocksObjects(transactionDbOptions, statistics);
     }
 
     private boolean inited = false;
@@ -362,48 +764,79 @@ public class RocksDbWrapper implements AutoCloseable {
             throw new IllegalArgumentException(directory + " does not exist, or not a directory!");
         }
 
+        if (transactionMode != null && (readOnly || isTtlDb())) {
+            throw new IllegalStateException(
+                    "Transactional DB can not be opened in read-only mode, nor as a TtlDB.");
+        }
+
         prepareColumnFamilyDescriptors();
 
         if (dbOptions == null) {
-            dbOptions = RocksDbUtils.defaultDbOptions();
+            dbOptions = RocksDbUtils.buildDbOptions(optionsProfile);
             myOwnDbOptions = true;
         } else {
             myOwnDbOptions = false;
         }
 
+        if (statisticsEnabled) {
+            statistics = new Statistics();
+            dbOptions.setStatistics(statistics);
+        }
+
         String path = directory.getAbsolutePath();
         List<ColumnFamilyDescriptor> cfdList = new ArrayList<>(columnFamilies);
         List<ColumnFamilyHandle> cfhList = new ArrayList<>();
+        List<Integer> ttlList = new ArrayList<>();
+        for (ColumnFamilyDescriptor cfd : cfdList) {
+            ttlList.add(getColumnFamilyTtl(new String(cfd.getName(), StandardCharsets.UTF_8)));
+        }
         try {
             if (readOnly) {
                 if (readOptions == null) {
-                    readOptions = RocksDbUtils.defaultReadOptions();
+                    readOptions = RocksDbUtils.buildReadOptions(optionsProfile);
                     myOwnReadOptions = true;
                 } else {
                     myOwnReadOptions = false;
                 }
-                rocksDb = RocksDB.openReadOnly(dbOptions, path, cfdList, cfhList);
+                rocksDb = isTtlDb() ? TtlDB.open(dbOptions, path, cfdList, cfhList, ttlList, true)
+                        : RocksDB.openReadOnly(dbOptions, path, cfdList, cfhList);
             } else {
                 if (readOptions == null) {
-                    readOptions = RocksDbUtils.defaultReadOptions();
+                    readOptions = RocksDbUtils.buildReadOptions(optionsProfile);
                     myOwnReadOptions = true;
                 } else {
                     myOwnReadOptions = false;
                 }
                 if (writeOptions == null) {
-                    writeOptions = RocksDbUtils.defaultWriteOptions();
+                    writeOptions = RocksDbUtils.buildWriteOptions(optionsProfile);
                     myOwnWriteOptions = true;
                 } else {
                     myOwnWriteOptions = false;
                 }
-                rocksDb = RocksDB.open(dbOptions, path, cfdList, cfhList);
+                if (transactionMode == RocksDbTransaction.Mode.OPTIMISTIC) {
+                    rocksDb = OptimisticTransactionDB.open(dbOptions, path, cfdList, cfhList);
+                } else if (transactionMode == RocksDbTransaction.Mode.PESSIMISTIC) {
+                    transactionDbOptions = new TransactionDBOptions();
+                    if (lockTimeout >= 0) {
+                        transactionDbOptions.setTransactionLockTimeout(lockTimeout);
+                    }
+                    rocksDb = TransactionDB.open(dbOptions, transactionDbOptions, path, cfdList,
+                            cfhList);
+                } else {
+                    rocksDb = isTtlDb()
+                            ? TtlDB.open(dbOptions, path, cfdList, cfhList, ttlList, false)
+                            : RocksDB.open(dbOptions, path, cfdList, cfhList);
+                }
             }
         } catch (Exception e) {
             throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
         }
         cfhList.forEach(cfh -> {
             try {
-                columnFamilyHandles.put(new String(cfh.getName(), StandardCharsets.UTF_8), cfh);
+                String cfName = new String(cfh.getName(), StandardCharsets.UTF_8);
+                columnFamilyHandles.put(cfName, cfh);
+                columnFamilyNames.add(cfName);
+                addColumnFamilyRef(cfh);
             } catch (Exception e) {
                 throw e instanceof RocksDbException ? (RocksDbException) e
                         : new RocksDbException(e);
@@ -426,7 +859,8 @@ public class RocksDbWrapper implements AutoCloseable {
             try {
                 String[] cfList = RocksDbUtils.getColumnFamilyList(directory.getAbsolutePath());
                 for (String cf : cfList) {
-                    columnFamilies.add(RocksDbUtils.buildColumnFamilyDescriptor(cf));
+                    columnFamilies.add(RocksDbUtils.buildColumnFamilyDescriptor(
+                            RocksDbUtils.buildColumnFamilyOptions(optionsProfile), cf));
                 }
             } catch (Exception e) {
                 throw e instanceof RocksDbException ? (RocksDbException) e
@@ -442,15 +876,245 @@ public class RocksDbWrapper implements AutoCloseable {
             }
         }
         if (!hasDefaultCf) {
-            columnFamilies.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY));
+            columnFamilies.add(optionsProfile == RocksDbUtils.OptionsProfile.DEFAULT
+                    ? new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY)
+                    : new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY,
+                            RocksDbUtils.buildColumnFamilyOptions(optionsProfile)));
         }
     }
 
     /*----------------------------------------------------------------------*/
+    /**
+     * Get a column family's handle.
+     * 
+     * <p>
+     * Note: the handle is closed when its column family is dropped (see
+     * {@link #dropColumnFamily(String)}); if column families can be dropped concurrently, access
+     * column families by name instead.
+     * </p>
+     * 
+     * @param cfName
+     * @return
+     */
     public ColumnFamilyHandle getColumnFamilyHandle(String cfName) {
         return columnFamilyHandles.get(cfName);
     }
 
+    /**
+     * A column family's handle with a reference count, so that the handle is closed (when its
+     * column family is dropped) only after its in-flight users have released it.
+     * 
+     * @since 1.1.1
+     */
+    final static class ColumnFamilyRef {
+        private final ColumnFamilyHandle handle;
+        private final int id;
+        /* number of in-flight users, plus one while the column family has not been dropped */
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        ColumnFamilyRef(ColumnFamilyHandle handle) {
+            this.handle = handle;
+            this.id = handle.getID();
+        }
+
+        ColumnFamilyHandle getHandle() {
+            return handle;
+        }
+
+        /**
+         * The column family's id, resolved once ({@link ColumnFamilyHandle#getID()} is a JNI
+         * call): identifies the column family in the read cache.
+         * 
+         * @return
+         */
+        int getId() {
+            return id;
+        }
+
+        boolean tryAcquire() {
+            for (int n = refCount.get(); n > 0; n = refCount.get()) {
+                if (refCount.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Release a reference: the handle is closed when the last one is released.
+         */
+        void release() {
+            if (refCount.decrementAndGet() == 0) {
+                RocksDbUtils.closeRocksObjects(handle);
+            }
+        }
+    }
+
+    synchronized private void addColumnFamilyRef(ColumnFamilyHandle cfh) {
+        Map<ColumnFamilyHandle, ColumnFamilyRef> refs = new IdentityHashMap<>(columnFamilyRefs);
+        refs.put(cfh, new ColumnFamilyRef(cfh));
+        columnFamilyRefs = refs;
+    }
+
+    synchronized private ColumnFamilyRef removeColumnFamilyRef(ColumnFamilyHandle cfh) {
+        Map<ColumnFamilyHandle, ColumnFamilyRef> refs = new IdentityHashMap<>(columnFamilyRefs);
+        ColumnFamilyRef ref = refs.remove(cfh);
+        columnFamilyRefs = refs;
+        return ref;
+    }
+
+    /**
+     * Get a column family's handle and keep it from being closed (by
+     * {@link #dropColumnFamily(String)}) until the returned reference is released via
+     * {@link ColumnFamilyRef#release()}.
+     * 
+     * @param cfName
+     * @return
+     * @throws RocksDbException.ColumnFamilyNotExists
+     *             if the column family does not exist
+     * @since 1.1.1
+     */
+    ColumnFamilyRef acquireColumnFamily(String cfName) {
+        if (cfName == null) {
+            cfName = DEFAULT_COLUMN_FAMILY;
+        }
+        ColumnFamilyRef ref = tryAcquireColumnFamily(columnFamilyHandles.get(cfName));
+        if (ref == null) {
+            throw new RocksDbException.ColumnFamilyNotExists(cfName);
+        }
+        return ref;
+    }
+
+    /**
+     * Keep a handle from being closed while in use: the returned reference must be released
+     * after use.
+     * 
+     * @param cfh
+     * @return
+     * @throws RocksDbException.ColumnFamilyNotExists
+     *             if the handle is {@code null} or its column family has been dropped
+     */
+    private ColumnFamilyRef acquireColumnFamily(ColumnFamilyHandle cfh) {
+        ColumnFamilyRef ref = tryAcquireColumnFamily(cfh);
+        if (ref == null) {
+            throw new RocksDbException.ColumnFamilyNotExists();
+        }
+        return ref;
+    }
+
+    private ColumnFamilyRef tryAcquireColumnFamily(ColumnFamilyHandle cfh) {
+        ColumnFamilyRef ref = cfh != null ? columnFamilyRefs.get(cfh) : null;
+        return ref != null && ref.tryAcquire() ? ref : null;
+    }
+
+    /**
+     * Get options of a column family.
+     * 
+     * @param cfName
+     * @return the column family's options, or {@code null} if the column family does not exist or
+     *         was opened with RocksDB's built-in default options
+     * @since 1.1.1
+     */
+    public ColumnFamilyOptions getColumnFamilyOptions(String cfName) {
+        byte[] name = cfName.getBytes(StandardCharsets.UTF_8);
+        for (ColumnFamilyDescriptor cfd : columnFamilies) {
+            if (Arrays.equals(cfd.getName(), name)) {
+                return cfd.getOptions();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a new column family at runtime.
+     * 
+     * <p>
+     * Note: if the wrapper was opened with an explicit list of column families, the new column
+     * family must be included in the list next time the DB is opened.
+     * </p>
+     * 
+     * @param cfName
+     * @param cfOptions
+     *            options of the new column family, {@code null} to build options from the
+     *            wrapper's profile
+     * @return {@code true} if the column family has been created, {@code false} if it already
+     *         existed
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    synchronized public boolean createColumnFamily(String cfName, ColumnFamilyOptions cfOptions)
+            throws RocksDbException {
+        if (readOnly) {
+            throw new RocksDbException.ReadOnlyException("createColumnFamily");
+        }
+        if (columnFamilyHandles.containsKey(cfName)) {
+            return false;
+        }
+        ColumnFamilyDescriptor cfd = RocksDbUtils.buildColumnFamilyDescriptor(
+                cfOptions != null ? cfOptions : RocksDbUtils.buildColumnFamilyOptions(optionsProfile),
+                cfName);
+        try {
+            ColumnFamilyHandle cfh = isTtlDb()
+                    ? ((TtlDB) rocksDb).createColumnFamilyWithTtl(cfd, getColumnFamilyTtl(cfName))
+                    : rocksDb.createColumnFamily(cfd);
+            columnFamilies.add(cfd);
+            columnFamilyNames.add(cfName);
+            addColumnFamilyRef(cfh);
+            columnFamilyHandles.put(cfName, cfh);
+            return true;
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+    }
+
+    /**
+     * Drop a column family and all of its data at runtime (in O(1), without deleting key by
+     * key).
+     * 
+     * <p>
+     * The column family's handle is closed (so that RocksDB can delete its files) as soon as
+     * in-flight operations on the column family have completed; operations on other column
+     * families are not blocked.
+     * </p>
+     * 
+     * @param cfName
+     * @return {@code true} if the column family has been dropped, {@code false} if it did not
+     *         exist
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    synchronized public boolean dropColumnFamily(String cfName) throws RocksDbException {
+        if (readOnly) {
+            throw new RocksDbException.ReadOnlyException("dropColumnFamily");
+        }
+        if (DEFAULT_COLUMN_FAMILY.equals(cfName)) {
+            throw new IllegalArgumentException("Can not drop the default column family.");
+        }
+        ColumnFamilyHandle cfh = columnFamilyHandles.get(cfName);
+        if (cfh == null) {
+            return false;
+        }
+        try {
+            rocksDb.dropColumnFamily(cfh);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+        columnFamilyHandles.remove(cfName);
+        columnFamilyNames.remove(cfName);
+        byte[] name = cfName.getBytes(StandardCharsets.UTF_8);
+        columnFamilies.removeIf(cfd -> Arrays.equals(cfd.getName(), name));
+        synchronized (iterators) {
+            RocksDbUtils.closeRocksObjects(iterators.remove(cfName));
+        }
+        ColumnFamilyRef ref = removeColumnFamilyRef(cfh);
+        if (ref != null) {
+            // RocksDB deletes the column family's files once its handle is closed
+            ref.release();
+        }
+        invalidateReadCache();
+        return true;
+    }
+
     /**
      * See {@link RocksDB#compactRange()}.
      * 
@@ -473,14 +1137,13 @@ public class RocksDbWrapper implements AutoCloseable {
      * @throws RocksDbException
      */
     public String getProperty(String cfName, String name) throws RocksDbException {
-        ColumnFamilyHandle cfh = getColumnFamilyHandle(cfName);
-        if (cfh == null) {
-            throw new RocksDbException.ColumnFamilyNotExists(cfName);
-        }
+        ColumnFamilyRef ref = acquireColumnFamily(cfName);
         try {
-            return rocksDb.getProperty(cfh, name);
+            return rocksDb.getProperty(ref.getHandle(), name);
         } catch (Exception e) {
             throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            ref.release();
         }
     }
 
@@ -496,11 +1159,122 @@ public class RocksDbWrapper implements AutoCloseable {
         return prop != null ? Long.parseLong(prop) : 0;
     }
 
+    /**
+     * Take a snapshot of current metrics: {@link Statistics} tickers & histograms (if statistics
+     * is enabled) and numeric properties (see {@link RocksDbMetrics#CF_PROPERTIES}) of all column
+     * families.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public RocksDbMetrics collectMetrics() {
+        Map<TickerType, Long> tickers = new EnumMap<>(TickerType.class);
+        Map<HistogramType, HistogramData> histograms = new EnumMap<>(HistogramType.class);
+        if (statistics != null) {
+            for (TickerType ticker : TickerType.values()) {
+                if (ticker != TickerType.TICKER_ENUM_MAX) {
+                    tickers.put(ticker, statistics.getTickerCount(ticker));
+                }
+            }
+            for (HistogramType histogram : HistogramType.values()) {
+                if (histogram != HistogramType.HISTOGRAM_ENUM_MAX) {
+                    histograms.put(histogram, statistics.getHistogramData(histogram));
+                }
+            }
+        }
+        Map<String, Map<String, Long>> cfProperties = new HashMap<>();
+        columnFamilyHandles.forEach((cfName, cfh) -> {
+            ColumnFamilyRef ref = tryAcquireColumnFamily(cfh);
+            if (ref == null) {
+                // dropped in the meantime
+                return;
+            }
+            try {
+                Map<String, Long> props = new HashMap<>();
+                for (String prop : RocksDbMetrics.CF_PROPERTIES) {
+                    try {
+                        props.put(prop, rocksDb.getLongProperty(cfh, prop));
+                    } catch (Exception e) {
+                        // property not supported
+                    }
+                }
+                cfProperties.put(cfName, props);
+            } finally {
+                ref.release();
+            }
+        });
+        return new RocksDbMetrics(System.currentTimeMillis(), tickers, histograms, cfProperties);
+    }
+
+    /**
+     * Get the last metrics snapshot taken by the metrics collector.
+     * 
+     * @return the last snapshot, or {@code null} if the metrics collector has not run yet
+     * @since 1.1.1
+     */
+    public RocksDbMetrics getLastMetrics() {
+        return lastMetrics;
+    }
+
+    /**
+     * Start a background thread to collect metrics periodically.
+     * 
+     * @param period
+     * @param unit
+     * @param listener
+     *            (optional) to be notified each time a snapshot is taken
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper startMetricsCollector(long period, TimeUnit unit,
+            RocksDbMetrics.IMetricsListener listener) {
+        stopMetricsCollector();
+        metricsCollector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RocksDbMetricsCollector-" + directory.getName());
+            t.setDaemon(true);
+            return t;
+        });
+        metricsCollector.scheduleAtFixedRate(() -> {
+            try {
+                RocksDbMetrics metrics = collectMetrics();
+                lastMetrics = metrics;
+                if (listener != null) {
+                    listener.onMetrics(metrics);
+                }
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }, 0, period, unit);
+        return this;
+    }
+
+    /**
+     * Stop the metrics collector started by
+     * {@link #startMetricsCollector(long, TimeUnit, RocksDbMetrics.IMetricsListener)}.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    synchronized public RocksDbWrapper stopMetricsCollector() {
+        if (metricsCollector != null) {
+            metricsCollector.shutdownNow();
+            try {
+                metricsCollector.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            metricsCollector = null;
+        }
+        return this;
+    }
+
     /**
      * Obtain an iterator for a column family.
      * 
      * <p>
-     * Iterators will be automatically closed by this wrapper.
+     * Iterators will be automatically closed by this wrapper. As iterators are long-lived, they
+     * are tailing iterators (see {@link ReadOptions#setTailing(boolean)}) even if the wrapper's
+     * {@link ReadOptions} are not.
      * </p>
      * 
      * @param cfName
@@ -510,11 +1284,18 @@ public class RocksDbWrapper implements AutoCloseable {
         synchronized (iterators) {
             RocksIterator it = iterators.get(cfName);
             if (it == null) {
-                ColumnFamilyHandle cfh = getColumnFamilyHandle(cfName);
-                if (cfh == null) {
+                ColumnFamilyRef ref = tryAcquireColumnFamily(getColumnFamilyHandle(cfName));
+                if (ref == null) {
                     return null;
                 }
-                it = rocksDb.newIterator(cfh, readOptions);
+                try {
+                    if (iteratorReadOptions == null) {
+                        iteratorReadOptions = new ReadOptions(readOptions).setTailing(true);
+                    }
+                    it = rocksDb.newIterator(ref.getHandle(), iteratorReadOptions);
+                } finally {
+                    ref.release();
+                }
                 iterators.put(cfName, it);
             }
             return it;
@@ -588,13 +1369,14 @@ public class RocksDbWrapper implements AutoCloseable {
         if (readOnly) {
             throw new RocksDbException.ReadOnlyException("delete");
         }
-        if (cfh == null) {
-            throw new RocksDbException.ColumnFamilyNotExists();
-        }
+        ColumnFamilyRef ref = acquireColumnFamily(cfh);
         try {
             rocksDb.delete(cfh, writeOptions != null ? writeOptions : this.writeOptions, key);
         } catch (Exception e) {
             throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            invalidateReadCache(ref.getId(), key);
+            ref.release();
         }
     }
 
@@ -726,16 +1508,147 @@ public class RocksDbWrapper implements AutoCloseable {
         if (value == null) {
             delete(cfh, writeOptions, key);
         } else {
+            ColumnFamilyRef ref = acquireColumnFamily(cfh);
             try {
                 rocksDb.put(cfh, writeOptions != null ? writeOptions : this.writeOptions, key,
                         value);
             } catch (Exception e) {
                 throw e instanceof RocksDbException ? (RocksDbException) e
                         : new RocksDbException(e);
+            } finally {
+                invalidateReadCache(ref.getId(), key);
+                ref.release();
             }
         }
     }
 
+    /*----------------------------------------------------------------------*/
+    /**
+     * Merge a value into a key of a column family. The column family must be configured with a
+     * merge operator (e.g. via
+     * {@link RocksDbUtils#buildStringAppendColumnFamilyOptions(RocksDbUtils.OptionsProfile, char)}).
+     * 
+     * @param cfName
+     * @param key
+     * @param value
+     *            must not be {@code null}
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void merge(String cfName, String key, String value) throws RocksDbException {
+        merge(cfName, writeOptions, key,
+                value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Merge a value into a key of a column family. The column family must be configured with a
+     * merge operator.
+     * 
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void merge(String cfName, String key, byte[] value) throws RocksDbException {
+        merge(cfName, writeOptions, key, value);
+    }
+
+    /**
+     * Merge a value into a key of a column family, specifying write options. The column family
+     * must be configured with a merge operator.
+     * 
+     * @param cfName
+     * @param writeOptions
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void merge(String cfName, WriteOptions writeOptions, String key, byte[] value)
+            throws RocksDbException {
+        if (cfName == null) {
+            cfName = DEFAULT_COLUMN_FAMILY;
+        }
+        try {
+            merge(columnFamilyHandles.get(cfName), writeOptions,
+                    key.getBytes(StandardCharsets.UTF_8), value);
+        } catch (RocksDbException.ColumnFamilyNotExists e) {
+            throw new RocksDbException.ColumnFamilyNotExists(cfName);
+        }
+    }
+
+    /**
+     * Merge a value into a key.
+     * 
+     * @param cfh
+     * @param writeOptions
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    protected void merge(ColumnFamilyHandle cfh, WriteOptions writeOptions, byte[] key,
+            byte[] value) throws RocksDbException {
+        if (readOnly) {
+            throw new RocksDbException.ReadOnlyException("merge");
+        }
+        if (value == null) {
+            // unlike put, a merge operand has no "delete" meaning
+            throw new NullPointerException("Merge value must not be null.");
+        }
+        ColumnFamilyRef ref = acquireColumnFamily(cfh);
+        try {
+            rocksDb.merge(cfh, writeOptions != null ? writeOptions : this.writeOptions, key, value);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            invalidateReadCache(ref.getId(), key);
+            ref.release();
+        }
+    }
+
+    /**
+     * Add {@code delta} (may be negative) to a counter, as a single blind write. The column family
+     * must be configured with the {@code uint64add} merge operator (see
+     * {@link RocksDbUtils#buildCounterColumnFamilyOptions(RocksDbUtils.OptionsProfile)}).
+     * 
+     * @param cfName
+     * @param key
+     * @param delta
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void increment(String cfName, String key, long delta) throws RocksDbException {
+        merge(cfName, writeOptions, key, RocksDbUtils.encodeCounter(delta));
+    }
+
+    /**
+     * Set a counter's value.
+     * 
+     * @param cfName
+     * @param key
+     * @param value
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void setCounter(String cfName, String key, long value) throws RocksDbException {
+        put(cfName, writeOptions, key, RocksDbUtils.encodeCounter(value));
+    }
+
+    /**
+     * Get a counter's value.
+     * 
+     * @param cfName
+     * @param key
+     * @return the counter's value, {@code 0} if the counter does not exist
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public long getCounter(String cfName, String key) throws RocksDbException {
+        return RocksDbUtils.decodeCounter(get(cfName, key));
+    }
+
     /*----------------------------------------------------------------------*/
     /**
      * Get a value from the default column family.
@@ -803,6 +1716,20 @@ public class RocksDbWrapper implements AutoCloseable {
      */
     protected byte[] get(ColumnFamilyHandle cfh, ReadOptions readOptions, byte[] key)
             throws RocksDbException {
+        ColumnFamilyRef ref = acquireColumnFamily(cfh);
+        try {
+            RocksDbReadCache readCache = this.readCache;
+            if (readCache != null && (readOptions == null || readOptions == this.readOptions)) {
+                return readCache.get(ref.getId(), key, () -> doGet(cfh, this.readOptions, key));
+            }
+            return doGet(cfh, readOptions, key);
+        } finally {
+            ref.release();
+        }
+    }
+
+    private byte[] doGet(ColumnFamilyHandle cfh, ReadOptions readOptions, byte[] key)
+            throws RocksDbException {
         try {
             return rocksDb.get(cfh, readOptions != null ? readOptions : this.readOptions, key);
         } catch (Exception e) {
@@ -833,6 +1760,34 @@ public class RocksDbWrapper implements AutoCloseable {
             rocksDb.write(writeOptions != null ? writeOptions : this.writeOptions, batch);
         } catch (Exception e) {
             throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            invalidateReadCache();
+        }
+    }
+
+    /**
+     * Write a batch whose written keys are known: only these keys are invalidated from the read
+     * cache (instead of the whole cache).
+     * 
+     * @param writeOptions
+     * @param batch
+     * @param writtenKeys
+     *            all keys written by the batch, each as {@code Object[] {cfId (Integer), key
+     *            (byte[])}}
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    void write(WriteOptions writeOptions, WriteBatch batch, Collection<Object[]> writtenKeys)
+            throws RocksDbException {
+        try {
+            rocksDb.write(writeOptions != null ? writeOptions : this.writeOptions, batch);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            RocksDbReadCache readCache = this.readCache;
+            if (readCache != null) {
+                writtenKeys.forEach(k -> readCache.invalidate((Integer) k[0], (byte[]) k[1]));
+            }
         }
     }
 
@@ -859,6 +1814,310 @@ public class RocksDbWrapper implements AutoCloseable {
             rocksDb.write(writeOptions != null ? writeOptions : this.writeOptions, batch);
         } catch (Exception e) {
             throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            invalidateReadCache();
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Ingest external SST files (e.g. created by {@link org.rocksdb.SstFileWriter}) into a column
+     * family. See {@link RocksDB#ingestExternalFile(ColumnFamilyHandle, List,
+     * IngestExternalFileOptions)}.
+     * 
+     * @param cfName
+     * @param files
+     *            absolute paths of SST files
+     * @param moveFiles
+     *            if {@code true}, files are moved (hard-linked) into the DB instead of being
+     *            copied
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void ingestExternalFiles(String cfName, List<String> files, boolean moveFiles)
+            throws RocksDbException {
+        if (readOnly) {
+            throw new RocksDbException.ReadOnlyException("ingestExternalFiles");
+        }
+        if (cfName == null) {
+            cfName = DEFAULT_COLUMN_FAMILY;
+        }
+        ColumnFamilyRef ref = acquireColumnFamily(cfName);
+        try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+            ingestOptions.setMoveFiles(moveFiles).setSnapshotConsistency(true)
+                    .setAllowGlobalSeqNo(true).setAllowBlockingFlush(true);
+            rocksDb.ingestExternalFile(ref.getHandle(), files, ingestOptions);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        } finally {
+            ref.release();
+            invalidateReadCache();
         }
     }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * See {@link RocksDB#getSnapshot()}. The returned snapshot must be released via
+     * {@link #releaseSnapshot(Snapshot)}.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public Snapshot getSnapshot() {
+        return rocksDb.getSnapshot();
+    }
+
+    /**
+     * See {@link RocksDB#releaseSnapshot(Snapshot)}.
+     * 
+     * @param snapshot
+     * @since 1.1.1
+     */
+    public void releaseSnapshot(Snapshot snapshot) {
+        if (snapshot != null) {
+            rocksDb.releaseSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Create a new iterator for a column family, specifying read options (e.g. to iterate over a
+     * {@link Snapshot}).
+     * 
+     * <p>
+     * Unlike {@link #getIterator(String)}, the returned iterator is not managed by this wrapper and
+     * must be closed by the caller.
+     * </p>
+     * 
+     * @param cfName
+     * @param readOptions
+     * @return
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public RocksIterator newIterator(String cfName, ReadOptions readOptions)
+            throws RocksDbException {
+        if (cfName == null) {
+            cfName = DEFAULT_COLUMN_FAMILY;
+        }
+        ColumnFamilyRef ref = acquireColumnFamily(cfName);
+        try {
+            return rocksDb.newIterator(ref.getHandle(),
+                    readOptions != null ? readOptions : this.readOptions);
+        } finally {
+            ref.release();
+        }
+    }
+
+    /**
+     * Get metadata of live SST files of a column family.
+     * 
+     * @param cfName
+     * @return
+     * @since 1.1.1
+     */
+    public List<LiveFileMetaData> getLiveFilesMetaData(String cfName) {
+        byte[] name = (cfName != null ? cfName : DEFAULT_COLUMN_FAMILY)
+                .getBytes(StandardCharsets.UTF_8);
+        List<LiveFileMetaData> result = new ArrayList<>();
+        for (LiveFileMetaData metadata : rocksDb.getLiveFilesMetaData()) {
+            if (Arrays.equals(name, metadata.columnFamilyName())) {
+                result.add(metadata);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create an openable snapshot of the DB (SST files are hard-linked if on the same file
+     * system). See {@link Checkpoint#createCheckpoint(String)}.
+     * 
+     * @param checkpointDir
+     *            must not exist
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public void createCheckpoint(File checkpointDir) throws RocksDbException {
+        try (Checkpoint checkpoint = Checkpoint.create(rocksDb)) {
+            checkpoint.createCheckpoint(checkpointDir.getAbsolutePath());
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+    }
+
+    /**
+     * Create a new (incremental) backup. Files already backed up by previous backups in
+     * {@code backupDir} are not copied again.
+     * 
+     * @param backupDir
+     * @param flushBeforeBackup
+     *            if {@code true}, memtables are flushed before backup so that WAL files are not
+     *            needed
+     * @param numBackupsToKeep
+     *            if positive, older backups are purged to keep only this number of latest backups
+     * @return info of the newly created backup
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public BackupInfo createBackup(File backupDir, boolean flushBeforeBackup, int numBackupsToKeep)
+            throws RocksDbException {
+        try {
+            FileUtils.forceMkdir(backupDir);
+        } catch (IOException e) {
+            throw new RocksDbException(e);
+        }
+        try (BackupableDBOptions backupOptions = new BackupableDBOptions(
+                backupDir.getAbsolutePath());
+                BackupEngine backupEngine = BackupEngine.open(Env.getDefault(), backupOptions)) {
+            backupEngine.createNewBackup(rocksDb, flushBeforeBackup);
+            if (numBackupsToKeep > 0) {
+                backupEngine.purgeOldBackups(numBackupsToKeep);
+            }
+            List<BackupInfo> backups = backupEngine.getBackupInfo();
+            return backups.isEmpty() ? null : backups.get(backups.size() - 1);
+        } catch (Exception e) {
+            throw e instanceof RocksDbException ? (RocksDbException) e : new RocksDbException(e);
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Begin a new transaction with snapshot isolation, see {@link #beginTransaction(boolean)}.
+     * 
+     * @return
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public RocksDbTransaction beginTransaction() throws RocksDbException {
+        return beginTransaction(true);
+    }
+
+    /**
+     * Begin a new transaction. The DB must be opened as a transactional DB (see
+     * {@link #setTransactionMode(RocksDbTransaction.Mode)}). The returned transaction must be
+     * closed by the caller.
+     * 
+     * @param snapshotIsolation
+     *            if {@code true}, a snapshot is taken when the transaction begins: reads are made
+     *            against the snapshot and commit fails if any written key was modified by another
+     *            writer after the snapshot
+     * @return
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public RocksDbTransaction beginTransaction(boolean snapshotIsolation)
+            throws RocksDbException {
+        Transaction txn;
+        if (transactionMode == RocksDbTransaction.Mode.OPTIMISTIC) {
+            try (OptimisticTransactionOptions txnOptions = new OptimisticTransactionOptions()) {
+                txnOptions.setSetSnapshot(snapshotIsolation);
+                txn = ((OptimisticTransactionDB) rocksDb).beginTransaction(writeOptions,
+                        txnOptions);
+            }
+        } else if (transactionMode == RocksDbTransaction.Mode.PESSIMISTIC) {
+            try (TransactionOptions txnOptions = new TransactionOptions()) {
+                txnOptions.setSetSnapshot(snapshotIsolation).setDeadlockDetect(true);
+                if (lockTimeout >= 0) {
+                    txnOptions.setLockTimeout(lockTimeout);
+                }
+                txn = ((TransactionDB) rocksDb).beginTransaction(writeOptions, txnOptions);
+            }
+        } else {
+            throw new IllegalStateException("The DB is not opened as a transactional DB.");
+        }
+        ReadOptions txnReadOptions = new ReadOptions(readOptions);
+        if (snapshotIsolation) {
+            txnReadOptions.setSnapshot(txn.getSnapshot());
+        }
+        return new RocksDbTransaction(this, txn, txnReadOptions);
+    }
+
+    /**
+     * Execute {@code work} in a new transaction (with snapshot isolation) and commit it. If the
+     * transaction fails with {@link RocksDbException.TransactionConflict}, it is rolled back and
+     * retried with a fresh transaction, up to {@code maxRetries} times.
+     * 
+     * <p>
+     * Note: {@code work} may be executed several times, hence it should not have side effects
+     * outside of the transaction.
+     * </p>
+     * 
+     * @param work
+     * @param maxRetries
+     * @return result returned by {@code work} of the successful execution
+     * @throws RocksDbException.TransactionConflict
+     *             if the transaction still conflicts after {@code maxRetries} retries
+     * @throws RocksDbException
+     * @since 1.1.1
+     */
+    public <T> T executeInTransaction(Function<RocksDbTransaction, T> work, int maxRetries)
+            throws RocksDbException {
+        for (int attempt = 0;; attempt++) {
+            try (RocksDbTransaction txn = beginTransaction(true)) {
+                T result = work.apply(txn);
+                if (!txn.isCompleted()) {
+                    txn.commit();
+                }
+                return result;
+            } catch (RocksDbException.TransactionConflict e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                numTxnRetries.incrementAndGet();
+            }
+        }
+    }
+
+    void recordTransactionCommit() {
+        numTxnCommits.incrementAndGet();
+    }
+
+    void recordTransactionRollback() {
+        numTxnRollbacks.incrementAndGet();
+    }
+
+    void recordTransactionConflict() {
+        numTxnConflicts.incrementAndGet();
+    }
+
+    /**
+     * Number of committed transactions since the DB was opened.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public long getTransactionCommitCount() {
+        return numTxnCommits.get();
+    }
+
+    /**
+     * Number of rolled back transactions (including ones rolled back because of conflicts) since
+     * the DB was opened.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public long getTransactionRollbackCount() {
+        return numTxnRollbacks.get();
+    }
+
+    /**
+     * Number of transaction conflicts since the DB was opened.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public long getTransactionConflictCount() {
+        return numTxnConflicts.get();
+    }
+
+    /**
+     * Number of retries made by {@link #executeInTransaction(Function, int)} since the DB was
+     * opened.
+     * 
+     * @return
+     * @since 1.1.1
+     */
+    public long getTransactionRetryCount() {
+        return numTxnRetries.get();
+    }
 }
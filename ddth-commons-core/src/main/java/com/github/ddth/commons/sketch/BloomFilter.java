@@ -0,0 +1,298 @@
+package com.github.ddth.commons.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.serialization.ISerializationSupport;
+import com.github.ddth.commons.serialization.SerializationException;
+
+/**
+ * Bloom filter: space-efficient set membership test with false positives (but no false
+ * negatives).
+ *
+ * <p>
+ * Bits are stored either on-heap ({@code long[]}) or off-heap (direct {@link ByteBuffer}), so
+ * large filters do not burden the garbage collector. {@code k} bit positions are derived from one
+ * 64-bit hash of the item (double hashing); items are hashed with
+ * {@link com.github.ddth.commons.utils.HashUtils#xxHash64}, or a pre-computed 64-bit hash can be
+ * supplied (e.g. {@code putHash(HashUtils.checksum(obj))}).
+ * </p>
+ *
+ * <p>
+ * Not thread-safe: concurrent updates must be synchronized externally.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class BloomFilter implements ISerializationSupport {
+    private final static int MAGIC = 0xB1;
+    private final static int VERSION = 1;
+
+    /**
+     * Max number of bits of an on-heap filter (backed by a {@code long[]}, about 16 GiB).
+     */
+    public final static long MAX_BITS = (long) (Integer.MAX_VALUE - 8) * Long.SIZE;
+
+    /**
+     * Max number of bits of an off-heap filter: a direct {@link ByteBuffer} holds at most
+     * {@link Integer#MAX_VALUE} bytes (about 2 GiB).
+     */
+    public final static long MAX_OFF_HEAP_BITS = (long) (Integer.MAX_VALUE / Long.BYTES)
+            * Long.SIZE;
+
+    private long numBits;
+    private int numHashFunctions;
+    private boolean offHeap;
+    private LongBuffer bits;
+
+    /**
+     * For deserialization only.
+     */
+    protected BloomFilter() {
+    }
+
+    /**
+     * Construct a new on-heap {@link BloomFilter}.
+     *
+     * @param expectedInsertions
+     * @param fpp
+     *            desired false positive probability, in {@code (0, 1)}
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        this(expectedInsertions, fpp, false);
+    }
+
+    /**
+     * Construct a new {@link BloomFilter}.
+     *
+     * @param expectedInsertions
+     * @param fpp
+     *            desired false positive probability, in {@code (0, 1)}
+     * @param offHeap
+     *            if {@code true}, bits are stored in a direct {@link ByteBuffer} (up to
+     *            {@link #MAX_OFF_HEAP_BITS} bits), otherwise in a {@code long[]} (up to
+     *            {@link #MAX_BITS} bits)
+     */
+    public BloomFilter(long expectedInsertions, double fpp, boolean offHeap) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1).");
+        }
+        double m = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        if (m > (offHeap ? MAX_OFF_HEAP_BITS : MAX_BITS)) {
+            throw new IllegalArgumentException("Filter is too large: " + (long) m + " bits.");
+        }
+        this.numBits = Math.max(Long.SIZE, ((long) Math.ceil(m) + 63) / 64 * 64);
+        this.numHashFunctions = Math.max(1,
+                (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.offHeap = offHeap;
+        this.bits = allocate((int) (numBits / Long.SIZE), offHeap);
+    }
+
+    private static LongBuffer allocate(int numLongs, boolean offHeap) {
+        if (!offHeap) {
+            return LongBuffer.wrap(new long[numLongs]);
+        }
+        long numBytes = (long) numLongs * Long.BYTES;
+        if (numBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Filter is too large to be stored off-heap: " + numBytes + " bytes.");
+        }
+        return ByteBuffer.allocateDirect((int) numBytes).order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /*----------------------------------------------------------------------*/
+    private long bitIndex(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % numBits;
+    }
+
+    /**
+     * Add an item.
+     *
+     * @param item
+     * @return {@code true} if the filter changed (the item was definitely not in the filter)
+     */
+    public boolean put(Object item) {
+        return putHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Add an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @return {@code true} if the filter changed (the item was definitely not in the filter)
+     */
+    public boolean putHash(long hash) {
+        long hash2 = SketchUtils.mix(hash) | 1;
+        boolean changed = false;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = bitIndex(hash, hash2, i);
+            int pos = (int) (index >>> 6);
+            long word = bits.get(pos);
+            long newWord = word | (1L << index);
+            if (newWord != word) {
+                bits.put(pos, newWord);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Is the item possibly in the filter? ({@code false} means definitely not)
+     *
+     * @param item
+     * @return
+     */
+    public boolean mightContain(Object item) {
+        return mightContainHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Is the item (given its 64-bit hash) possibly in the filter?
+     *
+     * @param hash
+     * @return
+     */
+    public boolean mightContainHash(long hash) {
+        long hash2 = SketchUtils.mix(hash) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = bitIndex(hash, hash2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of bits set.
+     *
+     * @return
+     */
+    public long bitCount() {
+        long count = 0;
+        for (int i = 0, n = bits.capacity(); i < n; i++) {
+            count += Long.bitCount(bits.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Estimate the current false positive probability (from the fraction of bits set).
+     *
+     * @return
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount() / numBits, numHashFunctions);
+    }
+
+    /**
+     * Estimate the number of distinct items added.
+     *
+     * @return
+     */
+    public long approximateCount() {
+        double fractionOfBitsSet = (double) bitCount() / numBits;
+        return Math.round(-Math.log1p(-fractionOfBitsSet) * numBits / numHashFunctions);
+    }
+
+    /**
+     * Merge (union) another filter into this filter. Both filters must have the same number of
+     * bits and hash functions.
+     *
+     * @param other
+     * @return
+     */
+    public BloomFilter merge(BloomFilter other) {
+        if (other.numBits != numBits || other.numHashFunctions != numHashFunctions) {
+            throw new IllegalArgumentException("Filters are not compatible.");
+        }
+        for (int i = 0, n = bits.capacity(); i < n; i++) {
+            bits.put(i, bits.get(i) | other.bits.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Remove all items.
+     */
+    public void clear() {
+        for (int i = 0, n = bits.capacity(); i < n; i++) {
+            bits.put(i, 0);
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Format: {@code [magic, version, numHashFunctions (int), numBits (long), bits (longs)]}.
+     * </p>
+     *
+     * <p>
+     * The serialized data is a {@code byte[]}, hence limited to about 2 GiB: larger filters
+     * (more than about {@code 2^34} bits) can not be serialized and
+     * {@link SerializationException} is thrown.
+     * </p>
+     */
+    @Override
+    public byte[] toBytes() throws SerializationException {
+        ByteBuffer buf = SketchUtils.newBuffer(MAGIC, VERSION,
+                Integer.BYTES + Long.BYTES + numBits / Byte.SIZE);
+        buf.putInt(numHashFunctions).putLong(numBits);
+        for (int i = 0, n = bits.capacity(); i < n; i++) {
+            buf.putLong(bits.get(i));
+        }
+        return buf.array();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Bits are loaded into the current storage type (on-heap for a newly created instance).
+     * </p>
+     */
+    @Override
+    public BloomFilter fromBytes(byte[] data) throws DeserializationException {
+        ByteBuffer buf = SketchUtils.readBuffer(data, MAGIC, VERSION, "BloomFilter");
+        if (buf.remaining() < Integer.BYTES + Long.BYTES) {
+            throw new DeserializationException("Invalid BloomFilter data.");
+        }
+        int numHashFunctions = buf.getInt();
+        long numBits = buf.getLong();
+        if (numHashFunctions < 1 || numBits < Long.SIZE || numBits % Long.SIZE != 0
+                || numBits > MAX_BITS) {
+            throw new DeserializationException("Invalid BloomFilter data.");
+        }
+        SketchUtils.checkRemaining(buf, numBits / Byte.SIZE, "BloomFilter");
+        LongBuffer bits = allocate((int) (numBits / Long.SIZE), offHeap);
+        for (int i = 0, n = bits.capacity(); i < n; i++) {
+            bits.put(i, buf.getLong());
+        }
+        this.numHashFunctions = numHashFunctions;
+        this.numBits = numBits;
+        this.bits = bits;
+        return this;
+    }
+}
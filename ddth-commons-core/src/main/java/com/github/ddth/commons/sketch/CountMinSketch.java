@@ -0,0 +1,240 @@
+package com.github.ddth.commons.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.serialization.ISerializationSupport;
+import com.github.ddth.commons.serialization.SerializationException;
+
+/**
+ * Count-Min sketch: estimate items' frequencies in sub-linear space.
+ *
+ * <p>
+ * Estimates never under-count; with probability {@code 1 - delta} an estimate over-counts by at
+ * most {@code epsilon * totalCount}. The sketch is a {@code depth x width} table of counters
+ * ({@code width = ceil(e / epsilon)}, {@code depth = ceil(ln(1 / delta))}); row positions are
+ * derived from one 64-bit hash of the item. Sketches of the same dimensions can be merged.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe: concurrent updates must be synchronized externally.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class CountMinSketch implements ISerializationSupport {
+    private final static int MAGIC = 0xC3;
+    private final static int VERSION = 1;
+
+    private final static int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private int depth;
+    private int width;
+    private long[] table;
+    private long totalCount;
+
+    /**
+     * For deserialization only.
+     */
+    protected CountMinSketch() {
+    }
+
+    /**
+     * Construct a new {@link CountMinSketch} from error bounds.
+     *
+     * @param epsilon
+     *            relative error (to total count), in {@code (0, 1)}
+     * @param delta
+     *            probability that an estimate exceeds the error bound, in {@code (0, 1)}
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        this(checkedCeil(Math.log(1 / checkRange(delta, "delta"))),
+                checkedCeil(Math.E / checkRange(epsilon, "epsilon")));
+    }
+
+    /**
+     * Construct a new {@link CountMinSketch} with explicit dimensions.
+     *
+     * @param depth
+     *            number of rows (hash functions)
+     * @param width
+     *            number of counters per row
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || (long) depth * width > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid dimensions: " + depth + "x" + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth * width];
+    }
+
+    private static double checkRange(double value, String name) {
+        if (!(value > 0 && value < 1)) {
+            throw new IllegalArgumentException(name + " must be in (0, 1).");
+        }
+        return value;
+    }
+
+    private static int checkedCeil(double value) {
+        if (value > MAX_CELLS) {
+            throw new IllegalArgumentException("Sketch is too large.");
+        }
+        return Math.max(1, (int) Math.ceil(value));
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Sum of all counts added.
+     *
+     * @return
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /*----------------------------------------------------------------------*/
+    private int cell(long hash1, long hash2, int row) {
+        return row * width + (int) (((hash1 + row * hash2) & Long.MAX_VALUE) % width);
+    }
+
+    /**
+     * Add an occurrence of an item.
+     *
+     * @param item
+     */
+    public void add(Object item) {
+        addHash(SketchUtils.hash(item), 1);
+    }
+
+    /**
+     * Add occurrences of an item.
+     *
+     * @param item
+     * @param count
+     *            non-negative
+     */
+    public void add(Object item, long count) {
+        addHash(SketchUtils.hash(item), count);
+    }
+
+    /**
+     * Add occurrences of an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @param count
+     *            non-negative
+     */
+    public void addHash(long hash, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative.");
+        }
+        long hash2 = SketchUtils.mix(hash) | 1;
+        for (int row = 0; row < depth; row++) {
+            table[cell(hash, hash2, row)] += count;
+        }
+        totalCount += count;
+    }
+
+    /**
+     * Estimate the frequency of an item.
+     *
+     * @param item
+     * @return
+     */
+    public long estimate(Object item) {
+        return estimateHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Estimate the frequency of an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @return
+     */
+    public long estimateHash(long hash) {
+        long hash2 = SketchUtils.mix(hash) | 1;
+        long result = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            result = Math.min(result, table[cell(hash, hash2, row)]);
+        }
+        return result;
+    }
+
+    /**
+     * Merge another sketch into this sketch. Both sketches must have the same dimensions.
+     *
+     * @param other
+     * @return
+     */
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Sketches are not compatible.");
+        }
+        for (int i = 0; i < table.length; i++) {
+            table[i] += other.table[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        totalCount = 0;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Format: {@code [magic, version, depth (int), width (int), totalCount (long), counters
+     * (longs)]}.
+     * </p>
+     */
+    @Override
+    public byte[] toBytes() throws SerializationException {
+        ByteBuffer buf = SketchUtils.newBuffer(MAGIC, VERSION,
+                4 + 4 + 8 + (long) table.length * 8);
+        buf.putInt(depth).putInt(width).putLong(totalCount);
+        buf.asLongBuffer().put(table);
+        return buf.array();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CountMinSketch fromBytes(byte[] data) throws DeserializationException {
+        ByteBuffer buf = SketchUtils.readBuffer(data, MAGIC, VERSION, "CountMinSketch");
+        if (buf.remaining() < 4 + 4 + 8) {
+            throw new DeserializationException("Invalid CountMinSketch data.");
+        }
+        int depth = buf.getInt();
+        int width = buf.getInt();
+        long totalCount = buf.getLong();
+        if (depth < 1 || width < 1 || (long) depth * width > MAX_CELLS || totalCount < 0) {
+            throw new DeserializationException("Invalid CountMinSketch data.");
+        }
+        SketchUtils.checkRemaining(buf, (long) depth * width * 8, "CountMinSketch");
+        long[] table = new long[depth * width];
+        buf.asLongBuffer().get(table);
+        this.depth = depth;
+        this.width = width;
+        this.totalCount = totalCount;
+        this.table = table;
+        return this;
+    }
+}
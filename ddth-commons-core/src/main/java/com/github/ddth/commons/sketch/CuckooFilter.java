@@ -0,0 +1,316 @@
+package com.github.ddth.commons.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.serialization.ISerializationSupport;
+import com.github.ddth.commons.serialization.SerializationException;
+
+/**
+ * Cuckoo filter: set membership test with false positives (like {@link BloomFilter}) that also
+ * supports deleting items.
+ *
+ * <p>
+ * Each item is represented by a 16-bit fingerprint stored in one of two candidate buckets of 4
+ * slots (partial-key cuckoo hashing); false positive probability is about {@code 1.2E-4}. A
+ * filter holds up to ~95% of its slot count; once an insertion cannot find room after
+ * {@link #MAX_KICKS} relocations, the filter is full and further {@link #put(Object)}s return
+ * {@code false}.
+ * </p>
+ *
+ * <p>
+ * Note: only delete items that were added, otherwise another item sharing the same fingerprint
+ * may be deleted. Adding the same item more than once stores it multiple times (up to 8 copies).
+ * Not thread-safe: concurrent updates must be synchronized externally.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class CuckooFilter implements ISerializationSupport {
+    private final static int MAGIC = 0xC1;
+    private final static int VERSION = 1;
+
+    /**
+     * Number of slots per bucket.
+     */
+    public final static int BUCKET_SIZE = 4;
+
+    /**
+     * Max number of relocations per insertion.
+     */
+    public final static int MAX_KICKS = 500;
+
+    private final static int MAX_BUCKETS = 1 << 28;
+
+    private int numBuckets;
+    private short[] slots;
+    private long count;
+    /* fingerprint that could not be placed (filter is full), 0 if none */
+    private short victimFingerprint;
+    private int victimIndex;
+    private long randomState = 0x9E3779B97F4A7C15L;
+
+    /**
+     * For deserialization only.
+     */
+    protected CuckooFilter() {
+    }
+
+    /**
+     * Construct a new {@link CuckooFilter}.
+     *
+     * @param capacity
+     *            max number of items the filter is expected to hold
+     */
+    public CuckooFilter(long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        long minBuckets = (long) Math.ceil(capacity / (BUCKET_SIZE * 0.95));
+        if (minBuckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Capacity is too large: " + capacity);
+        }
+        this.numBuckets = Math.max(1, Integer.highestOneBit((int) minBuckets - 1) << 1);
+        this.slots = new short[numBuckets * BUCKET_SIZE];
+    }
+
+    public int getNumBuckets() {
+        return numBuckets;
+    }
+
+    /**
+     * Number of items currently in the filter.
+     *
+     * @return
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Is the filter full (last insertion could not find room)?
+     *
+     * @return
+     */
+    public boolean isFull() {
+        return victimFingerprint != 0;
+    }
+
+    /*----------------------------------------------------------------------*/
+    private static short fingerprint(long hash) {
+        short fp = (short) (hash >>> 48);
+        return fp != 0 ? fp : 1;
+    }
+
+    private int index(long hash) {
+        return (int) hash & (numBuckets - 1);
+    }
+
+    private int altIndex(int index, short fp) {
+        return (index ^ (int) SketchUtils.mix(fp & 0xFFFF)) & (numBuckets - 1);
+    }
+
+    private int nextRandom(int bound) {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) ((randomState >>> 33) % bound);
+    }
+
+    private boolean putInBucket(int index, short fp) {
+        for (int i = index * BUCKET_SIZE, end = i + BUCKET_SIZE; i < end; i++) {
+            if (slots[i] == 0) {
+                slots[i] = fp;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bucketContains(int index, short fp) {
+        for (int i = index * BUCKET_SIZE, end = i + BUCKET_SIZE; i < end; i++) {
+            if (slots[i] == fp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeFromBucket(int index, short fp) {
+        for (int i = index * BUCKET_SIZE, end = i + BUCKET_SIZE; i < end; i++) {
+            if (slots[i] == fp) {
+                slots[i] = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Place a fingerprint, relocating existing ones if needed; the fingerprint that could not be
+     * placed becomes the victim.
+     */
+    private void place(int index, short fp) {
+        int i1 = index, i2 = altIndex(index, fp);
+        if (putInBucket(i1, fp) || putInBucket(i2, fp)) {
+            return;
+        }
+        int i = nextRandom(2) == 0 ? i1 : i2;
+        for (int n = 0; n < MAX_KICKS; n++) {
+            int pos = i * BUCKET_SIZE + nextRandom(BUCKET_SIZE);
+            short evicted = slots[pos];
+            slots[pos] = fp;
+            fp = evicted;
+            i = altIndex(i, fp);
+            if (putInBucket(i, fp)) {
+                return;
+            }
+        }
+        victimFingerprint = fp;
+        victimIndex = i;
+    }
+
+    /**
+     * Add an item.
+     *
+     * @param item
+     * @return {@code false} if the filter is full
+     */
+    public boolean put(Object item) {
+        return putHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Add an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @return {@code false} if the filter is full
+     */
+    public boolean putHash(long hash) {
+        if (isFull()) {
+            return false;
+        }
+        place(index(hash), fingerprint(hash));
+        count++;
+        return true;
+    }
+
+    /**
+     * Is the item possibly in the filter? ({@code false} means definitely not)
+     *
+     * @param item
+     * @return
+     */
+    public boolean mightContain(Object item) {
+        return mightContainHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Is the item (given its 64-bit hash) possibly in the filter?
+     *
+     * @param hash
+     * @return
+     */
+    public boolean mightContainHash(long hash) {
+        short fp = fingerprint(hash);
+        int i1 = index(hash), i2 = altIndex(i1, fp);
+        if (victimFingerprint == fp && (victimIndex == i1 || victimIndex == i2)) {
+            return true;
+        }
+        return bucketContains(i1, fp) || bucketContains(i2, fp);
+    }
+
+    /**
+     * Delete an item (one copy, if it was added more than once).
+     *
+     * @param item
+     * @return {@code true} if (a fingerprint of) the item was found and deleted
+     */
+    public boolean delete(Object item) {
+        return deleteHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Delete an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @return {@code true} if (a fingerprint of) the item was found and deleted
+     */
+    public boolean deleteHash(long hash) {
+        short fp = fingerprint(hash);
+        int i1 = index(hash), i2 = altIndex(i1, fp);
+        if (victimFingerprint == fp && (victimIndex == i1 || victimIndex == i2)) {
+            victimFingerprint = 0;
+            count--;
+            return true;
+        }
+        if (removeFromBucket(i1, fp) || removeFromBucket(i2, fp)) {
+            count--;
+            if (victimFingerprint != 0) {
+                /* there is room now: try to place the victim again */
+                short victim = victimFingerprint;
+                victimFingerprint = 0;
+                place(victimIndex, victim);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all items.
+     */
+    public void clear() {
+        Arrays.fill(slots, (short) 0);
+        count = 0;
+        victimFingerprint = 0;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Format: {@code [magic, version, numBuckets (int), count (long), victimFingerprint (short),
+     * victimIndex (int), slots (shorts)]}.
+     * </p>
+     */
+    @Override
+    public byte[] toBytes() throws SerializationException {
+        ByteBuffer buf = SketchUtils.newBuffer(MAGIC, VERSION,
+                4 + 8 + 2 + 4 + (long) slots.length * 2);
+        buf.putInt(numBuckets).putLong(count).putShort(victimFingerprint).putInt(victimIndex);
+        buf.asShortBuffer().put(slots);
+        return buf.array();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CuckooFilter fromBytes(byte[] data) throws DeserializationException {
+        ByteBuffer buf = SketchUtils.readBuffer(data, MAGIC, VERSION, "CuckooFilter");
+        if (buf.remaining() < 4 + 8 + 2 + 4) {
+            throw new DeserializationException("Invalid CuckooFilter data.");
+        }
+        int numBuckets = buf.getInt();
+        long count = buf.getLong();
+        short victimFingerprint = buf.getShort();
+        int victimIndex = buf.getInt();
+        if (numBuckets < 1 || numBuckets > MAX_BUCKETS || Integer.bitCount(numBuckets) != 1
+                || count < 0 || victimIndex < 0 || victimIndex >= numBuckets) {
+            throw new DeserializationException("Invalid CuckooFilter data.");
+        }
+        SketchUtils.checkRemaining(buf, (long) numBuckets * BUCKET_SIZE * 2, "CuckooFilter");
+        short[] slots = new short[numBuckets * BUCKET_SIZE];
+        buf.asShortBuffer().get(slots);
+        this.numBuckets = numBuckets;
+        this.count = count;
+        this.victimFingerprint = victimFingerprint;
+        this.victimIndex = victimIndex;
+        this.slots = slots;
+        return this;
+    }
+}
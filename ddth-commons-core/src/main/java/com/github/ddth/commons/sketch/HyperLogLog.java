@@ -0,0 +1,179 @@
+package com.github.ddth.commons.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.serialization.ISerializationSupport;
+import com.github.ddth.commons.serialization.SerializationException;
+
+/**
+ * HyperLogLog: estimate the number of distinct items (cardinality) using {@code 2^precision}
+ * one-byte registers, with a standard error of about {@code 1.04 / sqrt(2^precision)} (e.g.
+ * {@code 0.81%} with precision {@code 14}, 16KB).
+ *
+ * <p>
+ * Items are hashed to 64 bits, so no large-range correction is needed; small cardinalities are
+ * estimated with linear counting. Sketches of the same precision can be merged (union).
+ * </p>
+ *
+ * <p>
+ * Not thread-safe: concurrent updates must be synchronized externally.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class HyperLogLog implements ISerializationSupport {
+    private final static int MAGIC = 0x11;
+    private final static int VERSION = 1;
+
+    public final static int MIN_PRECISION = 4;
+    public final static int MAX_PRECISION = 18;
+    public final static int DEFAULT_PRECISION = 14;
+
+    private int precision;
+    private byte[] registers;
+
+    /**
+     * Construct a new {@link HyperLogLog} with {@link #DEFAULT_PRECISION}.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Construct a new {@link HyperLogLog}.
+     *
+     * @param precision
+     *            number of index bits, in {@code [MIN_PRECISION, MAX_PRECISION]}
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be in [" + MIN_PRECISION + ", "
+                    + MAX_PRECISION + "], got " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Add an item.
+     *
+     * @param item
+     * @return {@code true} if the sketch changed
+     */
+    public boolean add(Object item) {
+        return addHash(SketchUtils.hash(item));
+    }
+
+    /**
+     * Add an item, given its 64-bit hash.
+     *
+     * @param hash
+     * @return {@code true} if the sketch changed
+     */
+    public boolean addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        /* sentinel bit bounds the rank to 64 - precision + 1 */
+        long w = hash << precision | 1L << (precision - 1);
+        byte rank = (byte) (Long.numberOfLeadingZeros(w) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Estimate the number of distinct items added.
+     *
+     * @return
+     */
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double alpha = m == 16 ? 0.673
+                : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Merge (union) another sketch into this sketch. Both sketches must have the same precision.
+     *
+     * @param other
+     * @return
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Sketches are not compatible.");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Remove all items.
+     */
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Format: {@code [magic, version, precision (byte), registers (bytes)]}.
+     * </p>
+     */
+    @Override
+    public byte[] toBytes() throws SerializationException {
+        ByteBuffer buf = SketchUtils.newBuffer(MAGIC, VERSION, 1 + registers.length);
+        buf.put((byte) precision).put(registers);
+        return buf.array();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HyperLogLog fromBytes(byte[] data) throws DeserializationException {
+        ByteBuffer buf = SketchUtils.readBuffer(data, MAGIC, VERSION, "HyperLogLog");
+        int precision = buf.hasRemaining() ? buf.get() : -1;
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new DeserializationException("Invalid HyperLogLog data.");
+        }
+        SketchUtils.checkRemaining(buf, 1 << precision, "HyperLogLog");
+        byte[] registers = new byte[1 << precision];
+        buf.get(registers);
+        for (byte r : registers) {
+            if (r < 0 || r > 64 - precision + 1) {
+                throw new DeserializationException("Invalid HyperLogLog data.");
+            }
+        }
+        this.precision = precision;
+        this.registers = registers;
+        return this;
+    }
+}
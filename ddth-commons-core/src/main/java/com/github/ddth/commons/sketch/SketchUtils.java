@@ -0,0 +1,78 @@
+package com.github.ddth.commons.sketch;
+
+import java.nio.ByteBuffer;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.serialization.SerializationException;
+import com.github.ddth.commons.utils.HashUtils;
+import com.github.ddth.commons.utils.ILongHashFunction;
+
+/**
+ * Helper shared by sketches: item hashing and (de)serialization headers.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+class SketchUtils {
+    /**
+     * Hash of an item (see {@link HashUtils#fastHashValue(Object, ILongHashFunction)} with
+     * {@link HashUtils#xxHash64}). Fixed, so that serialized sketches stay valid.
+     *
+     * @param item
+     * @return
+     */
+    static long hash(Object item) {
+        return HashUtils.fastHashValue(item, HashUtils.xxHash64);
+    }
+
+    /**
+     * Finalization mix of MurmurHash3 (64-bit), to derive a second independent hash.
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Allocate a buffer for serialized data, with header {@code [magic, version]} written.
+     */
+    static ByteBuffer newBuffer(int magic, int version, long size) {
+        if (size + 2 > Integer.MAX_VALUE - 8) {
+            throw new SerializationException(
+                    "Sketch is too large to serialize: " + size + " bytes.");
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) size + 2);
+        buf.put((byte) magic).put((byte) version);
+        return buf;
+    }
+
+    /**
+     * Wrap serialized data and check its header.
+     */
+    static ByteBuffer readBuffer(byte[] data, int magic, int version, String sketchName) {
+        if (data == null || data.length < 2 || data[0] != (byte) magic) {
+            throw new DeserializationException("Invalid " + sketchName + " data.");
+        }
+        if (data[1] != (byte) version) {
+            throw new DeserializationException(
+                    "Unsupported " + sketchName + " data version: " + data[1]);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        buf.position(2);
+        return buf;
+    }
+
+    /**
+     * Check that serialized data has exactly {@code expected} remaining bytes.
+     */
+    static void checkRemaining(ByteBuffer buf, long expected, String sketchName) {
+        if (buf.remaining() != expected) {
+            throw new DeserializationException("Invalid " + sketchName + " data: expected "
+                    + expected + " bytes of content, got " + buf.remaining() + ".");
+        }
+    }
+}
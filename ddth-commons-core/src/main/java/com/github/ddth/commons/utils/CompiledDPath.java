@@ -0,0 +1,300 @@
+package com.github.ddth.commons.utils;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A pre-parsed DPath expression (see {@link DPathUtils}).
+ *
+ * <p>
+ * Tokens of the expression are parsed once into field steps and integer index steps, so that
+ * evaluating a {@link CompiledDPath} touches neither regular expressions nor string splitting.
+ * Compiled expressions are immutable and thread-safe; {@link #compile(String)} caches them in a
+ * bounded cache keyed by path string.
+ * </p>
+ *
+ * <pre>
+ * CompiledDPath dPath = CompiledDPath.compile("employees[1].first_name");
+ * String firstName = dPath.getValue(company, String.class);
+ * </pre>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public final class CompiledDPath {
+    /**
+     * Token kind: map's attribute.
+     */
+    final static byte FIELD = 0;
+
+    /**
+     * Token kind: {@code [i]}, i'th element of a list/array.
+     */
+    final static byte INDEX = 1;
+
+    /**
+     * Token kind: {@code []}, "append to the end of list/array" (valid as last token of
+     * {@code setValue} only).
+     */
+    final static byte APPEND = 2;
+
+    /**
+     * Token kind: {@code [...]} with a non-integer content.
+     */
+    final static byte INVALID_INDEX = 3;
+
+    /**
+     * Token kind: {@code [*]}, all elements of a list/array (multi-value evaluation only).
+     */
+    final static byte WILDCARD_INDEX = 4;
+
+    /**
+     * Token kind: {@code *}, all attributes of a map (multi-value evaluation only).
+     */
+    final static byte WILDCARD_FIELD = 5;
+
+    /**
+     * Token kind: {@code [start:end]}, elements from {@code start} (inclusive) to {@code end}
+     * (exclusive) of a list/array (multi-value evaluation only).
+     */
+    final static byte SLICE = 6;
+
+    private final static Pattern PATTERN_SLICE = Pattern.compile("^\\[(-?\\d*):(-?\\d*)\\]$");
+
+    /**
+     * Max number of compiled expressions kept by {@link #compile(String)}.
+     */
+    public final static int CACHE_SIZE = 10000;
+
+    private final static Cache<String, CompiledDPath> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE).build();
+
+    /**
+     * Compile a DPath expression, returning a cached instance if available.
+     *
+     * @param dPath
+     * @return
+     */
+    public static CompiledDPath compile(String dPath) {
+        CompiledDPath result = cache.getIfPresent(dPath);
+        if (result == null) {
+            result = new CompiledDPath(dPath);
+            cache.put(dPath, result);
+        }
+        return result;
+    }
+
+    /**
+     * Clear the cache of compiled expressions.
+     */
+    public static void clearCache() {
+        cache.invalidateAll();
+    }
+
+    private final String dPath;
+    final String[] tokens;
+    final byte[] kinds;
+    final int[] indexes;
+    final int[] sliceEnds;
+    private final boolean multiValue;
+
+    /**
+     * Construct a new {@link CompiledDPath}, bypassing the cache.
+     *
+     * @param dPath
+     */
+    public CompiledDPath(String dPath) {
+        this.dPath = dPath;
+        this.tokens = DPathUtils.splitDpath(dPath);
+        this.kinds = new byte[tokens.length];
+        this.indexes = new int[tokens.length];
+        this.sliceEnds = new int[tokens.length];
+        boolean multiValue = false;
+        for (int i = 0; i < tokens.length; i++) {
+            Matcher m = DPathUtils.PATTERN_INDEX.matcher(tokens[i]);
+            if (!m.matches()) {
+                kinds[i] = "*".equals(tokens[i]) ? WILDCARD_FIELD : FIELD;
+            } else if ("[]".equals(tokens[i])) {
+                kinds[i] = APPEND;
+            } else if ("[*]".equals(tokens[i])) {
+                kinds[i] = WILDCARD_INDEX;
+            } else {
+                try {
+                    indexes[i] = Integer.parseInt(m.group(1));
+                    kinds[i] = INDEX;
+                } catch (NumberFormatException e) {
+                    kinds[i] = INVALID_INDEX;
+                    Matcher ms = PATTERN_SLICE.matcher(tokens[i]);
+                    if (ms.matches()) {
+                        try {
+                            indexes[i] = ms.group(1).isEmpty() ? 0
+                                    : Integer.parseInt(ms.group(1));
+                            sliceEnds[i] = ms.group(2).isEmpty() ? Integer.MAX_VALUE
+                                    : Integer.parseInt(ms.group(2));
+                            kinds[i] = SLICE;
+                        } catch (NumberFormatException e1) {
+                            // out of int range
+                        }
+                    }
+                }
+            }
+            multiValue |= kinds[i] >= WILDCARD_INDEX;
+        }
+        this.multiValue = multiValue;
+    }
+
+    /**
+     * The original DPath expression.
+     *
+     * @return
+     */
+    public String getPath() {
+        return dPath;
+    }
+
+    /**
+     * Number of tokens.
+     *
+     * @return
+     */
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Get tokens of the expression (see {@link DPathUtils#splitDpath(String)}).
+     *
+     * @return
+     */
+    public String[] getTokens() {
+        return Arrays.copyOf(tokens, tokens.length);
+    }
+
+    /**
+     * Does the expression contain wildcard ({@code [*]}, {@code *}) or slice
+     * ({@code [start:end]}) operators?
+     *
+     * <p>
+     * Such operators are evaluated only by multi-value methods (e.g.
+     * {@link DPathUtils#streamValues(Object, CompiledDPath)}); single-value methods (e.g.
+     * {@link DPathUtils#getValue(Object, CompiledDPath)}) treat {@code *} as a regular attribute
+     * name and {@code [*]}/{@code [start:end]} as invalid indexes.
+     * </p>
+     *
+     * @return
+     */
+    public boolean isMultiValue() {
+        return multiValue;
+    }
+
+    /**
+     * Is the {@code i}'th token a {@code [...]} token?
+     *
+     * @param i
+     * @return
+     */
+    boolean isBracket(int i) {
+        return kinds[i] != FIELD && kinds[i] != WILDCARD_FIELD;
+    }
+
+    /**
+     * Build the exception thrown when an invalid {@code [...]} token is evaluated.
+     */
+    NumberFormatException invalidIndex(int i) {
+        String token = tokens[i];
+        return new NumberFormatException(
+                "For input string: \"" + token.substring(1, token.length() - 1) + "\"");
+    }
+
+    /**
+     * The expression up to (and including) the {@code i}'th token, used in error messages.
+     */
+    String pathSoFar(int i) {
+        return String.join(String.valueOf(DPathUtils.PATH_SEPARATOR),
+                Arrays.asList(tokens).subList(0, i + 1));
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * See {@link DPathUtils#getValue(Object, CompiledDPath)}.
+     *
+     * @param target
+     * @return
+     */
+    public Object getValue(Object target) {
+        return DPathUtils.getValue(target, this);
+    }
+
+    /**
+     * See {@link DPathUtils#getValue(Object, CompiledDPath, Class)}.
+     *
+     * @param target
+     * @param clazz
+     * @return
+     */
+    public <T> T getValue(Object target, Class<T> clazz) {
+        return DPathUtils.getValue(target, this, clazz);
+    }
+
+    /**
+     * See {@link DPathUtils#getValue(Object, CompiledDPath, Class)}.
+     *
+     * @param target
+     * @param clazz
+     * @return
+     */
+    public <T> Optional<T> getValueOptional(Object target, Class<T> clazz) {
+        return Optional.ofNullable(getValue(target, clazz));
+    }
+
+    /**
+     * See {@link DPathUtils#getValue(JsonNode, CompiledDPath)}.
+     *
+     * @param node
+     * @return
+     */
+    public JsonNode getValue(JsonNode node) {
+        return DPathUtils.getValue(node, this);
+    }
+
+    /**
+     * See {@link DPathUtils#setValue(Object, CompiledDPath, Object, boolean)}.
+     *
+     * @param target
+     * @param value
+     * @param createIntermediatePath
+     */
+    public void setValue(Object target, Object value, boolean createIntermediatePath) {
+        DPathUtils.setValue(target, this, value, createIntermediatePath);
+    }
+
+    /**
+     * See {@link DPathUtils#deleteValue(Object, CompiledDPath)}.
+     *
+     * @param target
+     */
+    public void deleteValue(Object target) {
+        DPathUtils.deleteValue(target, this);
+    }
+
+    @Override
+    public String toString() {
+        return dPath;
+    }
+
+    @Override
+    public int hashCode() {
+        return dPath.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CompiledDPath && dPath.equals(((CompiledDPath) obj).dPath);
+    }
+}
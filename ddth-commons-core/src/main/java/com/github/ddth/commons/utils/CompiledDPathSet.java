@@ -0,0 +1,334 @@
+package com.github.ddth.commons.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.POJONode;
+
+/**
+ * A set of DPath expressions (see {@link DPathUtils}) merged into a prefix trie, so that values
+ * of all expressions are extracted from a document in one traversal: shared prefixes (e.g.
+ * {@code "user.address"} of {@code "user.address.city"} and {@code "user.address.zip"}) are
+ * walked only once.
+ *
+ * <p>
+ * The value extracted for each expression is the one {@link DPathUtils#getValue(Object, String)}
+ * would return; expressions that would fail (e.g. index out of bound, type mismatch) yield
+ * {@code null} instead of throwing exception. Instances are immutable and thread-safe.
+ * </p>
+ *
+ * <p>
+ * Values can also be extracted directly from JSON data (see {@link #extract(JsonParser)}),
+ * without building the whole {@link JsonNode} tree: subtrees not on any expression's path are
+ * skipped, and parsing stops as soon as all expressions are resolved.
+ * </p>
+ *
+ * <pre>
+ * CompiledDPathSet paths = CompiledDPathSet.compile("name", "employees[0].first_name",
+ *         "employees[0].email");
+ * Object[] values = paths.extract(company);
+ * </pre>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public final class CompiledDPathSet {
+    /**
+     * A node of the trie: one token shared by all expressions having the same prefix.
+     */
+    final static class Node {
+        /* an expression that contains this node's token, and the token's position */
+        final CompiledDPath dPath;
+        final int step;
+        final int id;
+        Node[] children = new Node[0];
+        /* children of field-tokens, for streaming lookup */
+        Map<String, Node> fieldChildren = Collections.emptyMap();
+        /* indexes of expressions that end at this node */
+        int[] terminals = new int[0];
+
+        Node(CompiledDPath dPath, int step, int id) {
+            this.dPath = dPath;
+            this.step = step;
+            this.id = id;
+        }
+
+        Node indexChild(int index) {
+            for (Node child : children) {
+                if (child.dPath.kinds[child.step] == CompiledDPath.INDEX
+                        && child.dPath.indexes[child.step] == index) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final static ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Compile a set of DPath expressions.
+     *
+     * @param dPaths
+     * @return
+     */
+    public static CompiledDPathSet compile(String... dPaths) {
+        return new CompiledDPathSet(Arrays.asList(dPaths));
+    }
+
+    /**
+     * Compile a set of DPath expressions.
+     *
+     * @param dPaths
+     * @return
+     */
+    public static CompiledDPathSet compile(Collection<String> dPaths) {
+        return new CompiledDPathSet(dPaths);
+    }
+
+    private final CompiledDPath[] dPaths;
+    private final List<String> pathList;
+    final Node root = new Node(null, -1, 0);
+    private int numNodes = 1;
+
+    private CompiledDPathSet(Collection<String> paths) {
+        this.dPaths = new CompiledDPath[paths.size()];
+        this.pathList = Collections.unmodifiableList(new ArrayList<>(paths));
+        Map<Node, Map<String, Node>> childrenMap = new LinkedHashMap<>();
+        for (int i = 0; i < dPaths.length; i++) {
+            CompiledDPath dPath = CompiledDPath.compile(pathList.get(i));
+            dPaths[i] = dPath;
+            Node node = root;
+            for (int step = 0; step < dPath.size(); step++) {
+                Map<String, Node> children = childrenMap.computeIfAbsent(node,
+                        k -> new LinkedHashMap<>());
+                final int s = step;
+                node = children.computeIfAbsent(dPath.tokens[step],
+                        k -> new Node(dPath, s, numNodes++));
+            }
+            node.terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+            node.terminals[node.terminals.length - 1] = i;
+        }
+        childrenMap.forEach((node, children) -> {
+            node.children = children.values().toArray(new Node[0]);
+            Map<String, Node> fieldChildren = new HashMap<>();
+            for (Node child : node.children) {
+                if (!child.dPath.isBracket(child.step)) {
+                    fieldChildren.put(child.dPath.tokens[child.step], child);
+                }
+            }
+            node.fieldChildren = fieldChildren;
+        });
+    }
+
+    /**
+     * Number of expressions in this set.
+     *
+     * @return
+     */
+    public int size() {
+        return dPaths.length;
+    }
+
+    /**
+     * The expressions, in order of compilation.
+     *
+     * @return
+     */
+    public List<String> getPaths() {
+        return pathList;
+    }
+
+    /**
+     * Get the compiled expression at position {@code i}.
+     *
+     * @param i
+     * @return
+     */
+    public CompiledDPath getPath(int i) {
+        return dPaths[i];
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Extract values of all expressions from the target object, in one traversal.
+     *
+     * @param target
+     * @return array of extracted values, the i'th element is the value of the i'th expression
+     */
+    public Object[] extract(Object target) {
+        Object[] result = new Object[dPaths.length];
+        boolean toJson = target instanceof JsonNode;
+        for (int i : root.terminals) {
+            result[i] = finalValue(target, toJson);
+        }
+        walk(target, root, result, toJson);
+        return result;
+    }
+
+    /**
+     * Extract values of all expressions from the target object, in one traversal.
+     *
+     * @param target
+     * @return map of {expression:value}, in order of compilation ({@code null} values included)
+     */
+    public Map<String, Object> extractAsMap(Object target) {
+        Object[] values = extract(target);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            result.put(pathList.get(i), values[i]);
+        }
+        return result;
+    }
+
+    private static Object finalValue(Object value, boolean toJson) {
+        if (value instanceof POJONode) {
+            value = DPathUtils.extractValue((POJONode) value);
+        }
+        if (toJson && value != null && !(value instanceof JsonNode)) {
+            value = JacksonUtils.toJson(value);
+        }
+        return value;
+    }
+
+    private static void walk(Object cursor, Node node, Object[] result, boolean toJson) {
+        for (Node child : node.children) {
+            Object value;
+            try {
+                value = DPathUtils.extractValue(cursor, child.dPath, child.step);
+            } catch (RuntimeException e) {
+                // expressions going through this node can not be resolved
+                continue;
+            }
+            for (int i : child.terminals) {
+                result[i] = finalValue(value, toJson);
+            }
+            if (value != null && child.children.length > 0) {
+                walk(value, child, result, toJson);
+            }
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Extract values of all expressions from JSON data.
+     *
+     * @param json
+     * @return see {@link #extract(JsonParser)}
+     * @throws IOException
+     */
+    public JsonNode[] extract(byte[] json) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            return extract(parser);
+        }
+    }
+
+    /**
+     * Extract values of all expressions from JSON data. The stream is not closed by this method
+     * and may not be fully consumed.
+     *
+     * @param json
+     * @return see {@link #extract(JsonParser)}
+     * @throws IOException
+     */
+    public JsonNode[] extract(InputStream json) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return extract(parser);
+        }
+    }
+
+    /**
+     * Extract values of all expressions from a JSON stream, without building the whole
+     * {@link JsonNode} tree.
+     *
+     * <p>
+     * Only values of the expressions are materialized; other subtrees are skipped via
+     * {@link JsonParser#skipChildren()}. Parsing stops (leaving the parser positioned inside the
+     * document) as soon as all expressions are resolved, or at the end of the first JSON value.
+     * </p>
+     *
+     * @param parser
+     *            a parser positioned before, or at the start of, a JSON value
+     * @return array of extracted values, the i'th element is the value of the i'th expression
+     *         ({@code null} if not found)
+     * @throws IOException
+     */
+    public JsonNode[] extract(JsonParser parser) throws IOException {
+        JsonNode[] result = new JsonNode[dPaths.length];
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            return result;
+        }
+        int[] remaining = { dPaths.length };
+        boolean[] settled = new boolean[numNodes];
+        stream(parser, root, result, remaining, settled);
+        return result;
+    }
+
+    /**
+     * Mark a node and its subtree as settled (values resolved, or known to be missing).
+     *
+     * @return {@code true} if all expressions have been settled
+     */
+    private static boolean settle(Node node, int[] remaining, boolean[] settled) {
+        if (!settled[node.id]) {
+            settled[node.id] = true;
+            remaining[0] -= node.terminals.length;
+            for (Node child : node.children) {
+                settle(child, remaining, settled);
+            }
+        }
+        return remaining[0] <= 0;
+    }
+
+    /**
+     * Process the value at the parser's current token against a trie node.
+     *
+     * @return {@code true} if all expressions have been settled (stop parsing)
+     */
+    private static boolean stream(JsonParser parser, Node node, JsonNode[] result,
+            int[] remaining, boolean[] settled) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (node.terminals.length > 0) {
+            JsonNode value = MAPPER.readTree(parser);
+            for (int i : node.terminals) {
+                result[i] = value;
+            }
+            if (node.children.length > 0) {
+                walk(value, node, result, true);
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.fieldChildren.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null || settled[child.id]) {
+                    parser.skipChildren();
+                } else if (stream(parser, child, result, remaining, settled)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+                Node child = node.indexChild(index);
+                if (child == null || settled[child.id]) {
+                    parser.skipChildren();
+                } else if (stream(parser, child, result, remaining, settled)) {
+                    return true;
+                }
+            }
+        }
+        return settle(node, remaining, settled);
+    }
+}
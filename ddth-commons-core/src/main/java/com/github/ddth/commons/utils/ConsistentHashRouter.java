@@ -0,0 +1,486 @@
+package com.github.ddth.commons.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route keys to a set of named, weighted nodes (e.g. Redis servers, RocksDB instances, JSON-RPC
+ * endpoints) using consistent hashing: adding or removing a node re-maps only a small fraction
+ * of the keys.
+ *
+ * <p>
+ * Supported algorithms (see {@link Algorithm}):
+ * </p>
+ * <ul>
+ * <li>{@link Algorithm#JUMP}: Lamping &amp; Veach's jump consistent hash over the nodes' slots,
+ * O(log n) lookup, no memory overhead. Keys move minimally only when nodes are added/removed at
+ * the end of the list.</li>
+ * <li>{@link Algorithm#RENDEZVOUS}: weighted highest-random-weight hashing, O(n) lookup (fine
+ * for tens of nodes), keys move minimally whichever node is added/removed.</li>
+ * <li>{@link Algorithm#KETAMA}: ketama-style ring of virtual nodes, O(log n) lookup (binary
+ * search over the ring).</li>
+ * </ul>
+ *
+ * <p>
+ * A node's weight is the relative share of keys it receives ({@code JUMP}: number of slots;
+ * {@code KETAMA}: number of virtual nodes is {@code weight * virtualNodes}).
+ * {@link #route(Object, int)} selects {@code N} distinct nodes for replication; its first node
+ * is always {@link #route(Object)}'s.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free and thread-safe: each modification ({@link #addNode(String, Object, int)},
+ * {@link #removeNode(String)}...) builds a new immutable routing table. Keys are hashed with a
+ * {@link ILongHashFunction} (default {@link HashUtils#xxHash64}), see
+ * {@link HashUtils#fastHashValue(Object, ILongHashFunction)}.
+ * </p>
+ *
+ * <pre>
+ * ConsistentHashRouter&lt;JedisConnector&gt; router = new ConsistentHashRouter&lt;&gt;(Algorithm.KETAMA)
+ *         .addNode("redis-1", connector1).addNode("redis-2", connector2, 2);
+ * JedisConnector connector = router.route(userId);
+ * </pre>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class ConsistentHashRouter<T> {
+    /**
+     * Consistent hashing algorithm.
+     */
+    public enum Algorithm {
+        JUMP, RENDEZVOUS, KETAMA
+    }
+
+    /**
+     * Default number of virtual nodes per weight unit ({@link Algorithm#KETAMA}).
+     */
+    public final static int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * Max number of slots of all nodes ({@link Algorithm#JUMP}).
+     */
+    public final static int MAX_SLOTS = 1 << 20;
+
+    private final static class Node<T> {
+        final String id;
+        final T target;
+        final int weight;
+
+        Node(String id, T target, int weight) {
+            this.id = id;
+            this.target = target;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Immutable routing table.
+     */
+    private final static class Table<T> {
+        final List<Node<T>> nodes;
+        final long[] idHashes;
+        /* JUMP: slot -> node index */
+        final int[] slots;
+        /* KETAMA: sorted ring points, and their owners' node index */
+        final long[] ringPoints;
+        final int[] ringOwners;
+
+        Table(List<Node<T>> nodes, long[] idHashes, int[] slots, long[] ringPoints,
+                int[] ringOwners) {
+            this.nodes = nodes;
+            this.idHashes = idHashes;
+            this.slots = slots;
+            this.ringPoints = ringPoints;
+            this.ringOwners = ringOwners;
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final ILongHashFunction hashFunc;
+    private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+    private final Map<String, Node<T>> nodeMap = new LinkedHashMap<>();
+    private volatile Table<T> table;
+
+    /**
+     * Construct a new {@link ConsistentHashRouter} using {@link HashUtils#xxHash64} to hash
+     * keys.
+     *
+     * @param algorithm
+     */
+    public ConsistentHashRouter(Algorithm algorithm) {
+        this(algorithm, HashUtils.xxHash64);
+    }
+
+    /**
+     * Construct a new {@link ConsistentHashRouter}.
+     *
+     * @param algorithm
+     * @param hashFunc
+     *            function to hash keys and node ids
+     */
+    public ConsistentHashRouter(Algorithm algorithm, ILongHashFunction hashFunc) {
+        this.algorithm = algorithm;
+        this.hashFunc = hashFunc;
+        this.table = buildTable();
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public ILongHashFunction getHashFunction() {
+        return hashFunc;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * Number of virtual nodes per weight unit ({@link Algorithm#KETAMA} only, default
+     * {@link #DEFAULT_VIRTUAL_NODES}).
+     *
+     * @param virtualNodes
+     * @return
+     */
+    public synchronized ConsistentHashRouter<T> setVirtualNodes(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Number of virtual nodes must be positive.");
+        }
+        this.virtualNodes = virtualNodes;
+        table = buildTable();
+        return this;
+    }
+
+    /**
+     * Add a node with weight {@code 1}.
+     *
+     * @param id
+     *            node's unique id (used to place the node, should be stable across restarts)
+     * @param target
+     * @return
+     */
+    public ConsistentHashRouter<T> addNode(String id, T target) {
+        return addNode(id, target, 1);
+    }
+
+    /**
+     * Add (or replace) a node.
+     *
+     * <p>
+     * Note: with {@link Algorithm#JUMP}, new nodes are appended to the end of the node list (a
+     * replaced node keeps its position).
+     * </p>
+     *
+     * @param id
+     *            node's unique id (used to place the node, should be stable across restarts)
+     * @param target
+     * @param weight
+     *            node's relative share of keys (positive)
+     * @return
+     */
+    public synchronized ConsistentHashRouter<T> addNode(String id, T target, int weight) {
+        if (id == null) {
+            throw new NullPointerException("Node id must not be null.");
+        }
+        if (weight < 1) {
+            throw new IllegalArgumentException("Node weight must be positive.");
+        }
+        nodeMap.put(id, new Node<>(id, target, weight));
+        table = buildTable();
+        return this;
+    }
+
+    /**
+     * Remove a node.
+     *
+     * @param id
+     * @return
+     */
+    public synchronized ConsistentHashRouter<T> removeNode(String id) {
+        if (nodeMap.remove(id) != null) {
+            table = buildTable();
+        }
+        return this;
+    }
+
+    /**
+     * Number of nodes.
+     *
+     * @return
+     */
+    public int size() {
+        return table.nodes.size();
+    }
+
+    /**
+     * Get all nodes' targets, in order of addition.
+     *
+     * @return map {node-id -> target}
+     */
+    public Map<String, T> getNodes() {
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Node<T> node : table.nodes) {
+            result.put(node.id, node.target);
+        }
+        return result;
+    }
+
+    /*----------------------------------------------------------------------*/
+    private Table<T> buildTable() {
+        List<Node<T>> nodes = Collections.unmodifiableList(new ArrayList<>(nodeMap.values()));
+        int n = nodes.size();
+        long[] idHashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            idHashes[i] = hashFunc.hash(nodes.get(i).id);
+        }
+        int[] slots = null;
+        long[] ringPoints = null;
+        int[] ringOwners = null;
+        if (algorithm == Algorithm.JUMP) {
+            long numSlots = nodes.stream().mapToLong(node -> node.weight).sum();
+            if (numSlots > MAX_SLOTS) {
+                throw new IllegalArgumentException(
+                        "Total weight " + numSlots + " exceeds " + MAX_SLOTS + ".");
+            }
+            slots = new int[(int) numSlots];
+            for (int i = 0, pos = 0; i < n; i++) {
+                Arrays.fill(slots, pos, pos += nodes.get(i).weight, i);
+            }
+        } else if (algorithm == Algorithm.KETAMA) {
+            long numPoints = nodes.stream().mapToLong(node -> (long) node.weight * virtualNodes)
+                    .sum();
+            if (numPoints > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many virtual nodes: " + numPoints + ".");
+            }
+            /* point and owner packed in one sortable entry: [point, owner] */
+            long[][] entries = new long[(int) numPoints][];
+            for (int i = 0, pos = 0; i < n; i++) {
+                Node<T> node = nodes.get(i);
+                for (int v = 0, m = node.weight * virtualNodes; v < m; v++) {
+                    entries[pos++] = new long[] { hashFunc.hash(node.id + "#" + v), i };
+                }
+            }
+            Arrays.sort(entries, (a, b) -> {
+                int c = Long.compare(a[0], b[0]);
+                /* tie: deterministic whatever the nodes' order */
+                return c != 0 ? c
+                        : nodes.get((int) a[1]).id.compareTo(nodes.get((int) b[1]).id);
+            });
+            ringPoints = new long[entries.length];
+            ringOwners = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                ringPoints[i] = entries[i][0];
+                ringOwners[i] = (int) entries[i][1];
+            }
+        }
+        return new Table<>(nodes, idHashes, slots, ringPoints, ringOwners);
+    }
+
+    /**
+     * Jump consistent hash (Lamping &amp; Veach): map a key to a bucket in
+     * {@code [0, numBuckets)}.
+     *
+     * @param key
+     * @param numBuckets
+     * @return
+     */
+    public static int jumpHash(long key, int numBuckets) {
+        if (numBuckets < 1) {
+            throw new IllegalArgumentException("Number of buckets must be positive.");
+        }
+        long b = -1, j = 0;
+        while (j < numBuckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Rendezvous score of a node for a key hash (weighted: {@code -weight / ln(u)}, with
+     * {@code u} uniform in {@code (0, 1)}).
+     */
+    private static double score(long keyHash, long idHash, int weight) {
+        double u = ((mix(keyHash ^ idHash) >>> 11) + 0.5) * 0x1.0p-53;
+        return -weight / Math.log(u);
+    }
+
+    /**
+     * Index of the first ring point at or after {@code hash} (wrapping around).
+     */
+    private static int ringIndex(long[] ringPoints, long hash) {
+        int idx = Arrays.binarySearch(ringPoints, hash);
+        if (idx < 0) {
+            idx = -idx - 1;
+        } else {
+            /* first of equal points */
+            while (idx > 0 && ringPoints[idx - 1] == hash) {
+                idx--;
+            }
+        }
+        return idx == ringPoints.length ? 0 : idx;
+    }
+
+    private int routeIndex(Table<T> table, long hash) {
+        switch (algorithm) {
+        case JUMP:
+            return table.slots[jumpHash(hash, table.slots.length)];
+        case RENDEZVOUS: {
+            int best = 0;
+            double bestScore = -1;
+            for (int i = 0, n = table.nodes.size(); i < n; i++) {
+                double s = score(hash, table.idHashes[i], table.nodes.get(i).weight);
+                if (s > bestScore) {
+                    bestScore = s;
+                    best = i;
+                }
+            }
+            return best;
+        }
+        default:
+            return table.ringOwners[ringIndex(table.ringPoints, hash)];
+        }
+    }
+
+    private List<T> routeIndexes(Table<T> table, long hash, int numReplicas) {
+        int n = Math.min(numReplicas, table.nodes.size());
+        List<T> result = new ArrayList<>(Math.max(n, 0));
+        if (n <= 0) {
+            return result;
+        }
+        boolean[] selected = new boolean[table.nodes.size()];
+        switch (algorithm) {
+        case JUMP: {
+            /* re-hash the key until enough distinct nodes are found, then fill in node order */
+            long h = hash;
+            for (int attempt = 0; result.size() < n && attempt < 8 * n + 8; attempt++) {
+                int i = table.slots[jumpHash(h, table.slots.length)];
+                if (!selected[i]) {
+                    selected[i] = true;
+                    result.add(table.nodes.get(i).target);
+                }
+                h = mix(h + 0x9E3779B97F4A7C15L);
+            }
+            for (int i = 0; result.size() < n; i++) {
+                if (!selected[i]) {
+                    selected[i] = true;
+                    result.add(table.nodes.get(i).target);
+                }
+            }
+            break;
+        }
+        case RENDEZVOUS: {
+            double[] scores = new double[table.nodes.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = score(hash, table.idHashes[i], table.nodes.get(i).weight);
+            }
+            while (result.size() < n) {
+                int best = -1;
+                for (int i = 0; i < scores.length; i++) {
+                    if (!selected[i] && (best < 0 || scores[i] > scores[best])) {
+                        best = i;
+                    }
+                }
+                selected[best] = true;
+                result.add(table.nodes.get(best).target);
+            }
+            break;
+        }
+        default: {
+            /* walk the ring clockwise, collecting distinct owners */
+            int[] owners = table.ringOwners;
+            for (int pos = ringIndex(table.ringPoints, hash), step = 0; result.size() < n
+                    && step < owners.length; pos = pos + 1 == owners.length ? 0 : pos + 1, step++) {
+                int i = owners[pos];
+                if (!selected[i]) {
+                    selected[i] = true;
+                    result.add(table.nodes.get(i).target);
+                }
+            }
+        }
+        }
+        return result;
+    }
+
+    /**
+     * Route a key to a node.
+     *
+     * @param key
+     * @return the node's target, {@code null} if there is no node
+     */
+    public T route(Object key) {
+        return routeHash(HashUtils.fastHashValue(key, hashFunc));
+    }
+
+    /**
+     * Route a {@code long} key to a node.
+     *
+     * @param key
+     * @return the node's target, {@code null} if there is no node
+     */
+    public T route(long key) {
+        return routeHash(hashFunc.hash(key));
+    }
+
+    /**
+     * Route an already-hashed key to a node.
+     *
+     * @param keyHash
+     * @return the node's target, {@code null} if there is no node
+     */
+    public T routeHash(long keyHash) {
+        Table<T> table = this.table;
+        return table.nodes.isEmpty() ? null
+                : table.nodes.get(routeIndex(table, keyHash)).target;
+    }
+
+    /**
+     * Route a key to {@code numReplicas} distinct nodes (e.g. primary and replicas).
+     *
+     * @param key
+     * @param numReplicas
+     * @return the nodes' targets, the first one is {@link #route(Object)}'s (fewer than
+     *         {@code numReplicas} if there are not enough nodes)
+     */
+    public List<T> route(Object key, int numReplicas) {
+        return routeHash(HashUtils.fastHashValue(key, hashFunc), numReplicas);
+    }
+
+    /**
+     * Route a {@code long} key to {@code numReplicas} distinct nodes.
+     *
+     * @param key
+     * @param numReplicas
+     * @return see {@link #route(Object, int)}
+     */
+    public List<T> route(long key, int numReplicas) {
+        return routeHash(hashFunc.hash(key), numReplicas);
+    }
+
+    /**
+     * Route an already-hashed key to {@code numReplicas} distinct nodes.
+     *
+     * @param keyHash
+     * @param numReplicas
+     * @return see {@link #route(Object, int)}
+     */
+    public List<T> routeHash(long keyHash, int numReplicas) {
+        return routeIndexes(table, keyHash, numReplicas);
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.ddth.commons.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+
+/**
+ * Lazily iterate over all values matched by a {@link CompiledDPath} that may contain wildcard
+ * ({@code [*]}, {@code *}) and slice ({@code [start:end]}) operators.
+ *
+ * <p>
+ * Matches are produced depth-first, one at a time: each token is evaluated by an iterator over
+ * the current container (backed by the container's own iterator or a sub-list view), so no
+ * intermediate list of matches is ever collected. Branches that do not match (missing attribute,
+ * index out of bound, type mismatch) are skipped.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+class DPathMatchIterator implements Iterator<Object> {
+    private final CompiledDPath dPath;
+    private final boolean toJson;
+    private final Iterator<?>[] levels;
+    private int depth;
+    private Object next;
+    private boolean ready;
+
+    /**
+     * @param target
+     * @param dPath
+     * @param toJson
+     *            if {@code true}, matched values are converted to {@link JsonNode}s
+     */
+    DPathMatchIterator(Object target, CompiledDPath dPath, boolean toJson) {
+        this.dPath = dPath;
+        this.toJson = toJson;
+        int n = dPath.size();
+        this.levels = new Iterator<?>[Math.max(1, n)];
+        levels[0] = n > 0 ? candidates(target, 0) : Collections.singleton(target).iterator();
+    }
+
+    private static Object unwrap(Object value) {
+        return value instanceof POJONode ? DPathUtils.extractValue((POJONode) value) : value;
+    }
+
+    private static boolean isMissing(Object value) {
+        return value == null || value instanceof NullNode || value instanceof MissingNode;
+    }
+
+    /**
+     * Iterator over a range of a list/array/{@link ArrayNode}, by index.
+     */
+    private static Iterator<Object> rangeIterator(Object container, int size, int start,
+            int end) {
+        int from = start < 0 ? Math.max(0, size + start) : Math.min(start, size);
+        int to = end < 0 ? Math.max(0, size + end) : Math.min(end, size);
+        if (container instanceof List<?>) {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) container;
+            return from < to ? list.subList(from, to).iterator()
+                    : Collections.emptyIterator();
+        }
+        return new Iterator<Object>() {
+            private int i = from;
+
+            @Override
+            public boolean hasNext() {
+                return i < to;
+            }
+
+            @Override
+            public Object next() {
+                if (i >= to) {
+                    throw new NoSuchElementException();
+                }
+                return container instanceof ArrayNode ? ((ArrayNode) container).get(i++)
+                        : ((Object[]) container)[i++];
+            }
+        };
+    }
+
+    private static int sizeOf(Object container) {
+        if (container instanceof List<?>) {
+            return ((List<?>) container).size();
+        }
+        if (container instanceof Object[]) {
+            return ((Object[]) container).length;
+        }
+        if (container instanceof ArrayNode) {
+            return ((ArrayNode) container).size();
+        }
+        return -1;
+    }
+
+    /**
+     * Iterator over values matched by the {@code step}'th token on {@code cursor}.
+     */
+    @SuppressWarnings("unchecked")
+    private Iterator<?> candidates(Object cursor, int step) {
+        cursor = unwrap(cursor);
+        if (isMissing(cursor)) {
+            return Collections.emptyIterator();
+        }
+        switch (dPath.kinds[step]) {
+        case CompiledDPath.WILDCARD_FIELD: {
+            if (cursor instanceof Map<?, ?>) {
+                return ((Map<?, Object>) cursor).values().iterator();
+            }
+            if (cursor instanceof ObjectNode) {
+                return ((ObjectNode) cursor).elements();
+            }
+            if (DPathUtils.isBean(cursor)) {
+                Object bean = cursor;
+                return ReflectionUtils.getPropertyReaders(bean.getClass()).values().stream()
+                        .map(reader -> reader.apply(bean)).iterator();
+            }
+            // "*" on a list/array matches all its elements, same as "[*]"
+            int size = sizeOf(cursor);
+            return size >= 0 ? rangeIterator(cursor, size, 0, size) : Collections.emptyIterator();
+        }
+        case CompiledDPath.WILDCARD_INDEX: {
+            if (cursor instanceof List<?>) {
+                return ((List<?>) cursor).iterator();
+            }
+            if (cursor instanceof Object[]) {
+                return Arrays.asList((Object[]) cursor).iterator();
+            }
+            if (cursor instanceof ArrayNode) {
+                return ((ArrayNode) cursor).elements();
+            }
+            return Collections.emptyIterator();
+        }
+        case CompiledDPath.SLICE: {
+            int size = sizeOf(cursor);
+            return size >= 0
+                    ? rangeIterator(cursor, size, dPath.indexes[step], dPath.sliceEnds[step])
+                    : Collections.emptyIterator();
+        }
+        default:
+            try {
+                Object value = DPathUtils.extractValue(cursor, dPath, step);
+                return isMissing(value) && step < dPath.size() - 1 ? Collections.emptyIterator()
+                        : Collections.singleton(value).iterator();
+            } catch (RuntimeException e) {
+                return Collections.emptyIterator();
+            }
+        }
+    }
+
+    private Object finalValue(Object value) {
+        value = unwrap(value);
+        if (toJson && value != null && !(value instanceof JsonNode)) {
+            value = JacksonUtils.toJson(value);
+        }
+        return value;
+    }
+
+    private boolean advance() {
+        int last = levels.length - 1;
+        while (depth >= 0) {
+            if (!levels[depth].hasNext()) {
+                levels[depth--] = null;
+                continue;
+            }
+            Object value = levels[depth].next();
+            if (depth == last) {
+                if (value != null) {
+                    next = finalValue(value);
+                    return true;
+                }
+            } else {
+                levels[depth + 1] = candidates(value, depth + 1);
+                depth++;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready) {
+            ready = advance();
+        }
+        return ready;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        Object result = next;
+        next = null;
+        return result;
+    }
+}
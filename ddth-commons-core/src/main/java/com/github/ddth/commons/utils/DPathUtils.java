@@ -1,14 +1,22 @@
 package com.github.ddth.commons.utils;
 
 import java.text.SimpleDateFormat;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,7 +39,9 @@ import com.fasterxml.jackson.databind.node.POJONode;
  * <ul>
  * <li><code>.</code> (the dot character): path separator</li>
  * <li><code>name</code>: access a map's attribute specified by
- * <code>name</code></li>
+ * <code>name</code>; or a bean's property (getter or public field) specified by <code>name</code>
+ * (since v1.1.1, application classes only: properties of strings, numbers, dates and other JDK
+ * classes are not accessible)</li>
  * <li><code>[i]</code>: access i'th element of a list/array (0-based)</li>
  * </ul>
  * Example: <code>employees.[1].first_name</code>. The dot right before {@code []} can be omitted:
@@ -95,12 +105,33 @@ import com.fasterxml.jackson.databind.node.POJONode;
  * Long age2 = DPathUtils.getValue(company, &quot;employees.[1].age&quot;, Long.class);
  * </pre>
  * 
+ * <p>
+ * DPath expressions are compiled into {@link CompiledDPath}s (and cached) before evaluation.
+ * Frequently used expressions can be compiled once and passed directly to the
+ * {@code CompiledDPath} overloads.
+ * </p>
+ * 
+ * <p>
+ * Multi-value methods ({@link #iterateValues(Object, String)},
+ * {@link #streamValues(Object, String)}) additionally support the following operators, lazily
+ * evaluated:
+ * </p>
+ * 
+ * <ul>
+ * <li><code>[*]</code>: all elements of a list/array</li>
+ * <li><code>*</code>: all attributes of a map (or properties of a bean)</li>
+ * <li><code>[start:end]</code>: elements from <code>start</code> (inclusive) to <code>end</code>
+ * (exclusive) of a list/array; both are optional and may be negative (relative to the end)</li>
+ * </ul>
+ * Example: <code>employees[*].first_name</code>, <code>employees[0:2].*</code>. Single-value
+ * methods keep treating <code>*</code> as a regular attribute name.
+ * 
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.1.0
  */
 public class DPathUtils {
 
-    private final static Pattern PATTERN_INDEX = Pattern.compile("^\\[(.*?)\\]$");
+    final static Pattern PATTERN_INDEX = Pattern.compile("^\\[(.*?)\\]$");
     private final static Pattern PATTERN_END_INDEX = Pattern.compile("^(.*)(\\[.*?\\])$");
     public final static char PATH_SEPARATOR = '.';
 
@@ -154,66 +185,133 @@ public class DPathUtils {
         return value;
     }
 
-    private static Object extractValue(Object target, String index) {
+    static Object extractValue(Object target, CompiledDPath dPath, int step) {
+        return extractValue(target, dPath, step, false);
+    }
+
+    /**
+     * Extract the value of a step.
+     * 
+     * @param target
+     * @param dPath
+     * @param step
+     * @param lenient
+     *            if {@code true}, an out-of-range or invalid index, or a step not applicable to
+     *            the target (e.g. a field of a string) yields {@code null} instead of throwing
+     *            exception
+     * @return
+     * @since 1.1.1
+     */
+    static Object extractValue(Object target, CompiledDPath dPath, int step, boolean lenient) {
         if (target == null) {
             return null;
         }
         if (target instanceof JsonNode) {
-            return extractValue((JsonNode) target, index);
+            return extractValue((JsonNode) target, dPath, step, lenient);
         }
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                if (target instanceof Object[]) {
-                    return ((Object[]) target)[i];
+        String index = dPath.tokens[step];
+        if (dPath.isBracket(step)) {
+            if (dPath.kinds[step] != CompiledDPath.INDEX) {
+                if (lenient) {
+                    return null;
                 }
-                if (target instanceof List<?>) {
-                    return ((List<?>) target).get(i);
-                }
-                throw new IllegalArgumentException("Expect an array or list for index [" + index
-                        + "] but received [" + target.getClass() + "] instead.");
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid index value: " + index, e);
+                throw new IllegalArgumentException("Invalid index value: " + index,
+                        dPath.invalidIndex(step));
+            }
+            int i = dPath.indexes[step];
+            if (target instanceof Object[]) {
+                Object[] array = (Object[]) target;
+                return !lenient || (i >= 0 && i < array.length) ? array[i] : null;
+            }
+            if (target instanceof List<?>) {
+                List<?> list = (List<?>) target;
+                return !lenient || (i >= 0 && i < list.size()) ? list.get(i) : null;
+            }
+            if (lenient) {
+                return null;
             }
+            throw new IllegalArgumentException("Expect an array or list for index [" + index
+                    + "] but received [" + target.getClass() + "] instead.");
         }
         if (target instanceof Map<?, ?>) {
             return ((Map<?, ?>) target).get(index);
         }
+        Function<Object, Object> reader = isBean(target)
+                ? ReflectionUtils.getPropertyReader(target.getClass(), index)
+                : null;
+        if (reader != null) {
+            return reader.apply(target);
+        }
+        if (lenient) {
+            return null;
+        }
         throw new IllegalArgumentException(
                 "Unsupported type [" + target.getClass() + "] or invalid index [" + index + "]");
     }
 
-    private static Object extractValue(JsonNode node, String index) {
+    /**
+     * Can the target object be navigated via its properties (getters/public fields)? Only
+     * application types are: maps, collections, arrays, {@link JsonNode}s, scalar values (strings,
+     * numbers, booleans, dates...) and other JDK ({@code java.*}/{@code javax.*}) classes are not.
+     * 
+     * @param target
+     * @return
+     * @since 1.1.1
+     */
+    static boolean isBean(Object target) {
+        if (target instanceof Map<?, ?> || target instanceof Iterable<?>
+                || target instanceof JsonNode || target.getClass().isArray()) {
+            return false;
+        }
+        if (target instanceof CharSequence || target instanceof Number
+                || target instanceof Boolean || target instanceof Character
+                || target instanceof Date || target instanceof Temporal
+                || target instanceof Enum<?>) {
+            return false;
+        }
+        String className = target.getClass().getName();
+        return !className.startsWith("java.") && !className.startsWith("javax.");
+    }
+
+    private static Object extractValue(JsonNode node, CompiledDPath dPath, int step,
+            boolean lenient) {
         if (node == null || node instanceof NullNode || node instanceof MissingNode) {
             return null;
         }
         if (node instanceof POJONode) {
-            return extractValue(extractValue((POJONode) node), index);
+            return extractValue(extractValue((POJONode) node), dPath, step, lenient);
         }
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                if (node instanceof ArrayNode) {
-                    if (i >= 0 && i < node.size()) {
-                        return node.get(i);
-                    } else {
-                        throw new IndexOutOfBoundsException(String.valueOf(i));
-                    }
+        String index = dPath.tokens[step];
+        if (dPath.isBracket(step)) {
+            if (dPath.kinds[step] != CompiledDPath.INDEX) {
+                if (lenient) {
+                    return null;
                 }
-                throw new IllegalArgumentException("Expect an ArrayNode for index [" + index
-                        + "] but received [" + node.getClass() + "] instead.");
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid index value: " + index, e);
+                throw new IllegalArgumentException("Invalid index value: " + index,
+                        dPath.invalidIndex(step));
             }
+            int i = dPath.indexes[step];
+            if (node instanceof ArrayNode) {
+                if (i >= 0 && i < node.size()) {
+                    return node.get(i);
+                } else if (lenient) {
+                    return null;
+                } else {
+                    throw new IndexOutOfBoundsException(String.valueOf(i));
+                }
+            }
+            if (lenient) {
+                return null;
+            }
+            throw new IllegalArgumentException("Expect an ArrayNode for index [" + index
+                    + "] but received [" + node.getClass() + "] instead.");
         }
         if (node instanceof ObjectNode) {
             return node.get(index);
         }
+        if (lenient) {
+            return null;
+        }
         throw new IllegalArgumentException(
                 "Unsupported type [" + node.getClass() + "] or invalid index [" + index + "]");
     }
@@ -381,6 +479,20 @@ public class DPathUtils {
      * @return
      */
     public static <T> T getValue(Object target, String dPath, Class<T> clazz) {
+        return getValue(target, CompiledDPath.compile(dPath), clazz);
+    }
+
+    /**
+     * Extract a value from the target object using a compiled DPath expression (generic
+     * version).
+     * 
+     * @param target
+     * @param dPath
+     * @param clazz
+     * @return
+     * @since 1.1.1
+     */
+    public static <T> T getValue(Object target, CompiledDPath dPath, Class<T> clazz) {
         if (clazz == null) {
             throw new NullPointerException("Class parameter is null!");
         }
@@ -409,13 +521,24 @@ public class DPathUtils {
      * @param dPath
      */
     public static Object getValue(Object target, String dPath) {
+        return getValue(target, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Extract a value from the target object using a compiled DPath expression.
+     * 
+     * @param target
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Object getValue(Object target, CompiledDPath dPath) {
         if (target instanceof JsonNode) {
             return getValue((JsonNode) target, dPath);
         }
-        String[] paths = splitDpath(dPath);
         Object result = target;
-        for (String path : paths) {
-            result = extractValue(result, path);
+        for (int i = 0, n = dPath.size(); i < n; i++) {
+            result = extractValue(result, dPath, i);
         }
         return result instanceof POJONode ? extractValue((POJONode) result) : result;
     }
@@ -432,6 +555,243 @@ public class DPathUtils {
         return Optional.ofNullable(getValue(target, dPath));
     }
 
+    /**
+     * Extract a {@code long} value from the target object (or {@link JsonNode}) using DPath
+     * expression, without boxing. Return {@code defaultValue} if the value is missing or can not
+     * be converted (see {@link ValueUtils#convertLong(Object, long)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static long getLong(Object target, String dPath, long defaultValue) {
+        return getLong(target, CompiledDPath.compile(dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code long} value from the target object (or {@link JsonNode}) using a
+     * compiled DPath expression, without boxing (see {@link #getLong(Object, String, long)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static long getLong(Object target, CompiledDPath dPath, long defaultValue) {
+        return ValueUtils.convertLong(getRawValue(target, dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code int} value from the target object (or {@link JsonNode}) using DPath
+     * expression, without boxing. Return {@code defaultValue} if the value is missing or can not
+     * be converted (see {@link ValueUtils#convertInt(Object, int)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static int getInt(Object target, String dPath, int defaultValue) {
+        return getInt(target, CompiledDPath.compile(dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code int} value from the target object (or {@link JsonNode}) using a
+     * compiled DPath expression, without boxing (see {@link #getInt(Object, String, int)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static int getInt(Object target, CompiledDPath dPath, int defaultValue) {
+        return ValueUtils.convertInt(getRawValue(target, dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code double} value from the target object (or {@link JsonNode}) using DPath
+     * expression, without boxing. Return {@code defaultValue} if the value is missing or can not
+     * be converted (see {@link ValueUtils#convertDouble(Object, double)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static double getDouble(Object target, String dPath, double defaultValue) {
+        return getDouble(target, CompiledDPath.compile(dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code double} value from the target object (or {@link JsonNode}) using a
+     * compiled DPath expression, without boxing (see {@link #getDouble(Object, String, double)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static double getDouble(Object target, CompiledDPath dPath, double defaultValue) {
+        return ValueUtils.convertDouble(getRawValue(target, dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code boolean} value from the target object (or {@link JsonNode}) using DPath
+     * expression, without boxing. Return {@code defaultValue} if the value is missing or can not
+     * be converted (see {@link ValueUtils#convertBoolean(Object, boolean)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static boolean getBoolean(Object target, String dPath, boolean defaultValue) {
+        return getBoolean(target, CompiledDPath.compile(dPath), defaultValue);
+    }
+
+    /**
+     * Extract a {@code boolean} value from the target object (or {@link JsonNode}) using a
+     * compiled DPath expression, without boxing (see {@link #getBoolean(Object, String, boolean)}).
+     * 
+     * @param target
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static boolean getBoolean(Object target, CompiledDPath dPath, boolean defaultValue) {
+        return ValueUtils.convertBoolean(getRawValue(target, dPath), defaultValue);
+    }
+
+    /**
+     * Evaluate a compiled DPath expression, returning the matched value as-is (e.g.
+     * {@link JsonNode} values are not converted). Out-of-range indexes and steps not applicable
+     * to the current value are treated as missing value ({@code null}).
+     */
+    private static Object getRawValue(Object target, CompiledDPath dPath) {
+        Object result = target;
+        for (int i = 0, n = dPath.size(); i < n && result != null; i++) {
+            result = extractValue(result, dPath, i, true);
+        }
+        return result;
+    }
+
+    /**
+     * Extract values of several DPath expressions from the target object in one traversal (see
+     * {@link CompiledDPathSet}).
+     * 
+     * @param target
+     * @param dPaths
+     * @return array of extracted values, the i'th element is the value of the i'th expression
+     * @since 1.1.1
+     */
+    public static Object[] getValues(Object target, String... dPaths) {
+        return CompiledDPathSet.compile(dPaths).extract(target);
+    }
+
+    /**
+     * Extract values of a set of compiled DPath expressions from the target object in one
+     * traversal.
+     * 
+     * @param target
+     * @param dPaths
+     * @return array of extracted values, the i'th element is the value of the i'th expression
+     * @since 1.1.1
+     */
+    public static Object[] getValues(Object target, CompiledDPathSet dPaths) {
+        return dPaths.extract(target);
+    }
+
+    /**
+     * Extract values of several DPath expressions from the target object in one traversal (see
+     * {@link CompiledDPathSet}).
+     * 
+     * @param target
+     * @param dPaths
+     * @return map of {expression:value}
+     * @since 1.1.1
+     */
+    public static Map<String, Object> getValuesAsMap(Object target, Collection<String> dPaths) {
+        return CompiledDPathSet.compile(dPaths).extractAsMap(target);
+    }
+
+    /**
+     * Iterate over all values matched by a DPath expression that may contain wildcard/slice
+     * operators. Values are evaluated lazily, as the iterator advances; non-matching branches
+     * (missing attributes, index out of bound, type mismatch) are skipped.
+     * 
+     * @param target
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Iterator<Object> iterateValues(Object target, String dPath) {
+        return iterateValues(target, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Iterate over all values matched by a compiled DPath expression that may contain
+     * wildcard/slice operators (see {@link #iterateValues(Object, String)}).
+     * 
+     * @param target
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Iterator<Object> iterateValues(Object target, CompiledDPath dPath) {
+        return new DPathMatchIterator(target, dPath, target instanceof JsonNode);
+    }
+
+    /**
+     * Stream all values matched by a DPath expression that may contain wildcard/slice operators
+     * (see {@link #iterateValues(Object, String)}).
+     * 
+     * @param target
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Stream<Object> streamValues(Object target, String dPath) {
+        return streamValues(target, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Stream all values matched by a compiled DPath expression that may contain wildcard/slice
+     * operators (see {@link #iterateValues(Object, String)}).
+     * 
+     * @param target
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Stream<Object> streamValues(Object target, CompiledDPath dPath) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterateValues(target, dPath),
+                        Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Stream all values matched by a DPath expression that may contain wildcard/slice operators
+     * from the target {@link JsonNode} (see {@link #iterateValues(Object, String)}).
+     * 
+     * @param node
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static Stream<JsonNode> streamValues(JsonNode node, String dPath) {
+        return streamValues((Object) node, CompiledDPath.compile(dPath)).map(v -> (JsonNode) v);
+    }
+
     /*----------------------------------------------------------------------*/
     /**
      * Extract a date value from the target {@link JsonNode} using DPath expression. If the
@@ -460,6 +820,20 @@ public class DPathUtils {
      * @since 0.6.2
      */
     public static <T> T getValue(JsonNode node, String dPath, Class<T> clazz) {
+        return getValue(node, CompiledDPath.compile(dPath), clazz);
+    }
+
+    /**
+     * Extract a value from the target {@link JsonNode} using a compiled DPath expression (generic
+     * version).
+     * 
+     * @param node
+     * @param dPath
+     * @param clazz
+     * @return
+     * @since 1.1.1
+     */
+    public static <T> T getValue(JsonNode node, CompiledDPath dPath, Class<T> clazz) {
         if (clazz == null) {
             throw new NullPointerException("Class parameter is null!");
         }
@@ -489,10 +863,21 @@ public class DPathUtils {
      * @since 0.6.2
      */
     public static JsonNode getValue(JsonNode node, String dPath) {
-        String[] paths = splitDpath(dPath);
+        return getValue(node, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Extract a value from the target {@link JsonNode} using a compiled DPath expression.
+     * 
+     * @param node
+     * @param dPath
+     * @return
+     * @since 1.1.1
+     */
+    public static JsonNode getValue(JsonNode node, CompiledDPath dPath) {
         Object result = node;
-        for (String path : paths) {
-            result = extractValue(result, path);
+        for (int i = 0, n = dPath.size(); i < n; i++) {
+            result = extractValue(result, dPath, i);
         }
         if (result instanceof POJONode) {
             result = extractValue((POJONode) result);
@@ -516,70 +901,66 @@ public class DPathUtils {
 
     /*----------------------------------------------------------------------*/
 
-    private static Object createIntermediate(Object target, StringBuffer pathSofar, String index,
-            String nextIndex) {
+    private static Object createIntermediate(Object target, CompiledDPath dPath, int step) {
         if (target instanceof JsonNode) {
-            return createIntermediate((JsonNode) target, pathSofar, index, nextIndex);
+            return createIntermediate((JsonNode) target, dPath, step);
         }
-        Object value = PATTERN_INDEX.matcher(nextIndex).matches() ? new ArrayList<Object>()
+        Object value = dPath.isBracket(step + 1) ? new ArrayList<Object>()
                 : new HashMap<String, Object>();
-        return createIntermediate(target, pathSofar, index, value);
+        return createIntermediate(target, dPath, step, value);
     }
 
     @SuppressWarnings("unchecked")
-    private static Object createIntermediate(Object target, StringBuffer pathSofar, String index,
+    private static Object createIntermediate(Object target, CompiledDPath dPath, int step,
             Object value) {
         if (target == null) {
             return null;
         }
         if (target instanceof JsonNode) {
-            return createIntermediate((JsonNode) target, pathSofar, index, value);
+            return createIntermediate((JsonNode) target, dPath, step, value);
         }
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                if (target instanceof List<?>) {
-                    List<Object> temp = (List<Object>) target;
-                    if (i >= 0 && i < temp.size()) {
-                        // the middle item is null (in some cases)
-                        temp.set(i, value);
-                    } else if (i == temp.size()) {
-                        // special case: add the last item
-                        temp.add(value);
-                    } else {
-                        throw new IllegalArgumentException("Error: Index out of bound. Path ["
-                                + pathSofar + "], target [" + target.getClass() + "].");
-                    }
-                    return value;
-                } else if (target instanceof Object[]) {
-                    Object[] temp = (Object[]) target;
-                    if (i >= 0 && i < temp.length) {
-                        // the middle item is null (in some cases)
-                        temp[i] = value;
-                    } else {
-                        throw new IllegalArgumentException("Error: Index out of bound. Path ["
-                                + pathSofar + "], target [" + target.getClass() + "].");
-                    }
-                    return value;
+        if (dPath.isBracket(step)) {
+            if (dPath.kinds[step] != CompiledDPath.INDEX) {
+                throw new IllegalArgumentException("Error: Invalid index. Path ["
+                        + dPath.pathSoFar(step) + "], target [" + target.getClass() + "].",
+                        dPath.invalidIndex(step));
+            }
+            int i = dPath.indexes[step];
+            if (target instanceof List<?>) {
+                List<Object> temp = (List<Object>) target;
+                if (i >= 0 && i < temp.size()) {
+                    // the middle item is null (in some cases)
+                    temp.set(i, value);
+                } else if (i == temp.size()) {
+                    // special case: add the last item
+                    temp.add(value);
                 } else {
-                    throw new IllegalArgumentException("Expect an array or list for path ["
-                            + pathSofar + "] but received [" + target.getClass() + "] instead.");
+                    throw new IllegalArgumentException("Error: Index out of bound. Path ["
+                            + dPath.pathSoFar(step) + "], target [" + target.getClass() + "].");
                 }
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + pathSofar
-                        + "], target [" + target.getClass() + "].", e);
+                return value;
+            } else if (target instanceof Object[]) {
+                Object[] temp = (Object[]) target;
+                if (i >= 0 && i < temp.length) {
+                    // the middle item is null (in some cases)
+                    temp[i] = value;
+                } else {
+                    throw new IllegalArgumentException("Error: Index out of bound. Path ["
+                            + dPath.pathSoFar(step) + "], target [" + target.getClass() + "].");
+                }
+                return value;
+            } else {
+                throw new IllegalArgumentException(
+                        "Expect an array or list for path [" + dPath.pathSoFar(step)
+                                + "] but received [" + target.getClass() + "] instead.");
             }
         } else if (target instanceof Map<?, ?>) {
             Map<Object, Object> temp = (Map<Object, Object>) target;
-            temp.put(index, value);
+            temp.put(dPath.tokens[step], value);
             return value;
         } else {
             throw new IllegalArgumentException("Target object of type [" + target.getClass()
-                    + "] is not writable with path [" + pathSofar + "]!");
+                    + "] is not writable with path [" + dPath.pathSoFar(step) + "]!");
         }
     }
 
@@ -634,6 +1015,21 @@ public class DPathUtils {
      */
     public static void setValue(Object target, String dPath, Object value,
             boolean createIntermediatePath) {
+        setValue(target, CompiledDPath.compile(dPath), value, createIntermediatePath);
+    }
+
+    /**
+     * Set a value to the target object specified by a compiled DPath expression. See
+     * {@link #setValue(Object, String, Object, boolean)}.
+     * 
+     * @param target
+     * @param dPath
+     * @param value
+     * @param createIntermediatePath
+     * @since 1.1.1
+     */
+    public static void setValue(Object target, CompiledDPath dPath, Object value,
+            boolean createIntermediatePath) {
         if (target == null) {
             throw new IllegalArgumentException("Target is null!");
         }
@@ -641,24 +1037,17 @@ public class DPathUtils {
             setValue((JsonNode) target, dPath, value, createIntermediatePath);
             return;
         }
-        String[] paths = splitDpath(dPath);
         Object cursor = target, prevCursor = target;
-        StringBuffer pathSofar = new StringBuffer();
         // "seek"to the correct position
-        for (int i = 0; i < paths.length - 1; i++) {
-            if (i > 0) {
-                pathSofar.append(PATH_SEPARATOR);
-            }
-            String index = paths[i], nextIndex = paths[i + 1];
-            pathSofar.append(index);
+        for (int i = 0, n = dPath.size(); i < n - 1; i++) {
             try {
-                cursor = extractValue(cursor, index);
+                cursor = extractValue(cursor, dPath, i);
             } catch (IndexOutOfBoundsException e) {
                 cursor = null;
             }
             if (cursor == null && createIntermediatePath) {
                 // creating intermediate value
-                cursor = createIntermediate(prevCursor, pathSofar, index, nextIndex);
+                cursor = createIntermediate(prevCursor, dPath, i);
             }
             prevCursor = cursor;
         }
@@ -666,21 +1055,22 @@ public class DPathUtils {
             throw new IllegalArgumentException("Path not found [" + dPath + "]!");
         }
 
-        String index = paths[paths.length - 1];
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches() || "[]".equals(index)) {
-            try {
-                int i = "[]".equals(index) ? Integer.MAX_VALUE : Integer.parseInt(m.group(1));
-                setFieldValue(dPath, cursor, i, value);
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
-                        + "], target [" + cursor.getClass() + "].", e);
-            }
-        } else {
-            setFieldValue(dPath, cursor, index, value);
+        int last = dPath.size() - 1;
+        String index = dPath.tokens[last];
+        switch (dPath.kinds[last]) {
+        case CompiledDPath.INDEX:
+            setFieldValue(dPath.getPath(), cursor, dPath.indexes[last], value);
+            break;
+        case CompiledDPath.APPEND:
+            setFieldValue(dPath.getPath(), cursor, Integer.MAX_VALUE, value);
+            break;
+        case CompiledDPath.FIELD:
+        case CompiledDPath.WILDCARD_FIELD:
+            setFieldValue(dPath.getPath(), cursor, index, value);
+            break;
+        default:
+            throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
+                    + "], target [" + cursor.getClass() + "].", dPath.invalidIndex(last));
         }
     }
 
@@ -700,107 +1090,109 @@ public class DPathUtils {
      * @since 0.6.1
      */
     public static void deleteValue(Object target, String dPath) {
+        deleteValue(target, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Delete a value from the target object specified by a compiled DPath expression. See
+     * {@link #deleteValue(Object, String)}.
+     * 
+     * @param target
+     * @param dPath
+     * @since 1.1.1
+     */
+    public static void deleteValue(Object target, CompiledDPath dPath) {
         if (target instanceof JsonNode) {
             deleteValue((JsonNode) target, dPath);
             return;
         }
-        String[] paths = splitDpath(dPath);
         Object cursor = target;
         // "seek"to the correct position
-        for (int i = 0; i < paths.length - 1; i++) {
-            cursor = extractValue(cursor, paths[i]);
+        for (int i = 0, n = dPath.size(); i < n - 1; i++) {
+            cursor = extractValue(cursor, dPath, i);
         }
         if (cursor == null) {
             return;
         }
+        deleteLastToken(dPath, cursor);
+    }
 
-        String index = paths[paths.length - 1];
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                deleteFieldValue(dPath, cursor, i);
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
-                        + "], target [" + cursor.getClass() + "].", e);
-            }
+    private static void deleteLastToken(CompiledDPath dPath, Object cursor) {
+        int last = dPath.size() - 1;
+        if (dPath.kinds[last] == CompiledDPath.INDEX) {
+            deleteFieldValue(dPath.getPath(), cursor, dPath.indexes[last]);
+        } else if (dPath.isBracket(last)) {
+            throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
+                    + "], target [" + cursor.getClass() + "].", dPath.invalidIndex(last));
         } else {
-            deleteFieldValue(dPath, cursor, index);
+            deleteFieldValue(dPath.getPath(), cursor, dPath.tokens[last]);
         }
     }
 
     /*----------------------------------------------------------------------*/
 
     @SuppressWarnings("rawtypes")
-    private static Object createIntermediate(JsonNode node, StringBuffer pathSofar, String index,
-            String nextIndex) {
+    private static Object createIntermediate(JsonNode node, CompiledDPath dPath, int step) {
         if (node instanceof POJONode) {
-            return createIntermediate(extractValue((POJONode) node), pathSofar, index, nextIndex);
+            return createIntermediate(extractValue((POJONode) node), dPath, step);
         }
         if (node instanceof ContainerNode) {
             ContainerNode temp = (ContainerNode) node;
-            JsonNode value = PATTERN_INDEX.matcher(nextIndex).matches() ? temp.arrayNode()
-                    : temp.objectNode();
-            return createIntermediate(temp, pathSofar, index, value);
+            JsonNode value = dPath.isBracket(step + 1) ? temp.arrayNode() : temp.objectNode();
+            return createIntermediate(temp, dPath, step, value);
         }
         return null;
     }
 
-    private static Object createIntermediate(JsonNode node, StringBuffer pathSofar, String index,
+    private static Object createIntermediate(JsonNode node, CompiledDPath dPath, int step,
             Object value) {
         if (node == null) {
             return null;
         }
         if (node instanceof POJONode) {
-            return createIntermediate(extractValue((POJONode) node), pathSofar, index, value);
+            return createIntermediate(extractValue((POJONode) node), dPath, step, value);
         }
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                if (node instanceof ArrayNode) {
-                    ArrayNode temp = (ArrayNode) node;
-                    if (i >= 0 && i < temp.size()) {
-                        // the middle item is null (in some cases)
-                        temp.set(i, value instanceof JsonNode ? (JsonNode) value
-                                : JacksonUtils.toJson(value));
-                    } else if (i == temp.size()) {
-                        // special case: add the last item
-                        if (value instanceof JsonNode) {
-                            temp.add((JsonNode) value);
-                        } else {
-                            temp.addPOJO(value);
-                        }
+        if (dPath.isBracket(step)) {
+            if (dPath.kinds[step] != CompiledDPath.INDEX) {
+                throw new IllegalArgumentException("Error: Invalid index. Path ["
+                        + dPath.pathSoFar(step) + "], target [" + node.getClass() + "].",
+                        dPath.invalidIndex(step));
+            }
+            int i = dPath.indexes[step];
+            if (node instanceof ArrayNode) {
+                ArrayNode temp = (ArrayNode) node;
+                if (i >= 0 && i < temp.size()) {
+                    // the middle item is null (in some cases)
+                    temp.set(i, value instanceof JsonNode ? (JsonNode) value
+                            : JacksonUtils.toJson(value));
+                } else if (i == temp.size()) {
+                    // special case: add the last item
+                    if (value instanceof JsonNode) {
+                        temp.add((JsonNode) value);
                     } else {
-                        throw new IllegalArgumentException("Error: Index out of bound. Path ["
-                                + pathSofar + "], target [" + node.getClass() + "].");
+                        temp.addPOJO(value);
                     }
-                    return value;
                 } else {
-                    throw new IllegalArgumentException("Expect an ArrayNode for path [" + pathSofar
-                            + "] but received [" + node.getClass() + "] instead.");
+                    throw new IllegalArgumentException("Error: Index out of bound. Path ["
+                            + dPath.pathSoFar(step) + "], target [" + node.getClass() + "].");
                 }
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + pathSofar
-                        + "], target [" + node.getClass() + "].", e);
+                return value;
+            } else {
+                throw new IllegalArgumentException(
+                        "Expect an ArrayNode for path [" + dPath.pathSoFar(step)
+                                + "] but received [" + node.getClass() + "] instead.");
             }
         } else if (node instanceof ObjectNode) {
             ObjectNode temp = (ObjectNode) node;
             if (value instanceof JsonNode) {
-                temp.set(index, (JsonNode) value);
+                temp.set(dPath.tokens[step], (JsonNode) value);
             } else {
-                temp.putPOJO(index, value);
+                temp.putPOJO(dPath.tokens[step], value);
             }
             return value;
         } else {
             throw new IllegalArgumentException("Target object of type [" + node.getClass()
-                    + "] is not writable with path [" + pathSofar + "]!");
+                    + "] is not writable with path [" + dPath.pathSoFar(step) + "]!");
         }
     }
 
@@ -855,28 +1247,36 @@ public class DPathUtils {
      */
     public static void setValue(JsonNode node, String dPath, Object value,
             boolean createIntermediatePath) {
+        setValue(node, CompiledDPath.compile(dPath), value, createIntermediatePath);
+    }
+
+    /**
+     * Set a value to the target {@link JsonNode} specified by a compiled DPath expression. See
+     * {@link #setValue(JsonNode, String, Object, boolean)}.
+     * 
+     * @param node
+     * @param dPath
+     * @param value
+     * @param createIntermediatePath
+     * @since 1.1.1
+     */
+    public static void setValue(JsonNode node, CompiledDPath dPath, Object value,
+            boolean createIntermediatePath) {
         if (node == null) {
             throw new IllegalArgumentException("Target is null!");
         }
-        String[] paths = splitDpath(dPath);
         Object cursor = node, prevCursor = node;
-        StringBuffer pathSofar = new StringBuffer();
         // "seek"to the correct position
-        for (int i = 0; i < paths.length - 1; i++) {
-            if (i > 0) {
-                pathSofar.append(PATH_SEPARATOR);
-            }
-            String index = paths[i], nextIndex = paths[i + 1];
-            pathSofar.append(index);
+        for (int i = 0, n = dPath.size(); i < n - 1; i++) {
             try {
-                cursor = extractValue(cursor, index);
+                cursor = extractValue(cursor, dPath, i);
             } catch (IndexOutOfBoundsException e) {
                 cursor = null;
             }
             if ((cursor == null || cursor instanceof NullNode || cursor instanceof MissingNode)
                     && createIntermediatePath) {
                 // creating intermediate value
-                cursor = createIntermediate(prevCursor, pathSofar, index, nextIndex);
+                cursor = createIntermediate(prevCursor, dPath, i);
             }
             prevCursor = cursor;
         }
@@ -886,21 +1286,21 @@ public class DPathUtils {
 
         JsonNode valueNode = value instanceof JsonNode ? (JsonNode) value
                 : JacksonUtils.toJson(value);
-        String index = paths[paths.length - 1];
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches() || "[]".equals(index)) {
-            try {
-                int i = "[]".equals(index) ? Integer.MAX_VALUE : Integer.parseInt(m.group(1));
-                setFieldValue(dPath, cursor, i, valueNode);
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
-                        + "], target [" + cursor.getClass() + "].", e);
-            }
-        } else {
-            setFieldValue(dPath, cursor, index, valueNode);
+        int last = dPath.size() - 1;
+        switch (dPath.kinds[last]) {
+        case CompiledDPath.INDEX:
+            setFieldValue(dPath.getPath(), cursor, dPath.indexes[last], valueNode);
+            break;
+        case CompiledDPath.APPEND:
+            setFieldValue(dPath.getPath(), cursor, Integer.MAX_VALUE, valueNode);
+            break;
+        case CompiledDPath.FIELD:
+        case CompiledDPath.WILDCARD_FIELD:
+            setFieldValue(dPath.getPath(), cursor, dPath.tokens[last], valueNode);
+            break;
+        default:
+            throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
+                    + "], target [" + cursor.getClass() + "].", dPath.invalidIndex(last));
         }
     }
 
@@ -912,32 +1312,26 @@ public class DPathUtils {
      * @since 0.6.2
      */
     public static void deleteValue(JsonNode node, String dPath) {
-        String[] paths = splitDpath(dPath);
+        deleteValue(node, CompiledDPath.compile(dPath));
+    }
+
+    /**
+     * Delete a value from the target {@link JsonNode} specified by a compiled DPath expression.
+     * 
+     * @param node
+     * @param dPath
+     * @since 1.1.1
+     */
+    public static void deleteValue(JsonNode node, CompiledDPath dPath) {
         Object cursor = node;
         // "seek"to the correct position
-        for (int i = 0; i < paths.length - 1; i++) {
-            cursor = extractValue(cursor, paths[i]);
+        for (int i = 0, n = dPath.size(); i < n - 1; i++) {
+            cursor = extractValue(cursor, dPath, i);
         }
         if (cursor == null || cursor instanceof NullNode || cursor instanceof MissingNode) {
             return;
         }
-
-        String index = paths[paths.length - 1];
-        Matcher m = PATTERN_INDEX.matcher(index);
-        if (m.matches()) {
-            try {
-                int i = Integer.parseInt(m.group(1));
-                deleteFieldValue(dPath, cursor, i);
-            } catch (IndexOutOfBoundsException e) {
-                // rethrow for now
-                throw e;
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Error: Invalid index. Path [" + dPath
-                        + "], target [" + cursor.getClass() + "].", e);
-            }
-        } else {
-            deleteFieldValue(dPath, cursor, index);
-        }
+        deleteLastToken(dPath, cursor);
     }
 
     @SuppressWarnings("unchecked")
@@ -2,8 +2,28 @@ package com.github.ddth.commons.utils;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -14,6 +34,7 @@ import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -23,6 +44,15 @@ import com.google.common.cache.RemovalNotification;
 /**
  * Date/Time format utility class.
  * 
+ * <p>
+ * Since v1.1.1, {@link #fromString(String, String)} parses with immutable
+ * {@link DateTimeFormatter}s translated from the {@link SimpleDateFormat} patterns (and cached per
+ * pattern), avoiding the pool of {@link SimpleDateFormat}s. Inputs (or patterns) the translated
+ * formatter can not handle exactly as {@link SimpleDateFormat} would (e.g. lenient/out-of-range
+ * values, two-digit years, time zone names) fall back to the pooled {@link SimpleDateFormat}, so
+ * parse results are unchanged.
+ * </p>
+ * 
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.2.2
  */
@@ -156,6 +186,33 @@ public class DateFormatUtils {
      * @return
      */
     public static Date fromString(String source, String format) {
+        if (DF_ISO8601.equals(format) && source.length() == DF_ISO8601_LENGTH
+                && source.charAt(10) == 'T' && source.charAt(19) == '.'
+                && (source.charAt(23) == '+' || source.charAt(23) == '-')) {
+            Date result = parseIso8601(source);
+            if (result != null) {
+                return result;
+            }
+        }
+        DateTimeFormatter dtf = getDateTimeFormatter(format);
+        if (dtf != null) {
+            try {
+                TemporalAccessor parsed = dtf.parse(source);
+                if (parsed.get(ChronoField.YEAR) >= MIN_GREGORIAN_YEAR) {
+                    return toDate(parsed);
+                }
+                // java.time is proleptic Gregorian: leave Julian dates to SimpleDateFormat
+            } catch (DateTimeException e) {
+                // not parsable by the translated formatter, fall back to SimpleDateFormat
+            }
+        }
+        return fromStringLegacy(source, format);
+    }
+
+    /**
+     * Parse a string to {@link Date} using a pooled {@link SimpleDateFormat}.
+     */
+    private static Date fromStringLegacy(String source, String format) {
         try {
             ObjectPool<DateFormat> pool = cachedDateFormat.get(format);
             try {
@@ -173,4 +230,376 @@ public class DateFormatUtils {
             throw new RuntimeException(e);
         }
     }
+
+    /*----------------------------------------------------------------------*/
+    /* length of a string formatted with DF_ISO8601, e.g. "2019-01-02T03:04:05.678+0700" */
+    private final static int DF_ISO8601_LENGTH = 28;
+
+    /*
+     * Date/SimpleDateFormat switch to the Julian calendar before 1582-10-15, dates from this year
+     * on are the same in both calendars
+     */
+    private final static int MIN_GREGORIAN_YEAR = 1583;
+
+    private final static Cache<String, Optional<DateTimeFormatter>> cachedDateTimeFormatter = CacheBuilder
+            .newBuilder().maximumSize(1000).build();
+
+    /**
+     * Get the {@link DateTimeFormatter} translated from a {@link SimpleDateFormat} pattern.
+     * 
+     * @param format
+     * @return {@code null} if the pattern can not be translated
+     */
+    private static DateTimeFormatter getDateTimeFormatter(String format) {
+        Optional<DateTimeFormatter> result = cachedDateTimeFormatter.getIfPresent(format);
+        if (result == null) {
+            result = Optional.ofNullable(translatePattern(format));
+            cachedDateTimeFormatter.put(format, result);
+        }
+        return result.orElse(null);
+    }
+
+    private static boolean isNumericField(char letter, int count) {
+        return "yMdHhmsS".indexOf(letter) >= 0 && (letter != 'M' || count < 3);
+    }
+
+    /**
+     * Translate a {@link SimpleDateFormat} pattern to a strict {@link DateTimeFormatter}, which
+     * either parses an input to the same result as the {@link SimpleDateFormat}, or rejects it.
+     * 
+     * <p>
+     * Supported letters: {@code y} (3 letters or more), {@code M}, {@code d}, {@code H},
+     * {@code h}, {@code m}, {@code s}, {@code S}, {@code a}, {@code E}, {@code Z} and {@code X}
+     * (up to 3 letters).
+     * </p>
+     * 
+     * @param format
+     * @return {@code null} if the pattern contains unsupported letters or is invalid
+     */
+    private static DateTimeFormatter translatePattern(String format) {
+        /* split the pattern into letter-runs (char[]{letter, count}) and literals (String) */
+        List<Object> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0, n = format.length(); i < n;) {
+            char c = format.charAt(i);
+            if (c == '\'') {
+                int end = format.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                literal.append(end == i + 1 ? "'" : format.substring(i + 1, end));
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int j = i;
+                while (j < n && format.charAt(j) == c) {
+                    j++;
+                }
+                if (literal.length() > 0) {
+                    tokens.add(literal.toString());
+                    literal.setLength(0);
+                }
+                tokens.add(new char[] { c, (char) (j - i) });
+                i = j;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) {
+            tokens.add(literal.toString());
+        }
+
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseCaseInsensitive();
+        String letters = "";
+        for (int i = 0, n = tokens.size(); i < n; i++) {
+            Object token = tokens.get(i);
+            if (token instanceof String) {
+                builder.appendLiteral((String) token);
+                continue;
+            }
+            char letter = ((char[]) token)[0];
+            int count = ((char[]) token)[1];
+            letters += letter;
+            Object next = i + 1 < n ? tokens.get(i + 1) : null;
+            /* SimpleDateFormat parses exactly "count" digits if followed by another number */
+            boolean abutting = isNumericField(letter, count) && next instanceof char[]
+                    && isNumericField(((char[]) next)[0], ((char[]) next)[1]);
+            ChronoField field;
+            switch (letter) {
+            case 'y':
+                if (count <= 2) {
+                    // SimpleDateFormat applies its two-digit year window to "y" and "yy"
+                    return null;
+                }
+                field = ChronoField.YEAR;
+                break;
+            case 'M':
+                if (count >= 3) {
+                    builder.appendText(ChronoField.MONTH_OF_YEAR,
+                            count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+                    continue;
+                }
+                field = ChronoField.MONTH_OF_YEAR;
+                break;
+            case 'd':
+                field = ChronoField.DAY_OF_MONTH;
+                break;
+            case 'H':
+                field = ChronoField.HOUR_OF_DAY;
+                break;
+            case 'h':
+                field = ChronoField.CLOCK_HOUR_OF_AMPM;
+                break;
+            case 'm':
+                field = ChronoField.MINUTE_OF_HOUR;
+                break;
+            case 's':
+                field = ChronoField.SECOND_OF_MINUTE;
+                break;
+            case 'S':
+                field = ChronoField.MILLI_OF_SECOND;
+                break;
+            case 'a':
+                builder.appendText(ChronoField.AMPM_OF_DAY, TextStyle.SHORT);
+                continue;
+            case 'E':
+                builder.appendText(ChronoField.DAY_OF_WEEK,
+                        count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+                continue;
+            case 'Z':
+                builder.appendOffset("+HHMM", "+0000");
+                continue;
+            case 'X':
+                if (count > 3) {
+                    return null;
+                }
+                // "X" is hours only: SimpleDateFormat ignores minutes
+                builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM" : "+HH:MM", "Z");
+                continue;
+            default:
+                return null;
+            }
+            if (abutting) {
+                builder.appendValue(field, count);
+            } else {
+                builder.appendValue(field, 1, field == ChronoField.MILLI_OF_SECOND ? 3 : 10,
+                        SignStyle.NOT_NEGATIVE);
+            }
+        }
+
+        /* fields missing from the pattern default to 1970-01-01 00:00:00.000 (SimpleDateFormat) */
+        if (letters.indexOf('y') < 0) {
+            builder.parseDefaulting(ChronoField.YEAR, 1970);
+        }
+        if (letters.indexOf('M') < 0) {
+            builder.parseDefaulting(ChronoField.MONTH_OF_YEAR, 1);
+        }
+        if (letters.indexOf('d') < 0) {
+            builder.parseDefaulting(ChronoField.DAY_OF_MONTH, 1);
+        }
+        if (letters.indexOf('H') < 0 && letters.indexOf('h') < 0) {
+            builder.parseDefaulting(ChronoField.HOUR_OF_DAY, 0);
+        } else if (letters.indexOf('h') >= 0 && letters.indexOf('a') < 0) {
+            builder.parseDefaulting(ChronoField.AMPM_OF_DAY, 0);
+        }
+        if (letters.indexOf('m') < 0) {
+            builder.parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0);
+        }
+        if (letters.indexOf('s') < 0) {
+            builder.parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0);
+        }
+        if (letters.indexOf('S') < 0) {
+            builder.parseDefaulting(ChronoField.NANO_OF_SECOND, 0);
+        }
+        try {
+            return builder.toFormatter(Locale.getDefault(Locale.Category.FORMAT))
+                    .withChronology(IsoChronology.INSTANCE)
+                    .withResolverStyle(ResolverStyle.STRICT);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convert a parsed date/time to {@link Date}. If no offset was parsed, the local date/time is
+     * interpreted in the default time zone (preferring the later offset at overlaps, as
+     * {@link SimpleDateFormat} does).
+     */
+    private static Date toDate(TemporalAccessor parsed) {
+        LocalDateTime ldt = LocalDateTime.from(parsed);
+        ZoneOffset offset = parsed.query(TemporalQueries.offset());
+        return Date.from(offset != null ? ldt.toInstant(offset)
+                : ldt.atZone(ZoneId.systemDefault()).withLaterOffsetAtOverlap().toInstant());
+    }
+
+    /*----------------------------------------------------------------------*/
+    private static int digits(String source, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Days from 1970-01-01 to the specified (valid) date.
+     */
+    private static long epochDay(int year, int month, int day) {
+        /* see java.time.LocalDate#toEpochDay() */
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!IsoChronology.INSTANCE.isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - 719528;
+    }
+
+    /**
+     * Parse an ISO-8601 string to {@link Date}, with a hand-written parser.
+     * 
+     * <p>
+     * Accepted forms: {@code yyyy-MM-dd}, optionally followed by {@code 'T'} (or a space) and
+     * {@code HH:mm}, {@code HH:mm:ss} or {@code HH:mm:ss.fraction} (1-9 digits), optionally
+     * followed by a zone designator: {@code Z}, {@code +HH}, {@code +HHMM} or {@code +HH:MM}.
+     * Without zone designator, the date/time is interpreted in the default time zone. Dates before
+     * 1583 are interpreted as {@link SimpleDateFormat} does (Julian calendar before the Gregorian
+     * cutover).
+     * </p>
+     * 
+     * @param source
+     * @return {@code null} if {@code source} is not an ISO-8601 date/time
+     * @since 1.1.1
+     */
+    public static Date parseIso8601(String source) {
+        int n = source != null ? source.length() : 0;
+        if (n < 10 || source.charAt(4) != '-' || source.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(source, 0, 4), month = digits(source, 5, 7), day = digits(source, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year))) {
+            return null;
+        }
+        int hour = 0, minute = 0, second = 0, nano = 0, pos = 10;
+        if (pos < n && (source.charAt(pos) == 'T' || source.charAt(pos) == ' ')) {
+            if (pos + 6 > n || source.charAt(pos + 3) != ':') {
+                return null;
+            }
+            hour = digits(source, pos + 1, pos + 3);
+            minute = digits(source, pos + 4, pos + 6);
+            pos += 6;
+            if (pos < n && source.charAt(pos) == ':') {
+                second = pos + 3 <= n ? digits(source, pos + 1, pos + 3) : -1;
+                pos += 3;
+                if (pos < n && source.charAt(pos) == '.') {
+                    int start = ++pos;
+                    while (pos < n && pos - start < 9 && source.charAt(pos) >= '0'
+                            && source.charAt(pos) <= '9') {
+                        nano = nano * 10 + (source.charAt(pos++) - '0');
+                    }
+                    if (pos == start) {
+                        return null;
+                    }
+                    for (int i = pos - start; i < 9; i++) {
+                        nano *= 10;
+                    }
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0
+                    || second > 59) {
+                return null;
+            }
+        }
+        if (pos == n) {
+            if (year < MIN_GREGORIAN_YEAR) {
+                return toDateLegacy(year, month, day, hour, minute, second, nano,
+                        TimeZone.getDefault());
+            }
+            LocalDateTime ldt = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+            return Date.from(
+                    ldt.atZone(ZoneId.systemDefault()).withLaterOffsetAtOverlap().toInstant());
+        }
+        char c = source.charAt(pos);
+        int offsetSeconds;
+        if (c == 'Z' && pos + 1 == n) {
+            offsetSeconds = 0;
+        } else if (c == '+' || c == '-') {
+            int offsetHour = pos + 3 <= n ? digits(source, pos + 1, pos + 3) : -1, offsetMinute;
+            int len = n - pos;
+            offsetMinute = len == 3 ? 0
+                    : len == 5 ? digits(source, pos + 3, pos + 5)
+                            : len == 6 && source.charAt(pos + 3) == ':'
+                                    ? digits(source, pos + 4, pos + 6)
+                                    : -1;
+            if (offsetHour < 0 || offsetHour > 18 || offsetMinute < 0 || offsetMinute > 59) {
+                return null;
+            }
+            offsetSeconds = (offsetHour * 3600 + offsetMinute * 60) * (c == '-' ? -1 : 1);
+        } else {
+            return null;
+        }
+        if (year < MIN_GREGORIAN_YEAR) {
+            return toDateLegacy(year, month, day, hour, minute, second, nano,
+                    TimeZone.getTimeZone(ZoneOffset.ofTotalSeconds(offsetSeconds)));
+        }
+        long epochSecond = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60
+                + second;
+        return new Date((epochSecond - offsetSeconds) * 1000 + nano / 1000000);
+    }
+
+    /**
+     * Convert date/time fields to {@link Date} using {@link GregorianCalendar}, which (like
+     * {@link SimpleDateFormat}) switches to the Julian calendar before the Gregorian cutover.
+     */
+    private static Date toDateLegacy(int year, int month, int day, int hour, int minute,
+            int second, int nano, TimeZone timeZone) {
+        Calendar cal = new GregorianCalendar(timeZone);
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, second);
+        cal.set(Calendar.MILLISECOND, nano / 1000000);
+        return cal.getTime();
+    }
+
+    /**
+     * Parse a string of epoch milliseconds (an optional {@code -} sign followed by up to 19
+     * digits) to {@link Date}, with a hand-written parser.
+     * 
+     * @param source
+     * @return {@code null} if {@code source} is not a valid epoch-millis string
+     * @since 1.1.1
+     */
+    public static Date parseEpochMillis(String source) {
+        int n = source != null ? source.length() : 0;
+        int i = n > 0 && source.charAt(0) == '-' ? 1 : 0;
+        if (n == i || n - i > 19) {
+            return null;
+        }
+        long value = 0;
+        for (; i < n; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+            if (value < 0) {
+                // overflow
+                return null;
+            }
+        }
+        return new Date(source.charAt(0) == '-' ? -value : value);
+    }
 }
@@ -3,11 +3,12 @@ package com.github.ddth.commons.utils;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
@@ -31,6 +32,31 @@ public class HashUtils {
 
     public final static HashFunction fastHashFunc = murmur3;
 
+    /**
+     * Pure-Java xxHash64 (seed {@code 0}), see {@link XxHash64}.
+     *
+     * @since 1.1.1
+     */
+    public final static ILongHashFunction xxHash64 = new XxHash64();
+
+    /**
+     * Pure-Java wyhash (seed {@code 0}), see {@link WyHash}.
+     *
+     * @since 1.1.1
+     */
+    public final static ILongHashFunction wyHash = new WyHash();
+
+    /**
+     * Minimum number of entries for {@link #checksumParallel(Object, HashFunction)} to process a
+     * collection in parallel.
+     *
+     * @since 1.1.1
+     */
+    public final static int PARALLEL_CHECKSUM_THRESHOLD = 4096;
+
+    private final static long LOW7_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private final static long HIGH_BITS = 0x8080808080808080L;
+
     /*---------- Hashing methods ----------*/
 
     /**
@@ -194,55 +220,8 @@ public class HashUtils {
             return hashFunc.newHasher().putString(obj.toString(), StandardCharsets.UTF_8).hash()
                     .padToLong();
         }
-        if (obj instanceof byte[] || obj instanceof short[] || obj instanceof int[]
-                || obj instanceof long[] || obj instanceof float[] || obj instanceof double[]
-                || obj instanceof boolean[] || obj instanceof char[]) {
-            final Hasher hasher = hashFunc.newHasher();
-            switch (obj.getClass().getCanonicalName()) {
-            case "byte[]":
-                for (byte v : (byte[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "short[]":
-                for (short v : (short[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "int[]":
-                for (int v : (int[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "long[]":
-                for (long v : (long[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "float[]":
-                for (float v : (float[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "double[]":
-                for (double v : (double[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "boolean[]":
-                for (boolean v : (boolean[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            case "char[]":
-                for (char v : (char[]) obj) {
-                    hasher.putLong(checksum(v, hashFunc));
-                }
-                break;
-            default:
-                throw new IllegalStateException("This should not happen!");
-            }
-            return hasher.hash().padToLong();
+        if (obj.getClass().isArray() && obj.getClass().getComponentType().isPrimitive()) {
+            return checksumPrimitiveArray(obj, hashFunc);
         }
         if (obj instanceof Object[]) {
             final Hasher hasher = hashFunc.newHasher();
@@ -259,25 +238,244 @@ public class HashUtils {
             return hasher.hash().padToLong();
         }
         if (obj instanceof Map<?, ?>) {
-            final List<HashCode> hashCodes = new ArrayList<>();
-            for (Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
-                hashCodes.add(hashFunc.newHasher().putLong(checksum(entry.getKey(), hashFunc))
-                        .putLong(checksum(entry.getValue(), hashFunc)).hash());
+            Map<?, ?> map = (Map<?, ?>) obj;
+            if (map.isEmpty()) {
+                return checksumEmpty(hashFunc);
+            }
+            long result = 0;
+            for (Entry<?, ?> entry : map.entrySet()) {
+                result = combineUnordered(result,
+                        checksumMapEntry(entry.getKey(), entry.getValue(), hashFunc));
             }
-            return hashCodes.size() > 0 ? Hashing.combineUnordered(hashCodes).padToLong()
-                    : hashFunc.newHasher().hash().padToLong();
+            return result;
         }
         if (obj instanceof Collection<?>) {
-            final List<HashCode> hashCodes = new ArrayList<>();
-            for (Object item : (Collection<?>) obj) {
-                hashCodes.add(hashFunc.newHasher().putLong(checksum(item, hashFunc)).hash());
+            Collection<?> collection = (Collection<?>) obj;
+            if (collection.isEmpty()) {
+                return checksumEmpty(hashFunc);
             }
-            return hashCodes.size() > 0 ? Hashing.combineUnordered(hashCodes).padToLong()
-                    : hashFunc.newHasher().hash().padToLong();
+            long result = 0;
+            for (Object item : collection) {
+                result = combineUnordered(result, checksumCollectionItem(item, hashFunc));
+            }
+            return result;
         }
         return obj.hashCode();
     }
 
+    /**
+     * Calculate checksum of an object using default hash function, processing large
+     * collections in parallel.
+     *
+     * @param obj
+     * @return
+     * @see #checksumParallel(Object, HashFunction)
+     * @since 1.1.1
+     */
+    public static long checksumParallel(Object obj) {
+        return checksumParallel(obj, fastHashFunc);
+    }
+
+    /**
+     * Calculate checksum of an object, using a supplied hash function, processing large
+     * collections in parallel.
+     *
+     * <p>
+     * If {@code obj} is a {@link Map}, {@link Collection} or array of {@link Object}s with at
+     * least {@link #PARALLEL_CHECKSUM_THRESHOLD} entries, entries' checksums are calculated in
+     * the common {@link java.util.concurrent.ForkJoinPool}. Un-ordered entries (of {@link Map}s
+     * and non-list {@link Collection}s) are combined with a commutative function, ordered ones
+     * (of arrays and {@link List}s) are combined in-order; either way, the result is equal to
+     * {@link #checksum(Object, HashFunction)}. Smaller or scalar objects are processed serially.
+     * </p>
+     *
+     * <p>
+     * Note: {@code obj} must not be modified while its checksum is being calculated.
+     * </p>
+     *
+     * @param obj
+     * @param hashFunc
+     * @return
+     * @since 1.1.1
+     */
+    public static long checksumParallel(Object obj, HashFunction hashFunc) {
+        if (obj instanceof Object[] && ((Object[]) obj).length >= PARALLEL_CHECKSUM_THRESHOLD) {
+            return checksumOrdered(Arrays.stream((Object[]) obj).parallel(), hashFunc);
+        }
+        if (obj instanceof List<?> && ((List<?>) obj).size() >= PARALLEL_CHECKSUM_THRESHOLD) {
+            return checksumOrdered(((List<?>) obj).parallelStream(), hashFunc);
+        }
+        if (obj instanceof Map<?, ?> && ((Map<?, ?>) obj).size() >= PARALLEL_CHECKSUM_THRESHOLD) {
+            return ((Map<?, ?>) obj).entrySet().parallelStream()
+                    .mapToLong(entry -> checksumMapEntry(entry.getKey(), entry.getValue(),
+                            hashFunc))
+                    .reduce(0, HashUtils::combineUnordered);
+        }
+        if (obj instanceof Collection<?>
+                && ((Collection<?>) obj).size() >= PARALLEL_CHECKSUM_THRESHOLD) {
+            return ((Collection<?>) obj).parallelStream()
+                    .mapToLong(item -> checksumCollectionItem(item, hashFunc))
+                    .reduce(0, HashUtils::combineUnordered);
+        }
+        return checksum(obj, hashFunc);
+    }
+
+    private static long checksumOrdered(Stream<?> items, HashFunction hashFunc) {
+        // encounter order is kept by toArray(), entries are then combined in-order
+        long[] checksums = items.mapToLong(item -> checksum(item, hashFunc)).toArray();
+        final Hasher hasher = hashFunc.newHasher();
+        for (long v : checksums) {
+            hasher.putLong(v);
+        }
+        return hasher.hash().padToLong();
+    }
+
+    /**
+     * Checksum of an empty {@link Map} or non-list {@link Collection}.
+     */
+    static long checksumEmpty(HashFunction hashFunc) {
+        return hashFunc.newHasher().hash().padToLong();
+    }
+
+    /**
+     * Checksum of a {@link Map} entry, to be combined un-order.
+     */
+    static long checksumMapEntry(Object key, Object value, HashFunction hashFunc) {
+        return hashFunc.newHasher().putLong(checksum(key, hashFunc))
+                .putLong(checksum(value, hashFunc)).hash().padToLong();
+    }
+
+    /**
+     * Checksum of a non-list {@link Collection}'s entry, to be combined un-order.
+     */
+    static long checksumCollectionItem(Object item, HashFunction hashFunc) {
+        return hashFunc.newHasher().putLong(checksum(item, hashFunc)).hash().padToLong();
+    }
+
+    /**
+     * Combine an entry's checksum into an accumulated un-ordered checksum: byte-wise addition
+     * (modulo {@code 256}), same as {@link Hashing#combineUnordered(Iterable)} but without
+     * keeping a list of {@link HashCode}s. Commutative and associative, with identity {@code 0}.
+     */
+    static long combineUnordered(long acc, long checksum) {
+        return ((acc & LOW7_BITS) + (checksum & LOW7_BITS)) ^ ((acc ^ checksum) & HIGH_BITS);
+    }
+
+    /**
+     * Inverse of {@link #combineUnordered(long, long)}: byte-wise subtraction.
+     */
+    static long uncombineUnordered(long acc, long checksum) {
+        return ((acc | HIGH_BITS) - (checksum & LOW7_BITS)) ^ ((acc ^ ~checksum) & HIGH_BITS);
+    }
+
+    /**
+     * Checksum of {@code murmur3} over a single value of {@code length} (up to 8) bytes,
+     * computed inline (equal to {@code murmur3.newHasher().putXXX(value).hash().padToLong()}).
+     *
+     * @param value
+     *            the value's bytes, little-endian
+     * @param length
+     * @return
+     */
+    private static long murmur3Small(long value, int length) {
+        // Murmur3_x64_128, seed 0: the input is shorter than a block and is processed as tail
+        long k1 = value * 0x87c37b91114253d5L;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= 0x4cf5ad432745937fL;
+        long h1 = k1 ^ length;
+        long h2 = length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        return h1 + h2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Same as {@code checksum(Long.valueOf(value), hashFunc)}, without boxing.
+     */
+    private static long checksumLong(long value, HashFunction hashFunc, boolean isMurmur3) {
+        return isMurmur3 ? murmur3Small(value, 8) : hashFunc.hashLong(value).padToLong();
+    }
+
+    /**
+     * Checksum of an array of primitive type: each element's checksum (same as
+     * {@code checksum(boxed-element, hashFunc)}) is fed in-order into one {@link Hasher}.
+     *
+     * <p>
+     * Elements are neither boxed nor converted to string. With {@link #murmur3} (the default
+     * hash function) elements' checksums are computed inline, without any allocation; with
+     * other hash functions, checksums of {@code byte}/{@code boolean} elements are computed once
+     * per distinct value.
+     * </p>
+     */
+    private static long checksumPrimitiveArray(Object obj, HashFunction hashFunc) {
+        final boolean isMurmur3 = murmur3.equals(hashFunc);
+        final Hasher hasher = hashFunc.newHasher();
+        if (obj instanceof byte[]) {
+            byte[] arr = (byte[]) obj;
+            if (isMurmur3 || arr.length <= 256) {
+                for (byte v : arr) {
+                    hasher.putLong(checksumLong(v, hashFunc, isMurmur3));
+                }
+            } else {
+                long[] table = new long[256];
+                for (int i = 0; i < 256; i++) {
+                    table[i] = checksumLong((byte) i, hashFunc, false);
+                }
+                for (byte v : arr) {
+                    hasher.putLong(table[v & 0xFF]);
+                }
+            }
+        } else if (obj instanceof short[]) {
+            for (short v : (short[]) obj) {
+                hasher.putLong(checksumLong(v, hashFunc, isMurmur3));
+            }
+        } else if (obj instanceof int[]) {
+            for (int v : (int[]) obj) {
+                hasher.putLong(checksumLong(v, hashFunc, isMurmur3));
+            }
+        } else if (obj instanceof long[]) {
+            for (long v : (long[]) obj) {
+                hasher.putLong(checksumLong(v, hashFunc, isMurmur3));
+            }
+        } else if (obj instanceof float[]) {
+            // same as checksum(Float): hashed as double
+            for (float v : (float[]) obj) {
+                hasher.putLong(checksumLong(Double.doubleToRawLongBits(v), hashFunc, isMurmur3));
+            }
+        } else if (obj instanceof double[]) {
+            for (double v : (double[]) obj) {
+                hasher.putLong(checksumLong(Double.doubleToRawLongBits(v), hashFunc, isMurmur3));
+            }
+        } else if (obj instanceof boolean[]) {
+            long checksumTrue = isMurmur3 ? murmur3Small(1, 1)
+                    : hashFunc.newHasher().putBoolean(true).hash().padToLong();
+            long checksumFalse = isMurmur3 ? murmur3Small(0, 1)
+                    : hashFunc.newHasher().putBoolean(false).hash().padToLong();
+            for (boolean v : (boolean[]) obj) {
+                hasher.putLong(v ? checksumTrue : checksumFalse);
+            }
+        } else if (obj instanceof char[]) {
+            for (char v : (char[]) obj) {
+                hasher.putLong(isMurmur3 ? murmur3Small(v, 2)
+                        : hashFunc.newHasher().putChar(v).hash().padToLong());
+            }
+        } else {
+            throw new IllegalStateException("This should not happen!");
+        }
+        return hasher.hash().padToLong();
+    }
+
     /*---------- Hashing methods ----------*/
 
     /**
@@ -341,6 +539,138 @@ public class HashUtils {
         return Hashing.consistentHash(hashValue, numBucket);
     }
 
+    /**
+     * Calculate hash value of an object using a supplied {@link ILongHashFunction} (e.g.
+     * {@link #xxHash64} or {@link #wyHash}), without boxing or converting the object to string.
+     *
+     * <ul>
+     * <li>{@code null}: {@code 0}.</li>
+     * <li>{@link Long}, {@link Integer}, {@link Short}, {@link Byte}: {@code hash(longValue)}.</li>
+     * <li>{@link Double}, {@link Float}: {@code hash(doubleToLongBits(doubleValue))}.</li>
+     * <li>{@link Boolean}: {@code hash(1)} or {@code hash(0)}.</li>
+     * <li>{@link CharSequence}: {@code hash(chars)}; {@code byte[]}: {@code hash(bytes)}.</li>
+     * <li>Other numbers (e.g. {@link BigInteger}): hash of their string representation.</li>
+     * <li>Otherwise: {@code hash(obj.hashCode())}.</li>
+     * </ul>
+     *
+     * <p>
+     * Note: hash values differ from {@link #fastHashValue(Object)}'s, so switching an existing
+     * sharding scheme to this method re-maps keys.
+     * </p>
+     *
+     * @param object
+     * @param hashFunc
+     * @return
+     * @since 1.1.1
+     */
+    public static long fastHashValue(Object object, ILongHashFunction hashFunc) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof Long || object instanceof Integer || object instanceof Short
+                || object instanceof Byte) {
+            return hashFunc.hash(((Number) object).longValue());
+        }
+        if (object instanceof Double || object instanceof Float) {
+            return hashFunc.hash(Double.doubleToLongBits(((Number) object).doubleValue()));
+        }
+        if (object instanceof CharSequence) {
+            return hashFunc.hash((CharSequence) object);
+        }
+        if (object instanceof Boolean) {
+            return hashFunc.hash(((Boolean) object).booleanValue() ? 1 : 0);
+        }
+        if (object instanceof byte[]) {
+            return hashFunc.hash((byte[]) object);
+        }
+        if (object instanceof Number) {
+            return hashFunc.hash(object.toString());
+        }
+        return hashFunc.hash(object.hashCode());
+    }
+
+    /**
+     * Maps an object to a bucket, using linear hash method and a supplied
+     * {@link ILongHashFunction}.
+     *
+     * @param object
+     * @param numBuckets
+     * @param hashFunc
+     * @return the slot index (0 to numSlots-1)
+     * @see #fastHashValue(Object, ILongHashFunction)
+     * @since 1.1.1
+     */
+    public static long linearHashingMap(Object object, int numBuckets,
+            ILongHashFunction hashFunc) {
+        if (numBuckets < 1) {
+            String msg = "Number of slots must be equal or larger than 1!";
+            throw new IllegalArgumentException(msg);
+        }
+        if (numBuckets == 1 || object == null) {
+            return 0;
+        }
+        return Math.abs(fastHashValue(object, hashFunc) % (long) numBuckets);
+    }
+
+    /**
+     * Maps a {@code long} key to a bucket, using linear hash method and a supplied
+     * {@link ILongHashFunction}.
+     *
+     * @param key
+     * @param numBuckets
+     * @param hashFunc
+     * @return the slot index (0 to numSlots-1)
+     * @since 1.1.1
+     */
+    public static long linearHashingMap(long key, int numBuckets, ILongHashFunction hashFunc) {
+        if (numBuckets < 1) {
+            String msg = "Number of slots must be equal or larger than 1!";
+            throw new IllegalArgumentException(msg);
+        }
+        return numBuckets == 1 ? 0 : Math.abs(hashFunc.hash(key) % (long) numBuckets);
+    }
+
+    /**
+     * Maps an object to a bucket, using consistent hash method and a supplied
+     * {@link ILongHashFunction}.
+     *
+     * @param object
+     * @param numBucket
+     * @param hashFunc
+     * @return the slot index (0 to numSlots-1)
+     * @see #fastHashValue(Object, ILongHashFunction)
+     * @since 1.1.1
+     */
+    public static long consistentHashingMap(Object object, int numBucket,
+            ILongHashFunction hashFunc) {
+        if (numBucket < 1) {
+            String msg = "Number of slots must be equal or larger than 1!";
+            throw new IllegalArgumentException(msg);
+        }
+        if (numBucket == 1 || object == null) {
+            return 0;
+        }
+        return Hashing.consistentHash(fastHashValue(object, hashFunc), numBucket);
+    }
+
+    /**
+     * Maps a {@code long} key to a bucket, using consistent hash method and a supplied
+     * {@link ILongHashFunction}.
+     *
+     * @param key
+     * @param numBucket
+     * @param hashFunc
+     * @return the slot index (0 to numSlots-1)
+     * @since 1.1.1
+     */
+    public static long consistentHashingMap(long key, int numBucket, ILongHashFunction hashFunc) {
+        if (numBucket < 1) {
+            String msg = "Number of slots must be equal or larger than 1!";
+            throw new IllegalArgumentException(msg);
+        }
+        return numBucket == 1 ? 0 : Hashing.consistentHash(hashFunc.hash(key), numBucket);
+    }
+
     /**
      * Calculate Murmur3-hash value (32-bit) of a string.
      * 
@@ -0,0 +1,54 @@
+package com.github.ddth.commons.utils;
+
+/**
+ * A non-cryptographic hash function that produces 64-bit hash values, with primitive entry
+ * points (no boxing, no intermediate {@code String}/{@code byte[]}, no {@code Hasher} object).
+ *
+ * <p>
+ * Implementations are stateless and thread-safe. Hash values of a given implementation and seed
+ * are stable across JVMs and releases, so they can be used for sharding/persisted data.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ * @see HashUtils#xxHash64
+ * @see HashUtils#wyHash
+ */
+public interface ILongHashFunction {
+    /**
+     * Hash a {@code long} value, same as hashing its 8 bytes in little-endian order.
+     *
+     * @param value
+     * @return
+     */
+    long hash(long value);
+
+    /**
+     * Hash a range of a byte array.
+     *
+     * @param data
+     * @param offset
+     * @param length
+     * @return
+     */
+    long hash(byte[] data, int offset, int length);
+
+    /**
+     * Hash a byte array.
+     *
+     * @param data
+     * @return
+     */
+    default long hash(byte[] data) {
+        return hash(data, 0, data.length);
+    }
+
+    /**
+     * Hash a character sequence, same as hashing its UTF-16LE encoding (2 bytes per
+     * {@code char}) but without encoding it.
+     *
+     * @param value
+     * @return
+     */
+    long hash(CharSequence value);
+}
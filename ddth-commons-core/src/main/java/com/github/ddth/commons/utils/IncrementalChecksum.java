@@ -0,0 +1,180 @@
+package com.github.ddth.commons.utils;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.hash.HashFunction;
+
+/**
+ * Incrementally maintained checksum of a {@link Map} or non-list {@link Collection} whose
+ * content changes over time.
+ *
+ * <p>
+ * Entries are added and removed one at a time in O(1) (plus the entry's own checksum), without
+ * re-visiting the whole collection. {@link #getValue()} is equal to
+ * {@link HashUtils#checksum(Object, HashFunction)} of a {@link Map} (track it with
+ * {@link #put(Object, Object)}/{@link #remove(Object, Object)}) or a non-list {@link Collection}
+ * (track it with {@link #add(Object)}/{@link #remove(Object)}) holding the same entries. Do not
+ * mix the two kinds of entries in one instance.
+ * </p>
+ *
+ * <p>
+ * Note:
+ * <ul>
+ * <li>Only remove entries that were added, with the same value: to replace a map entry's value,
+ * {@code remove(key, oldValue)} then {@code put(key, newValue)}.</li>
+ * <li>Entries' checksums are calculated when added/removed: mutating an entry in-between breaks
+ * the checksum.</li>
+ * <li>Not thread-safe: concurrent updates must be synchronized externally.</li>
+ * </ul>
+ * </p>
+ *
+ * <pre>
+ * IncrementalChecksum checksum = new IncrementalChecksum();
+ * checksum.put("key1", "value1").put("key2", "value2");
+ * checksum.remove("key1", "value1");
+ * // checksum.getValue() == HashUtils.checksum(map-of-key2=>value2)
+ * </pre>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public class IncrementalChecksum {
+
+    private final HashFunction hashFunc;
+    private long value;
+    private long size;
+
+    /**
+     * Construct a new {@link IncrementalChecksum} using {@link HashUtils#fastHashFunc}.
+     */
+    public IncrementalChecksum() {
+        this(HashUtils.fastHashFunc);
+    }
+
+    /**
+     * Construct a new {@link IncrementalChecksum} using a supplied hash function.
+     *
+     * @param hashFunc
+     */
+    public IncrementalChecksum(HashFunction hashFunc) {
+        if (hashFunc == null) {
+            throw new IllegalArgumentException("Hash function is null.");
+        }
+        this.hashFunc = hashFunc;
+    }
+
+    public HashFunction getHashFunction() {
+        return hashFunc;
+    }
+
+    /**
+     * Number of entries currently tracked.
+     *
+     * @return
+     */
+    public long size() {
+        return size;
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Add a {@link Collection}'s entry.
+     *
+     * @param item
+     * @return
+     */
+    public IncrementalChecksum add(Object item) {
+        value = HashUtils.combineUnordered(value, HashUtils.checksumCollectionItem(item, hashFunc));
+        size++;
+        return this;
+    }
+
+    /**
+     * Add all entries of a {@link Collection}.
+     *
+     * @param items
+     * @return
+     */
+    public IncrementalChecksum addAll(Collection<?> items) {
+        for (Object item : items) {
+            add(item);
+        }
+        return this;
+    }
+
+    /**
+     * Remove a {@link Collection}'s entry.
+     *
+     * @param item
+     * @return
+     */
+    public IncrementalChecksum remove(Object item) {
+        value = HashUtils.uncombineUnordered(value,
+                HashUtils.checksumCollectionItem(item, hashFunc));
+        size--;
+        return this;
+    }
+
+    /**
+     * Add a {@link Map}'s entry.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public IncrementalChecksum put(Object key, Object value) {
+        this.value = HashUtils.combineUnordered(this.value,
+                HashUtils.checksumMapEntry(key, value, hashFunc));
+        size++;
+        return this;
+    }
+
+    /**
+     * Add all entries of a {@link Map}.
+     *
+     * @param map
+     * @return
+     */
+    public IncrementalChecksum putAll(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Remove a {@link Map}'s entry.
+     *
+     * @param key
+     * @param value
+     *            the entry's current value
+     * @return
+     */
+    public IncrementalChecksum remove(Object key, Object value) {
+        this.value = HashUtils.uncombineUnordered(this.value,
+                HashUtils.checksumMapEntry(key, value, hashFunc));
+        size--;
+        return this;
+    }
+
+    /**
+     * Remove all entries.
+     *
+     * @return
+     */
+    public IncrementalChecksum clear() {
+        value = 0;
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Get the current checksum value.
+     *
+     * @return
+     */
+    public long getValue() {
+        return size != 0 ? value : HashUtils.checksumEmpty(hashFunc);
+    }
+}
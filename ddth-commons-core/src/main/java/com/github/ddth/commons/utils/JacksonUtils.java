@@ -1,5 +1,6 @@
 package com.github.ddth.commons.utils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
@@ -15,6 +16,8 @@ import java.util.function.Consumer;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -274,6 +277,70 @@ public class JacksonUtils {
         return Optional.ofNullable(getValue(node, dPath));
     }
 
+    /**
+     * Extract a {@code long} value from the target {@link JsonNode} using DPath expression,
+     * without boxing. Return {@code defaultValue} if the value is missing or can not be
+     * converted.
+     * 
+     * @param node
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see DPathUtils#getLong(Object, String, long)
+     */
+    public static long getLong(JsonNode node, String dPath, long defaultValue) {
+        return DPathUtils.getLong(node, dPath, defaultValue);
+    }
+
+    /**
+     * Extract a {@code int} value from the target {@link JsonNode} using DPath expression,
+     * without boxing. Return {@code defaultValue} if the value is missing or can not be
+     * converted.
+     * 
+     * @param node
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see DPathUtils#getInt(Object, String, int)
+     */
+    public static int getInt(JsonNode node, String dPath, int defaultValue) {
+        return DPathUtils.getInt(node, dPath, defaultValue);
+    }
+
+    /**
+     * Extract a {@code double} value from the target {@link JsonNode} using DPath expression,
+     * without boxing. Return {@code defaultValue} if the value is missing or can not be
+     * converted.
+     * 
+     * @param node
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see DPathUtils#getDouble(Object, String, double)
+     */
+    public static double getDouble(JsonNode node, String dPath, double defaultValue) {
+        return DPathUtils.getDouble(node, dPath, defaultValue);
+    }
+
+    /**
+     * Extract a {@code boolean} value from the target {@link JsonNode} using DPath expression,
+     * without boxing. Return {@code defaultValue} if the value is missing or can not be
+     * converted.
+     * 
+     * @param node
+     * @param dPath
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see DPathUtils#getBoolean(Object, String, boolean)
+     */
+    public static boolean getBoolean(JsonNode node, String dPath, boolean defaultValue) {
+        return DPathUtils.getBoolean(node, dPath, defaultValue);
+    }
+
     /**
      * Set a value to the target {@link JsonNode} specified by DPath expression.
      * 
@@ -377,6 +444,52 @@ public class JacksonUtils {
         return node.hashCode();
     }
 
+    /**
+     * Checksum algorithm version, see {@link JacksonUtils#checksum(JsonNode, ChecksumVersion)}.
+     *
+     * @since 1.1.1
+     */
+    public enum ChecksumVersion {
+        /**
+         * Original algorithm of {@link JacksonUtils#checksum(JsonNode)}: value nodes are hashed
+         * via their JSON text form and children are combined through {@link HashCode}s.
+         */
+        V1,
+
+        /**
+         * Allocation-light algorithm: values are hashed directly from their primitive form,
+         * array elements are folded with an ordered mix and object fields with a commutative mix.
+         * Numerically equal numbers (e.g. {@code 1} and {@code 1.0}) have the same checksum.
+         */
+        V2
+    }
+
+    /**
+     * Calculate checksum of a {@link JsonNode} using a specific algorithm version.
+     *
+     * <p>
+     * Checksums of a given version are stable (do not change across JVMs or releases), so
+     * persisted checksums remain reproducible. {@link ChecksumVersion#V1} gives the same result
+     * as {@link #checksum(JsonNode)}. {@code null}, {@link NullNode} and {@link MissingNode}
+     * have checksum {@code 0} in all versions.
+     * </p>
+     *
+     * @param node
+     * @param version
+     * @return
+     * @since 1.1.1
+     */
+    public static long checksum(JsonNode node, ChecksumVersion version) {
+        switch (version) {
+        case V1:
+            return checksum(node, HashUtils.fastHashFunc);
+        case V2:
+            return JsonChecksum.checksum(node);
+        default:
+            throw new IllegalArgumentException("Unsupported checksum version: " + version);
+        }
+    }
+
     /**
      * Calculate checksum of a {@link JsonNode} using default hash function.
      * 
@@ -413,6 +526,77 @@ public class JacksonUtils {
         return checksum(node, HashUtils.crc32);
     }
 
+    private final static JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Calculate checksum of a JSON stream, without building the {@link JsonNode} tree.
+     *
+     * <p>
+     * The result is the same as {@link #checksum(JsonNode, ChecksumVersion)} with
+     * {@link ChecksumVersion#V2} of the parsed value (object fields' order does not matter), as
+     * long as the document has no duplicated keys. Memory usage is bounded by the document's
+     * nesting depth, not its size. Parsing stops at the end of the first JSON value.
+     * </p>
+     *
+     * @param parser
+     *            a parser positioned before, or at the start of, a JSON value
+     * @return
+     * @throws IOException
+     * @since 1.1.1
+     */
+    public static long checksum(JsonParser parser) throws IOException {
+        return JsonChecksum.checksum(parser);
+    }
+
+    /**
+     * Calculate checksum of JSON data, without building the {@link JsonNode} tree.
+     *
+     * @param json
+     * @return
+     * @throws IOException
+     * @see #checksum(JsonParser)
+     * @since 1.1.1
+     */
+    public static long checksumJson(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return checksum(parser);
+        }
+    }
+
+    /**
+     * Calculate checksum of JSON data, without building the {@link JsonNode} tree. The stream
+     * is not closed by this method.
+     *
+     * @param json
+     * @return
+     * @throws IOException
+     * @see #checksum(JsonParser)
+     * @since 1.1.1
+     */
+    public static long checksumJson(InputStream json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return checksum(parser);
+        }
+    }
+
+    /**
+     * Calculate checksum of JSON data, without building the {@link JsonNode} tree. The reader
+     * is not closed by this method.
+     *
+     * @param json
+     * @return
+     * @throws IOException
+     * @see #checksum(JsonParser)
+     * @since 1.1.1
+     */
+    public static long checksumJson(Reader json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return checksum(parser);
+        }
+    }
+
     /**
      * Calculate checksum of a {@link JsonNode} using MD5 hash.
      * 
@@ -0,0 +1,337 @@
+package com.github.ddth.commons.utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Allocation-light JSON checksum ({@link JacksonUtils.ChecksumVersion#V2}).
+ *
+ * <p>
+ * Values are hashed directly from their primitive form (no {@code toString()}, no
+ * {@code Hasher}/{@code HashCode} objects): numbers by their numeric value (so {@code 1},
+ * {@code 1.0} and {@code 1E0} are equal; big numbers that fit neither a {@code long} nor a
+ * {@code double} exactly are hashed by their canonical text), strings char-by-char. Array elements are folded
+ * with an ordered mix, object fields ({@code name:value} pairs) with a commutative sum, so that
+ * field order does not matter. Each kind of value is seeded differently (e.g. {@code "1"},
+ * {@code 1} and {@code [1]} have different checksums).
+ * </p>
+ *
+ * <p>
+ * The algorithm is fixed: checksums are stable across JVMs and releases.
+ * </p>
+ *
+ * <p>
+ * The checksum can be calculated from a {@link JsonNode} tree or directly from a
+ * {@link JsonParser} stream; both give the same result for the same document (parsed with
+ * default settings and without duplicated keys). Streaming keeps only one accumulator per
+ * nesting level, so memory usage is bounded by the document's depth (plus the parser's own
+ * buffer for the current token), not by its size.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+class JsonChecksum {
+    final static long SEED_NULL = 0x6A09E667F3BCC908L;
+    final static long SEED_FALSE = 0xBB67AE8584CAA73BL;
+    final static long SEED_TRUE = 0x3C6EF372FE94F82BL;
+    final static long SEED_LONG = 0xA54FF53A5F1D36F1L;
+    final static long SEED_DOUBLE = 0x510E527FADE682D1L;
+    final static long SEED_BIG_NUMBER = 0x243F6A8885A308D3L;
+    final static long SEED_STRING = 0x9B05688C2B3E6C1FL;
+    final static long SEED_ARRAY = 0x1F83D9ABFB41BD6BL;
+    final static long SEED_OBJECT = 0x5BE0CD19137E2179L;
+
+    private final static long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private final static long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private final static long FNV64_PRIME = 0x100000001B3L;
+
+    /**
+     * Integral {@link BigDecimal}s with a larger exponent are hashed by their scientific form
+     * rather than expanded into a {@link BigInteger}.
+     */
+    private final static int MAX_EXPAND_DIGITS = 1024;
+
+    /**
+     * Finalization mix of MurmurHash3 (64-bit).
+     */
+    static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static long hashLong(long value) {
+        return fmix64(SEED_LONG ^ (value * PRIME64_1));
+    }
+
+    static long hashDouble(double value) {
+        /* integral doubles hash as longs, so that 1.0 and 1 have the same checksum */
+        if (value >= -0x1p63 && value < 0x1p63 && (long) value == value) {
+            return hashLong((long) value);
+        }
+        return fmix64(SEED_DOUBLE ^ (Double.doubleToLongBits(value) * PRIME64_1));
+    }
+
+    static long hashBigInteger(BigInteger value) {
+        if (value.bitLength() < 64) {
+            return hashLong(value.longValue());
+        }
+        String str = value.toString();
+        return fmix64(SEED_BIG_NUMBER ^ finishString(updateString(startString(), str), str.length()));
+    }
+
+    static long hashBigDecimal(BigDecimal value) {
+        BigDecimal stripped = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.scale() > -MAX_EXPAND_DIGITS) {
+            return hashBigInteger(stripped.toBigIntegerExact());
+        }
+        double d = stripped.doubleValue();
+        if (!Double.isInfinite(d) && new BigDecimal(d).compareTo(stripped) == 0) {
+            return hashDouble(d);
+        }
+        String str = stripped.toString();
+        return fmix64(SEED_BIG_NUMBER ^ finishString(updateString(startString(), str), str.length()));
+    }
+
+    static long hashBoolean(boolean value) {
+        return value ? SEED_TRUE : SEED_FALSE;
+    }
+
+    /**
+     * Start hashing a string (see {@link #updateString(long, char[], int, int)} and
+     * {@link #finishString(long, int)}).
+     */
+    static long startString() {
+        return SEED_STRING;
+    }
+
+    static long updateString(long h, char[] chars, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = (h ^ chars[i]) * FNV64_PRIME;
+        }
+        return h;
+    }
+
+    static long updateString(long h, CharSequence str) {
+        for (int i = 0, n = str.length(); i < n; i++) {
+            h = (h ^ str.charAt(i)) * FNV64_PRIME;
+        }
+        return h;
+    }
+
+    static long finishString(long h, int length) {
+        return fmix64(h ^ (length * PRIME64_2));
+    }
+
+    static long hashString(CharSequence str) {
+        return finishString(updateString(startString(), str), str.length());
+    }
+
+    /**
+     * Fold the checksum of an array element into the array's accumulator (order-dependent).
+     */
+    static long mixOrdered(long acc, long child) {
+        return Long.rotateLeft(acc ^ (child * PRIME64_2), 31) * PRIME64_1;
+    }
+
+    static long finishArray(long acc, long count) {
+        return fmix64(SEED_ARRAY ^ acc ^ (count * PRIME64_2));
+    }
+
+    /**
+     * Checksum of an object's field, to be summed into the object's accumulator
+     * (order-independent).
+     */
+    static long fieldHash(long nameHash, long valueHash) {
+        return fmix64(nameHash * PRIME64_1 ^ Long.rotateLeft(valueHash, 29));
+    }
+
+    static long finishObject(long acc, long count) {
+        return fmix64(SEED_OBJECT ^ acc ^ (count * PRIME64_2));
+    }
+
+    /*----------------------------------------------------------------------*/
+    /**
+     * Checksum of a {@link JsonNode} tree. {@code null}, {@link NullNode} and {@link MissingNode}
+     * as the root return {@code 0}.
+     *
+     * @param node
+     * @return
+     */
+    static long checksum(JsonNode node) {
+        if (node == null || node instanceof NullNode || node instanceof MissingNode) {
+            return 0;
+        }
+        return hash(node);
+    }
+
+    private static long hash(JsonNode node) {
+        switch (node.getNodeType()) {
+        case NULL:
+        case MISSING:
+            return SEED_NULL;
+        case BOOLEAN:
+            return hashBoolean(node.booleanValue());
+        case NUMBER:
+            switch (node.numberType()) {
+            case INT:
+            case LONG:
+                return hashLong(node.longValue());
+            case BIG_INTEGER:
+                return hashBigInteger(node.bigIntegerValue());
+            case BIG_DECIMAL:
+                return hashBigDecimal(node.decimalValue());
+            default:
+                return hashDouble(node.doubleValue());
+            }
+        case STRING:
+            return hashString(node.textValue());
+        case ARRAY: {
+            long acc = 0;
+            for (JsonNode child : (ArrayNode) node) {
+                acc = mixOrdered(acc, hash(child));
+            }
+            return finishArray(acc, node.size());
+        }
+        case OBJECT: {
+            long acc = 0;
+            Iterator<Entry<String, JsonNode>> it = ((ObjectNode) node).fields();
+            while (it.hasNext()) {
+                Entry<String, JsonNode> field = it.next();
+                acc += fieldHash(hashString(field.getKey()), hash(field.getValue()));
+            }
+            return finishObject(acc, node.size());
+        }
+        default:
+            /* BINARY (as base64 text, same as its JSON form) and POJO (as its text form) */
+            return hashString(node.asText());
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+    private static long hashText(JsonParser parser) throws IOException {
+        int length = parser.getTextLength();
+        return finishString(updateString(startString(), parser.getTextCharacters(),
+                parser.getTextOffset(), length), length);
+    }
+
+    private static long hashScalar(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+        case VALUE_STRING:
+            return hashText(parser);
+        case VALUE_NUMBER_INT:
+            return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                    ? hashBigInteger(parser.getBigIntegerValue())
+                    : hashLong(parser.getLongValue());
+        case VALUE_NUMBER_FLOAT:
+            return parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL
+                    ? hashBigDecimal(parser.getDecimalValue())
+                    : hashDouble(parser.getDoubleValue());
+        case VALUE_TRUE:
+            return SEED_TRUE;
+        case VALUE_FALSE:
+            return SEED_FALSE;
+        case VALUE_NULL:
+            return SEED_NULL;
+        case VALUE_EMBEDDED_OBJECT: {
+            /* same as the BinaryNode/POJONode a tree would contain */
+            Object value = parser.getEmbeddedObject();
+            if (value == null) {
+                return SEED_NULL;
+            }
+            return hashString(value instanceof byte[]
+                    ? Base64Variants.getDefaultVariant().encode((byte[]) value, false)
+                    : value.toString());
+        }
+        default:
+            throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
+    /**
+     * Checksum of the JSON value at (or, if the parser has no current token, after) the parser's
+     * current position, without building a {@link JsonNode} tree. Parsing stops at the end of
+     * that value. Result is the same as {@link #checksum(JsonNode)} of the value's tree.
+     *
+     * @param parser
+     * @return
+     * @throws IOException
+     */
+    static long checksum(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken()
+                : parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        /* one frame per open container: accumulator, number of children, pending field name */
+        long[] acc = new long[16], count = new long[16], names = new long[16];
+        boolean[] isObject = new boolean[16];
+        int depth = -1;
+        while (true) {
+            long value;
+            switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                if (++depth == acc.length) {
+                    int newLength = depth * 2;
+                    acc = Arrays.copyOf(acc, newLength);
+                    count = Arrays.copyOf(count, newLength);
+                    names = Arrays.copyOf(names, newLength);
+                    isObject = Arrays.copyOf(isObject, newLength);
+                }
+                acc[depth] = 0;
+                count[depth] = 0;
+                isObject[depth] = token == JsonToken.START_OBJECT;
+                token = nextToken(parser);
+                continue;
+            case FIELD_NAME:
+                names[depth] = hashText(parser);
+                token = nextToken(parser);
+                continue;
+            case END_OBJECT:
+                value = finishObject(acc[depth], count[depth]);
+                depth--;
+                break;
+            case END_ARRAY:
+                value = finishArray(acc[depth], count[depth]);
+                depth--;
+                break;
+            default:
+                value = hashScalar(parser, token);
+            }
+            if (depth < 0) {
+                return value;
+            }
+            acc[depth] = isObject[depth] ? acc[depth] + fieldHash(names[depth], value)
+                    : mixOrdered(acc[depth], value);
+            count[depth]++;
+            token = nextToken(parser);
+        }
+    }
+
+    private static JsonToken nextToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end-of-input");
+        }
+        return token;
+    }
+}
@@ -41,6 +41,66 @@ public class MapUtils {
         return map != null ? ValueUtils.convertValue(map.get(key), clazz) : null;
     }
 
+    /**
+     * Extract a {@code long} value from a map, without boxing. Return {@code defaultValue} if
+     * the value is missing or can not be converted.
+     * 
+     * @param map
+     * @param key
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see ValueUtils#convertLong(Object, long)
+     */
+    public static long getLong(Map<String, Object> map, String key, long defaultValue) {
+        return map != null ? ValueUtils.convertLong(map.get(key), defaultValue) : defaultValue;
+    }
+
+    /**
+     * Extract a {@code int} value from a map, without boxing. Return {@code defaultValue} if
+     * the value is missing or can not be converted.
+     * 
+     * @param map
+     * @param key
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see ValueUtils#convertInt(Object, int)
+     */
+    public static int getInt(Map<String, Object> map, String key, int defaultValue) {
+        return map != null ? ValueUtils.convertInt(map.get(key), defaultValue) : defaultValue;
+    }
+
+    /**
+     * Extract a {@code double} value from a map, without boxing. Return {@code defaultValue} if
+     * the value is missing or can not be converted.
+     * 
+     * @param map
+     * @param key
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see ValueUtils#convertDouble(Object, double)
+     */
+    public static double getDouble(Map<String, Object> map, String key, double defaultValue) {
+        return map != null ? ValueUtils.convertDouble(map.get(key), defaultValue) : defaultValue;
+    }
+
+    /**
+     * Extract a {@code boolean} value from a map, without boxing. Return {@code defaultValue} if
+     * the value is missing or can not be converted.
+     * 
+     * @param map
+     * @param key
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     * @see ValueUtils#convertBoolean(Object, boolean)
+     */
+    public static boolean getBoolean(Map<String, Object> map, String key, boolean defaultValue) {
+        return map != null ? ValueUtils.convertBoolean(map.get(key), defaultValue) : defaultValue;
+    }
+
     /**
      * Create a {@link Map} from flat array of objects.
      * 
@@ -472,6 +472,90 @@ public class TypesafeConfigUtils {
         return Optional.ofNullable(getDoubleList(config, path));
     }
 
+    /**
+     * Get a configuration as {@code long}, without boxing. Return {@code defaultValue} if
+     * missing or wrong type.
+     *
+     * @param config
+     * @param path
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static long getLong(Config config, String path, long defaultValue) {
+        try {
+            return config.getLong(path);
+        } catch (ConfigException.Missing | ConfigException.WrongType e) {
+            if (e instanceof ConfigException.WrongType) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a configuration as {@code int}, without boxing. Return {@code defaultValue} if
+     * missing or wrong type.
+     *
+     * @param config
+     * @param path
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static int getInt(Config config, String path, int defaultValue) {
+        try {
+            return config.getInt(path);
+        } catch (ConfigException.Missing | ConfigException.WrongType e) {
+            if (e instanceof ConfigException.WrongType) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a configuration as {@code double}, without boxing. Return {@code defaultValue} if
+     * missing or wrong type.
+     *
+     * @param config
+     * @param path
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static double getDouble(Config config, String path, double defaultValue) {
+        try {
+            return config.getDouble(path);
+        } catch (ConfigException.Missing | ConfigException.WrongType e) {
+            if (e instanceof ConfigException.WrongType) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a configuration as {@code boolean}, without boxing. Return {@code defaultValue} if
+     * missing or wrong type.
+     *
+     * @param config
+     * @param path
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static boolean getBoolean(Config config, String path, boolean defaultValue) {
+        try {
+            return config.getBoolean(path);
+        } catch (ConfigException.Missing | ConfigException.WrongType e) {
+            if (e instanceof ConfigException.WrongType) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+            return defaultValue;
+        }
+    }
+
     /**
      * Get a configuration as String. Return {@code null} if missing or wrong type.
      *
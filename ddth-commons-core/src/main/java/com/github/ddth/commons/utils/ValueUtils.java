@@ -1,8 +1,8 @@
 package com.github.ddth.commons.utils;
 
+import java.lang.invoke.MethodType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -10,6 +10,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -21,6 +24,13 @@ import com.fasterxml.jackson.databind.node.POJONode;
 /**
  * Utility class to convert values.
  * 
+ * <p>
+ * Since v1.1.1, {@link #convertValue(Object, Class)} and {@link #convertNumber(Object, Class)}
+ * resolve a converter once per {@code (source-class, target-class)} pair and cache it, so that
+ * repeated conversions skip the type-dispatch chain. Custom converters can be plugged in via
+ * {@link #registerConverter(Class, Class, Function)}.
+ * </p>
+ * 
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.6.1
  */
@@ -54,56 +64,243 @@ public class ValueUtils {
         if (target instanceof JsonNode) {
             return convertNumber((JsonNode) target, clazz);
         }
-        if (clazz == Number.class) {
-            return target instanceof Number ? (N) target : null;
+        if (!isNumberClass(clazz)) {
+            return null;
         }
-        if (clazz == Byte.class || clazz == byte.class) {
-            byte value = target instanceof Number ? ((Number) target).byteValue()
-                    : target instanceof String ? Byte.parseByte(target.toString()) : 0;
-            return (N) Byte.valueOf(value);
+        return (N) getConverter(target != null ? target.getClass() : Void.class, clazz)
+                .apply(target);
+    }
+
+    /**
+     * Convert a target object to {@code long}, without boxing the result.
+     * 
+     * <p>
+     * Same as {@code convertNumber(target, long.class)}: if {@code target} can not be converted
+     * to a number, {@code zero} is returned.
+     * </p>
+     * 
+     * @param target
+     * @return
+     * @throws NumberFormatException
+     * @since 1.1.1
+     */
+    public static long convertLong(Object target) throws NumberFormatException {
+        if (USER_CONVERTERS.containsKey(Long.class)) {
+            Long value = convertNumber(target, Long.class);
+            return value != null ? value.longValue() : 0;
         }
-        if (clazz == Short.class || clazz == short.class) {
-            short value = target instanceof Number ? ((Number) target).shortValue()
-                    : target instanceof String ? Short.parseShort(target.toString()) : 0;
-            return (N) Short.valueOf(value);
+        if (target instanceof POJONode) {
+            target = DPathUtils.extractValue((POJONode) target);
         }
-        if (clazz == Integer.class || clazz == int.class) {
-            int value = target instanceof Number ? ((Number) target).intValue()
-                    : target instanceof String ? Integer.parseInt(target.toString()) : 0;
-            return (N) Integer.valueOf(value);
+        if (target instanceof Number) {
+            return ((Number) target).longValue();
         }
-        if (clazz == Long.class || clazz == long.class) {
-            long value = target instanceof Number ? ((Number) target).longValue()
-                    : target instanceof String ? Long.parseLong(target.toString()) : 0;
-            return (N) Long.valueOf(value);
+        if (target instanceof String) {
+            return Long.parseLong(target.toString());
         }
-        if (clazz == Float.class || clazz == float.class) {
-            float value = target instanceof Number ? ((Number) target).floatValue()
-                    : target instanceof String ? Float.parseFloat(target.toString()) : 0;
-            return (N) Float.valueOf(value);
+        if (target instanceof JsonNode) {
+            JsonNode node = (JsonNode) target;
+            return node.isNumber() ? node.asLong()
+                    : node.isTextual() ? Long.parseLong(node.asText()) : 0;
         }
-        if (clazz == Double.class || clazz == double.class) {
-            double value = target instanceof Number ? ((Number) target).doubleValue()
-                    : target instanceof String ? Double.parseDouble(target.toString()) : 0;
-            return (N) Double.valueOf(value);
+        return 0;
+    }
+
+    /**
+     * Convert a target object to {@code int}, without boxing the result.
+     * 
+     * <p>
+     * Same as {@code convertNumber(target, int.class)}: if {@code target} can not be converted
+     * to a number, {@code zero} is returned.
+     * </p>
+     * 
+     * @param target
+     * @return
+     * @throws NumberFormatException
+     * @since 1.1.1
+     */
+    public static int convertInt(Object target) throws NumberFormatException {
+        if (USER_CONVERTERS.containsKey(Integer.class)) {
+            Integer value = convertNumber(target, Integer.class);
+            return value != null ? value.intValue() : 0;
         }
-        if (clazz == BigInteger.class) {
-            BigInteger value = target instanceof BigInteger ? (BigInteger) target
-                    : target instanceof Number ? BigInteger.valueOf(((Number) target).longValue())
-                            : target instanceof String
-                                    ? BigInteger.valueOf(Long.parseLong(target.toString()))
-                                    : BigInteger.ZERO;
-            return (N) value;
+        if (target instanceof POJONode) {
+            target = DPathUtils.extractValue((POJONode) target);
         }
-        if (clazz == BigDecimal.class) {
-            BigDecimal value = target instanceof BigDecimal ? (BigDecimal) target
-                    : target instanceof Number ? BigDecimal.valueOf(((Number) target).doubleValue())
-                            : target instanceof String
-                                    ? BigDecimal.valueOf(Double.parseDouble(target.toString()))
-                                    : BigDecimal.ZERO;
-            return (N) value;
+        if (target instanceof Number) {
+            return ((Number) target).intValue();
         }
-        return null;
+        if (target instanceof String) {
+            return Integer.parseInt(target.toString());
+        }
+        if (target instanceof JsonNode) {
+            JsonNode node = (JsonNode) target;
+            return node.isNumber() ? node.asInt()
+                    : node.isTextual() ? Integer.parseInt(node.asText()) : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Convert a target object to {@code double}, without boxing the result.
+     * 
+     * <p>
+     * Same as {@code convertNumber(target, double.class)}: if {@code target} can not be converted
+     * to a number, {@code zero} is returned.
+     * </p>
+     * 
+     * @param target
+     * @return
+     * @throws NumberFormatException
+     * @since 1.1.1
+     */
+    public static double convertDouble(Object target) throws NumberFormatException {
+        if (USER_CONVERTERS.containsKey(Double.class)) {
+            Double value = convertNumber(target, Double.class);
+            return value != null ? value.doubleValue() : 0;
+        }
+        if (target instanceof POJONode) {
+            target = DPathUtils.extractValue((POJONode) target);
+        }
+        if (target instanceof Number) {
+            return ((Number) target).doubleValue();
+        }
+        if (target instanceof String) {
+            return Double.parseDouble(target.toString());
+        }
+        if (target instanceof JsonNode) {
+            JsonNode node = (JsonNode) target;
+            return node.isNumber() ? node.asDouble()
+                    : node.isTextual() ? Double.parseDouble(node.asText()) : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Unwrap {@link POJONode}s; map {@link NullNode} and {@link MissingNode} to {@code null}.
+     */
+    private static Object unwrapForPrimitive(Object target) {
+        if (target instanceof POJONode) {
+            target = DPathUtils.extractValue((POJONode) target);
+        }
+        return target instanceof NullNode || target instanceof MissingNode ? null : target;
+    }
+
+    /**
+     * Can an (unwrapped) target object be converted to the numeric {@code targetClass}: it is a
+     * number, a string, a numeric or textual {@link JsonNode}, or a converter has been registered
+     * for it?
+     */
+    private static boolean isNumberConvertible(Object target, Class<?> targetClass) {
+        if (target instanceof Number || target instanceof String) {
+            return true;
+        }
+        if (target instanceof JsonNode) {
+            JsonNode node = (JsonNode) target;
+            return node.isNumber() || node.isTextual();
+        }
+        return target != null && findUserConverter(target.getClass(), targetClass) != null;
+    }
+
+    /**
+     * Convert a target object to {@code long}, returning {@code defaultValue} if {@code target}
+     * is {@code null} or can not be converted.
+     * 
+     * <p>
+     * Same as {@link #convertLong(Object)} (including custom converters registered via
+     * {@link #registerConverter(Class, Class, Function)}), except that {@code defaultValue} is
+     * returned instead of {@code zero} or {@link NumberFormatException}.
+     * </p>
+     * 
+     * @param target
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static long convertLong(Object target, long defaultValue) {
+        target = unwrapForPrimitive(target);
+        if (!isNumberConvertible(target, Long.class)) {
+            return defaultValue;
+        }
+        try {
+            return convertLong(target);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Convert a target object to {@code int}, returning {@code defaultValue} if {@code target}
+     * is {@code null} or can not be converted (see {@link #convertLong(Object, long)}).
+     * 
+     * @param target
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static int convertInt(Object target, int defaultValue) {
+        target = unwrapForPrimitive(target);
+        if (!isNumberConvertible(target, Integer.class)) {
+            return defaultValue;
+        }
+        try {
+            return convertInt(target);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Convert a target object to {@code double}, returning {@code defaultValue} if
+     * {@code target} is {@code null} or can not be converted (see
+     * {@link #convertLong(Object, long)}).
+     * 
+     * @param target
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static double convertDouble(Object target, double defaultValue) {
+        target = unwrapForPrimitive(target);
+        if (!isNumberConvertible(target, Double.class)) {
+            return defaultValue;
+        }
+        try {
+            return convertDouble(target);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Convert a target object to {@code boolean}, returning {@code defaultValue} if
+     * {@code target} is {@code null} or can not be converted. Strings are converted only if they
+     * are {@code "true"} or {@code "false"} (case-insensitive). Custom converters registered via
+     * {@link #registerConverter(Class, Class, Function)} take precedence.
+     * 
+     * @param target
+     * @param defaultValue
+     * @return
+     * @since 1.1.1
+     */
+    public static boolean convertBoolean(Object target, boolean defaultValue) {
+        target = unwrapForPrimitive(target);
+        if (target != null && findUserConverter(target.getClass(), Boolean.class) != null) {
+            Boolean value = convertValue(target, Boolean.class);
+            return value != null ? value.booleanValue() : defaultValue;
+        }
+        if (target instanceof Boolean) {
+            return ((Boolean) target).booleanValue();
+        }
+        if (target instanceof JsonNode && ((JsonNode) target).isBoolean()) {
+            return ((JsonNode) target).booleanValue();
+        }
+        String str = target instanceof String ? (String) target
+                : target instanceof JsonNode && ((JsonNode) target).isTextual()
+                        ? ((JsonNode) target).asText()
+                        : null;
+        return "true".equalsIgnoreCase(str) ? true
+                : "false".equalsIgnoreCase(str) ? false : defaultValue;
     }
 
     /**
@@ -151,6 +348,11 @@ public class ValueUtils {
     /**
      * Convert a target object to {@link Date}.
      * 
+     * <p>
+     * Since v1.1.1, strings of epoch milliseconds and ISO-8601 date/time strings (see
+     * {@link DateFormatUtils#parseIso8601(String)}) are recognized.
+     * </p>
+     * 
      * @param target
      * @return
      */
@@ -158,14 +360,32 @@ public class ValueUtils {
         if (target instanceof JsonNode) {
             return convertDate((JsonNode) target);
         }
-        DateFormat df = new SimpleDateFormat();
-        try {
-            return target instanceof Date ? (Date) target
-                    : target instanceof Number ? new Date(((Number) target).longValue())
-                            : target instanceof String ? df.parse(target.toString()) : null;
-        } catch (ParseException e) {
-            return null;
+        return target instanceof Date ? (Date) target
+                : target instanceof Number ? new Date(((Number) target).longValue())
+                        : target instanceof String ? parseDate(target.toString()) : null;
+    }
+
+    /**
+     * Parse a date string without a known format: epoch milliseconds and ISO-8601 strings are
+     * handled by hand-written parsers, others are parsed by {@link SimpleDateFormat}'s default
+     * pattern.
+     * 
+     * @param source
+     * @return {@code null} if the string can not be parsed
+     */
+    private static Date parseDate(String source) {
+        Date result = DateFormatUtils.parseEpochMillis(source);
+        if (result == null) {
+            result = DateFormatUtils.parseIso8601(source);
+        }
+        if (result == null) {
+            try {
+                result = new SimpleDateFormat().parse(source);
+            } catch (ParseException e) {
+                return null;
+            }
         }
+        return result;
     }
 
     /**
@@ -217,34 +437,238 @@ public class ValueUtils {
         if (target == null) {
             return null;
         }
-        if (target instanceof JsonNode) {
-            return convertValue((JsonNode) target, clazz);
+        return (T) getConverter(target.getClass(), clazz).apply(target);
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /* target-class (wrapped) -> source-class -> user-registered converter */
+    private final static Map<Class<?>, Map<Class<?>, Function<Object, ?>>> USER_CONVERTERS
+            = new ConcurrentHashMap<>();
+
+    /* target-class -> source-class -> resolved converter */
+    private final static ClassValue<ClassValue<Function<Object, ?>>> CONVERTERS
+            = new ClassValue<ClassValue<Function<Object, ?>>>() {
+        @Override
+        protected ClassValue<Function<Object, ?>> computeValue(Class<?> targetClass) {
+            return new ClassValue<Function<Object, ?>>() {
+                @Override
+                protected Function<Object, ?> computeValue(Class<?> sourceClass) {
+                    return resolveConverter(sourceClass, targetClass);
+                }
+            };
+        }
+    };
+
+    /**
+     * Register a custom converter, used by {@link #convertValue(Object, Class)} (and
+     * {@link #convertNumber(Object, Class)} for numeric target types) to convert objects of
+     * {@code sourceClass} (or its sub-classes) to {@code targetClass}. Custom converters take
+     * precedence over built-in conversions. Registering a converter for a primitive type or its
+     * wrapper applies to both.
+     * 
+     * <p>
+     * Note: custom converters are not applied to {@link JsonNode} targets, unless
+     * {@code sourceClass} is itself a {@link JsonNode} class.
+     * </p>
+     * 
+     * @param sourceClass
+     * @param targetClass
+     * @param converter
+     * @since 1.1.1
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> void registerConverter(Class<S> sourceClass, Class<T> targetClass,
+            Function<? super S, ? extends T> converter) {
+        if (sourceClass == null || targetClass == null || converter == null) {
+            throw new NullPointerException(
+                    "Source class, target class and converter must not be null!");
+        }
+        USER_CONVERTERS.compute(wrap(targetClass), (k, v) -> {
+            Map<Class<?>, Function<Object, ?>> converters = v != null ? v
+                    : new ConcurrentHashMap<>();
+            converters.put(sourceClass, (Function<Object, ?>) converter);
+            return converters;
+        });
+        invalidateConverters(targetClass);
+    }
+
+    /**
+     * Unregister a custom converter registered via
+     * {@link #registerConverter(Class, Class, Function)}.
+     * 
+     * @param sourceClass
+     * @param targetClass
+     * @since 1.1.1
+     */
+    public static void unregisterConverter(Class<?> sourceClass, Class<?> targetClass) {
+        USER_CONVERTERS.computeIfPresent(wrap(targetClass), (k, v) -> {
+            v.remove(sourceClass);
+            return v.isEmpty() ? null : v;
+        });
+        invalidateConverters(targetClass);
+    }
+
+    private static void invalidateConverters(Class<?> targetClass) {
+        Class<?> wrapped = wrap(targetClass);
+        CONVERTERS.remove(wrapped);
+        if (wrapped != targetClass) {
+            CONVERTERS.remove(targetClass);
+        } else {
+            for (Class<?> primitive : new Class<?>[] { boolean.class, byte.class, short.class,
+                    char.class, int.class, long.class, float.class, double.class }) {
+                if (wrap(primitive) == wrapped) {
+                    CONVERTERS.remove(primitive);
+                }
+            }
         }
-        if (Number.class.isAssignableFrom(clazz) || byte.class == clazz || short.class == clazz
-                || int.class == clazz || long.class == clazz || float.class == clazz
-                || double.class == clazz) {
-            return convertNumber(target, clazz);
+    }
+
+    private static Class<?> wrap(Class<?> clazz) {
+        return clazz.isPrimitive() ? MethodType.methodType(clazz).wrap().returnType() : clazz;
+    }
+
+    private static boolean isNumberClass(Class<?> clazz) {
+        return clazz != null && (Number.class.isAssignableFrom(clazz) || byte.class == clazz
+                || short.class == clazz || int.class == clazz || long.class == clazz
+                || float.class == clazz || double.class == clazz);
+    }
+
+    /**
+     * Get the (cached) converter from {@code sourceClass} to {@code targetClass}.
+     * 
+     * @param sourceClass
+     *            use {@link Void} for {@code null} source values
+     * @param targetClass
+     * @return
+     */
+    private static Function<Object, ?> getConverter(Class<?> sourceClass, Class<?> targetClass) {
+        return CONVERTERS.get(targetClass).get(sourceClass);
+    }
+
+    /**
+     * Find a user-registered converter, matching the source class itself first, then its
+     * super-classes and interfaces.
+     */
+    private static Function<Object, ?> findUserConverter(Class<?> sourceClass,
+            Class<?> targetClass) {
+        Map<Class<?>, Function<Object, ?>> converters = USER_CONVERTERS.get(wrap(targetClass));
+        if (converters == null || sourceClass == Void.class) {
+            return null;
         }
-        if (clazz == Boolean.class || clazz == boolean.class) {
-            return (T) convertBoolean(target);
+        for (Class<?> cl = sourceClass; cl != null; cl = cl.getSuperclass()) {
+            Function<Object, ?> converter = converters.get(cl);
+            if (converter != null) {
+                return converter;
+            }
         }
-        if (clazz == Character.class || clazz == char.class) {
-            return (T) convertChar(target);
+        for (Map.Entry<Class<?>, Function<Object, ?>> entry : converters.entrySet()) {
+            if (entry.getKey().isAssignableFrom(sourceClass)) {
+                return entry.getValue();
+            }
         }
-        if (Date.class.isAssignableFrom(clazz)) {
-            return (T) convertDate(target);
+        return null;
+    }
+
+    /**
+     * Resolve the converter from {@code sourceClass} to {@code targetClass}, following the same
+     * rules as the type-dispatch chain of {@link #convertValue(Object, Class)}.
+     */
+    private static Function<Object, ?> resolveConverter(Class<?> sourceClass,
+            Class<?> targetClass) {
+        Function<Object, ?> userConverter = findUserConverter(sourceClass, targetClass);
+        if (userConverter != null) {
+            return userConverter;
         }
-        if (Object[].class.isAssignableFrom(clazz) || List.class.isAssignableFrom(clazz)) {
-            return (T) convertArrayOrList(target);
+        if (JsonNode.class.isAssignableFrom(sourceClass)) {
+            return target -> convertValue((JsonNode) target, targetClass);
         }
-        if (clazz.isAssignableFrom(target.getClass())) {
-            return (T) target;
+        if (isNumberClass(targetClass)) {
+            return resolveNumberConverter(sourceClass, wrap(targetClass));
         }
-        if (clazz == String.class) {
-            return (T) target.toString();
+        if (targetClass == Boolean.class || targetClass == boolean.class) {
+            return sourceClass == Boolean.class ? target -> target
+                    : sourceClass == String.class ? target -> Boolean.valueOf((String) target)
+                            : target -> Boolean.FALSE;
         }
-        throw new IllegalArgumentException(
-                "Cannot convert an object of type [" + target.getClass() + "] to [" + clazz + "]!");
+        if (targetClass == Character.class || targetClass == char.class) {
+            return ValueUtils::convertChar;
+        }
+        if (Date.class.isAssignableFrom(targetClass)) {
+            return ValueUtils::convertDate;
+        }
+        if (Object[].class.isAssignableFrom(targetClass)
+                || List.class.isAssignableFrom(targetClass)) {
+            return ValueUtils::convertArrayOrList;
+        }
+        if (targetClass.isAssignableFrom(sourceClass)) {
+            return target -> target;
+        }
+        if (targetClass == String.class) {
+            return Object::toString;
+        }
+        return target -> {
+            throw new IllegalArgumentException("Cannot convert an object of type ["
+                    + target.getClass() + "] to [" + targetClass + "]!");
+        };
+    }
+
+    /**
+     * Resolve the converter from {@code sourceClass} to a numeric {@code targetClass} (primitive
+     * types already wrapped), following the same rules as {@link #convertNumber(Object, Class)}.
+     */
+    private static Function<Object, ?> resolveNumberConverter(Class<?> sourceClass,
+            Class<?> targetClass) {
+        boolean isNumber = Number.class.isAssignableFrom(sourceClass);
+        boolean isString = sourceClass == String.class;
+        if (targetClass == Number.class) {
+            return isNumber ? target -> target : target -> null;
+        }
+        if (targetClass == Byte.class) {
+            return isNumber ? target -> ((Number) target).byteValue()
+                    : isString ? target -> Byte.valueOf((String) target)
+                            : target -> Byte.valueOf((byte) 0);
+        }
+        if (targetClass == Short.class) {
+            return isNumber ? target -> ((Number) target).shortValue()
+                    : isString ? target -> Short.valueOf((String) target)
+                            : target -> Short.valueOf((short) 0);
+        }
+        if (targetClass == Integer.class) {
+            return isNumber ? target -> ((Number) target).intValue()
+                    : isString ? target -> Integer.valueOf((String) target)
+                            : target -> Integer.valueOf(0);
+        }
+        if (targetClass == Long.class) {
+            return isNumber ? target -> ((Number) target).longValue()
+                    : isString ? target -> Long.valueOf((String) target)
+                            : target -> Long.valueOf(0);
+        }
+        if (targetClass == Float.class) {
+            return isNumber ? target -> ((Number) target).floatValue()
+                    : isString ? target -> Float.valueOf((String) target)
+                            : target -> Float.valueOf(0);
+        }
+        if (targetClass == Double.class) {
+            return isNumber ? target -> ((Number) target).doubleValue()
+                    : isString ? target -> Double.valueOf((String) target)
+                            : target -> Double.valueOf(0);
+        }
+        if (targetClass == BigInteger.class) {
+            return sourceClass == BigInteger.class ? target -> target
+                    : isNumber ? target -> BigInteger.valueOf(((Number) target).longValue())
+                            : isString
+                                    ? target -> BigInteger.valueOf(Long.parseLong((String) target))
+                                    : target -> BigInteger.ZERO;
+        }
+        if (targetClass == BigDecimal.class) {
+            return sourceClass == BigDecimal.class ? target -> target
+                    : isNumber ? target -> BigDecimal.valueOf(((Number) target).doubleValue())
+                            : isString ? target -> BigDecimal
+                                    .valueOf(Double.parseDouble((String) target))
+                                    : target -> BigDecimal.ZERO;
+        }
+        return target -> null;
     }
 
     /*----------------------------------------------------------------------*/
@@ -375,13 +799,8 @@ public class ValueUtils {
         if (node instanceof POJONode) {
             return convertDate(DPathUtils.extractValue((POJONode) node));
         }
-        DateFormat df = new SimpleDateFormat();
-        try {
-            return node.isNumber() ? new Date(node.asLong())
-                    : node.isTextual() ? df.parse(node.asText()) : null;
-        } catch (ParseException e) {
-            return null;
-        }
+        return node.isNumber() ? new Date(node.asLong())
+                : node.isTextual() ? parseDate(node.asText()) : null;
     }
 
     /**
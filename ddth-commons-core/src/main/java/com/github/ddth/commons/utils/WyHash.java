@@ -0,0 +1,181 @@
+package com.github.ddth.commons.utils;
+
+/**
+ * Pure-Java implementation of <a href="https://github.com/wangyi-fudan/wyhash">wyhash</a>
+ * (version "final4", default secret).
+ *
+ * <p>
+ * Hash values are the same as the reference implementation ({@code wyhash(key, len, seed, _wyp)})
+ * over the same bytes and seed; {@link #hash(long)} and {@link #hash(CharSequence)} hash the
+ * value's little-endian bytes (UTF-16LE for strings) without materializing them.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public final class WyHash implements ILongHashFunction {
+    private final static long S0 = 0x2d358dccaa6c78a5L;
+    private final static long S1 = 0x8bb84b93962eacc9L;
+    private final static long S2 = 0x4b33a62ed433d4a3L;
+    private final static long S3 = 0x4d5a2da51de1aa47L;
+
+    private final long seed;
+    /* seed, pre-mixed with the secret */
+    private final long initSeed;
+
+    public WyHash() {
+        this(0);
+    }
+
+    public WyHash(long seed) {
+        this.seed = seed;
+        this.initSeed = seed ^ mix(seed ^ S0, S1);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * High 64 bits of the unsigned 128-bit product {@code a*b}.
+     */
+    static long multiplyHighUnsigned(long a, long b) {
+        long aLo = a & 0xFFFFFFFFL, aHi = a >>> 32, bLo = b & 0xFFFFFFFFL, bHi = b >>> 32;
+        long loLo = aLo * bLo, hiLo = aHi * bLo, loHi = aLo * bHi, hiHi = aHi * bHi;
+        long cross = (loLo >>> 32) + (hiLo & 0xFFFFFFFFL) + loHi;
+        return (hiLo >>> 32) + (cross >>> 32) + hiHi;
+    }
+
+    /**
+     * {@code _wymix}: xor of the low and high halves of the 128-bit product {@code a*b}.
+     */
+    static long mix(long a, long b) {
+        return a * b ^ multiplyHighUnsigned(a, b);
+    }
+
+    private static long finish(long a, long b, long seed, long length) {
+        a ^= S1;
+        b ^= seed;
+        long lo = a * b, hi = multiplyHighUnsigned(a, b);
+        return mix(lo ^ S0 ^ length, hi ^ S1);
+    }
+
+    private static long getInt(CharSequence str, int i) {
+        return str.charAt(i) | (long) str.charAt(i + 1) << 16;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(long value) {
+        long lo = value & 0xFFFFFFFFL, hi = value >>> 32;
+        return finish(lo << 32 | hi, hi << 32 | lo, initSeed, 8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset: " + offset + ", length: " + length + ", size: " + data.length);
+        }
+        long seed = initSeed, a, b;
+        int p = offset;
+        if (length <= 16) {
+            if (length >= 4) {
+                int shift = (length >>> 3) << 2;
+                a = XxHash64.getInt(data, p) << 32 | XxHash64.getInt(data, p + shift);
+                b = XxHash64.getInt(data, p + length - 4) << 32
+                        | XxHash64.getInt(data, p + length - 4 - shift);
+            } else if (length > 0) {
+                a = (data[p] & 0xFFL) << 16 | (data[p + (length >>> 1)] & 0xFFL) << 8
+                        | (data[p + length - 1] & 0xFFL);
+                b = 0;
+            } else {
+                a = b = 0;
+            }
+        } else {
+            int i = length;
+            if (i >= 48) {
+                long see1 = seed, see2 = seed;
+                do {
+                    seed = mix(XxHash64.getLong(data, p) ^ S1, XxHash64.getLong(data, p + 8) ^ seed);
+                    see1 = mix(XxHash64.getLong(data, p + 16) ^ S2,
+                            XxHash64.getLong(data, p + 24) ^ see1);
+                    see2 = mix(XxHash64.getLong(data, p + 32) ^ S3,
+                            XxHash64.getLong(data, p + 40) ^ see2);
+                    p += 48;
+                    i -= 48;
+                } while (i >= 48);
+                seed ^= see1 ^ see2;
+            }
+            while (i > 16) {
+                seed = mix(XxHash64.getLong(data, p) ^ S1, XxHash64.getLong(data, p + 8) ^ seed);
+                i -= 16;
+                p += 16;
+            }
+            a = XxHash64.getLong(data, p + i - 16);
+            b = XxHash64.getLong(data, p + i - 8);
+        }
+        return finish(a, b, seed, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(CharSequence value) {
+        /* same algorithm as hash(byte[]), positions are in chars (all reads are 2-byte aligned) */
+        int length = value.length() * 2;
+        long seed = initSeed, a, b;
+        int p = 0;
+        if (length <= 16) {
+            if (length >= 4) {
+                int shift = (length >>> 3) << 1;
+                int n = length >>> 1;
+                a = getInt(value, p) << 32 | getInt(value, p + shift);
+                b = getInt(value, p + n - 2) << 32 | getInt(value, p + n - 2 - shift);
+            } else if (length > 0) {
+                char c = value.charAt(0);
+                a = (c & 0xFFL) << 16 | (c >>> 8) << 8 | (c >>> 8);
+                b = 0;
+            } else {
+                a = b = 0;
+            }
+        } else {
+            int i = length >>> 1;
+            if (i >= 24) {
+                long see1 = seed, see2 = seed;
+                do {
+                    seed = mix(XxHash64.getLong(value, p) ^ S1,
+                            XxHash64.getLong(value, p + 4) ^ seed);
+                    see1 = mix(XxHash64.getLong(value, p + 8) ^ S2,
+                            XxHash64.getLong(value, p + 12) ^ see1);
+                    see2 = mix(XxHash64.getLong(value, p + 16) ^ S3,
+                            XxHash64.getLong(value, p + 20) ^ see2);
+                    p += 24;
+                    i -= 24;
+                } while (i >= 24);
+                seed ^= see1 ^ see2;
+            }
+            while (i > 8) {
+                seed = mix(XxHash64.getLong(value, p) ^ S1, XxHash64.getLong(value, p + 4) ^ seed);
+                i -= 8;
+                p += 8;
+            }
+            a = XxHash64.getLong(value, p + i - 8);
+            b = XxHash64.getLong(value, p + i - 4);
+        }
+        return finish(a, b, seed, length);
+    }
+
+    @Override
+    public String toString() {
+        return "WyHash[seed=" + seed + "]";
+    }
+}
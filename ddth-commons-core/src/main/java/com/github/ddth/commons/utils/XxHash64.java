@@ -0,0 +1,185 @@
+package com.github.ddth.commons.utils;
+
+/**
+ * Pure-Java implementation of <a href="https://github.com/Cyan4973/xxHash">xxHash64</a>.
+ *
+ * <p>
+ * Hash values are the same as the reference implementation ({@code XXH64}) over the same bytes
+ * and seed; {@link #hash(long)} and {@link #hash(CharSequence)} hash the value's little-endian
+ * bytes (UTF-16LE for strings) without materializing them.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.1.1
+ */
+public final class XxHash64 implements ILongHashFunction {
+    private final static long P1 = 0x9E3779B185EBCA87L;
+    private final static long P2 = 0xC2B2AE3D27D4EB4FL;
+    private final static long P3 = 0x165667B19E3779F9L;
+    private final static long P4 = 0x85EBCA77C2B2AE63L;
+    private final static long P5 = 0x27D4EB2F165667C5L;
+
+    private final long seed;
+
+    public XxHash64() {
+        this(0);
+    }
+
+    public XxHash64(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * P1 + P4;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long converge(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                + Long.rotateLeft(v4, 18);
+        h = mergeRound(h, v1);
+        h = mergeRound(h, v2);
+        h = mergeRound(h, v3);
+        return mergeRound(h, v4);
+    }
+
+    private static long mix8(long h, long lane) {
+        h ^= round(0, lane);
+        return Long.rotateLeft(h, 27) * P1 + P4;
+    }
+
+    private static long mix4(long h, long lane) {
+        h ^= lane * P1;
+        return Long.rotateLeft(h, 23) * P2 + P3;
+    }
+
+    private static long mix1(long h, int b) {
+        h ^= b * P5;
+        return Long.rotateLeft(h, 11) * P1;
+    }
+
+    static long getLong(byte[] data, int i) {
+        return (data[i] & 0xFFL) | (data[i + 1] & 0xFFL) << 8 | (data[i + 2] & 0xFFL) << 16
+                | (data[i + 3] & 0xFFL) << 24 | (data[i + 4] & 0xFFL) << 32
+                | (data[i + 5] & 0xFFL) << 40 | (data[i + 6] & 0xFFL) << 48
+                | (data[i + 7] & 0xFFL) << 56;
+    }
+
+    static long getInt(byte[] data, int i) {
+        return (data[i] & 0xFFL) | (data[i + 1] & 0xFFL) << 8 | (data[i + 2] & 0xFFL) << 16
+                | (data[i + 3] & 0xFFL) << 24;
+    }
+
+    /**
+     * 8 bytes (4 chars, UTF-16LE) of a string, starting at the {@code i}'th char.
+     */
+    static long getLong(CharSequence str, int i) {
+        return str.charAt(i) | (long) str.charAt(i + 1) << 16 | (long) str.charAt(i + 2) << 32
+                | (long) str.charAt(i + 3) << 48;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(long value) {
+        return avalanche(mix8(seed + P5 + 8, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset: " + offset + ", length: " + length + ", size: " + data.length);
+        }
+        int i = offset, end = offset + length;
+        long h;
+        if (length >= 32) {
+            long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+            for (int limit = end - 32; i <= limit; i += 32) {
+                v1 = round(v1, getLong(data, i));
+                v2 = round(v2, getLong(data, i + 8));
+                v3 = round(v3, getLong(data, i + 16));
+                v4 = round(v4, getLong(data, i + 24));
+            }
+            h = converge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += length;
+        for (; i <= end - 8; i += 8) {
+            h = mix8(h, getLong(data, i));
+        }
+        if (i <= end - 4) {
+            h = mix4(h, getInt(data, i));
+            i += 4;
+        }
+        for (; i < end; i++) {
+            h = mix1(h, data[i] & 0xFF);
+        }
+        return avalanche(h);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long hash(CharSequence value) {
+        int i = 0, end = value.length();
+        long h;
+        if (end >= 16) {
+            long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+            for (int limit = end - 16; i <= limit; i += 16) {
+                v1 = round(v1, getLong(value, i));
+                v2 = round(v2, getLong(value, i + 4));
+                v3 = round(v3, getLong(value, i + 8));
+                v4 = round(v4, getLong(value, i + 12));
+            }
+            h = converge(v1, v2, v3, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += 2L * end;
+        for (; i <= end - 4; i += 4) {
+            h = mix8(h, getLong(value, i));
+        }
+        if (i <= end - 2) {
+            h = mix4(h, value.charAt(i) | (long) value.charAt(i + 1) << 16);
+            i += 2;
+        }
+        if (i < end) {
+            char c = value.charAt(i);
+            h = mix1(mix1(h, c & 0xFF), c >>> 8);
+        }
+        return avalanche(h);
+    }
+
+    @Override
+    public String toString() {
+        return "XxHash64[seed=" + seed + "]";
+    }
+}
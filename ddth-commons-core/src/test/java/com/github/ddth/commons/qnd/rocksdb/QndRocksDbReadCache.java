@@ -0,0 +1,37 @@
+package com.github.ddth.commons.qnd.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+
+import com.github.ddth.commons.rocksdb.RocksDbException;
+import com.github.ddth.commons.rocksdb.RocksDbWrapper;
+
+public class QndRocksDbReadCache {
+    public static void main(String[] args) throws RocksDbException, IOException {
+        // cleanup
+        String dataDir = "./temp";
+        FileUtils.deleteDirectory(new File(dataDir));
+
+        // enable a 16Mb read-through cache
+        try (RocksDbWrapper rocksDb = new RocksDbWrapper(dataDir, false)
+                .setReadCacheSize(16 * 1024 * 1024).init()) {
+            rocksDb.put("key", "a value");
+
+            final int NUM_READS = 1_000_000;
+            long t = System.currentTimeMillis();
+            for (int i = 0; i < NUM_READS; i++) {
+                rocksDb.get("key");
+            }
+            long d = System.currentTimeMillis() - t;
+            System.out.println(NUM_READS + " reads in " + d + "ms");
+            System.out.println("Cache stats: " + rocksDb.getReadCache().getStats());
+
+            // write invalidates the cached entry
+            rocksDb.put("key", "another value");
+            System.out.println("Value of [key]: " + new String(rocksDb.get("key")));
+            System.out.println("Cache stats: " + rocksDb.getReadCache().getStats());
+        }
+    }
+}
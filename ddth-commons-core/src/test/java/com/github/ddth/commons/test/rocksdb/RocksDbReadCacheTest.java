@@ -0,0 +1,135 @@
+package com.github.ddth.commons.test.rocksdb;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.rocksdb.WriteBatch;
+
+import com.github.ddth.commons.rocksdb.RocksDbReadCache;
+import com.github.ddth.commons.rocksdb.RocksDbUtils;
+import com.github.ddth.commons.rocksdb.RocksDbWrapper;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class RocksDbReadCacheTest extends TestCase {
+
+    public RocksDbReadCacheTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(RocksDbReadCacheTest.class);
+    }
+
+    private final static String CF_DATA = "data";
+    private final static String CF_MERGE = "merge";
+
+    private File dataDir;
+    private RocksDbWrapper rocksDb;
+
+    @Before
+    public void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("rocksdb-read-cache").toFile();
+        rocksDb = RocksDbWrapper.openReadWrite(dataDir, CF_DATA);
+        rocksDb.createColumnFamily(CF_MERGE, RocksDbUtils.buildStringAppendColumnFamilyOptions(
+                RocksDbUtils.OptionsProfile.DEFAULT, ','));
+        rocksDb.setReadCacheSize(1024 * 1024);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (rocksDb != null) {
+            rocksDb.close();
+        }
+        FileUtils.deleteQuietly(dataDir);
+    }
+
+    private String get(String cfName, String key) {
+        byte[] value = rocksDb.get(cfName, key);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    @org.junit.Test
+    public void testHit() {
+        RocksDbReadCache cache = rocksDb.getReadCache();
+        rocksDb.put(CF_DATA, "key", "value");
+        assertEquals("value", get(CF_DATA, "key"));
+        assertEquals(0, cache.getHitCount());
+        assertEquals("value", get(CF_DATA, "key"));
+        assertEquals(1, cache.getHitCount());
+
+        // returned values are copies
+        rocksDb.get(CF_DATA, "key")[0] = 'x';
+        assertEquals("value", get(CF_DATA, "key"));
+
+        // same key in another column family is another entry
+        assertNull(get(RocksDbWrapper.DEFAULT_COLUMN_FAMILY, "key"));
+    }
+
+    @org.junit.Test
+    public void testNegativeCaching() {
+        RocksDbReadCache cache = rocksDb.getReadCache();
+        assertNull(get(CF_DATA, "key"));
+        assertNull(get(CF_DATA, "key"));
+        assertEquals(1, cache.getHitCount());
+
+        rocksDb.put(CF_DATA, "key", "value");
+        assertEquals("value", get(CF_DATA, "key"));
+    }
+
+    @org.junit.Test
+    public void testInvalidateOnWrites() throws Exception {
+        rocksDb.put(CF_DATA, "key", "value1");
+        assertEquals("value1", get(CF_DATA, "key"));
+        rocksDb.put(CF_DATA, "key", "value2");
+        assertEquals("value2", get(CF_DATA, "key"));
+        rocksDb.delete(CF_DATA, "key");
+        assertNull(get(CF_DATA, "key"));
+
+        rocksDb.merge(CF_MERGE, "key", "a");
+        assertEquals("a", get(CF_MERGE, "key"));
+        rocksDb.merge(CF_MERGE, "key", "b");
+        assertEquals("a,b", get(CF_MERGE, "key"));
+
+        try (WriteBatch batch = new WriteBatch()) {
+            batch.put(rocksDb.getColumnFamilyHandle(CF_DATA),
+                    "key".getBytes(StandardCharsets.UTF_8),
+                    "value3".getBytes(StandardCharsets.UTF_8));
+            rocksDb.write(batch);
+        }
+        assertEquals("value3", get(CF_DATA, "key"));
+    }
+
+    @org.junit.Test
+    public void testCacheKeyCopied() {
+        RocksDbReadCache cache = new RocksDbReadCache(1024);
+        byte[] key = "key1".getBytes(StandardCharsets.UTF_8);
+        cache.get(0, key, () -> "value1".getBytes(StandardCharsets.UTF_8));
+        // caller reuses its key buffer
+        key[3] = '2';
+        assertNull(cache.get(0, key, () -> null));
+        assertEquals("value1", new String(
+                cache.get(0, "key1".getBytes(StandardCharsets.UTF_8), () -> null),
+                StandardCharsets.UTF_8));
+    }
+
+    @org.junit.Test
+    public void testMaxBytes() {
+        final int MAX_BYTES = 16 * 1024;
+        final int VALUE_SIZE = 100;
+        RocksDbReadCache cache = new RocksDbReadCache(MAX_BYTES);
+        for (int i = 0; i < 1000; i++) {
+            byte[] key = String.format("key%04d", i).getBytes(StandardCharsets.UTF_8);
+            cache.get(0, key, () -> new byte[VALUE_SIZE]);
+        }
+        // each entry weighs at least its key and value
+        assertTrue(cache.size() > 0);
+        assertTrue(cache.size() * (7 + VALUE_SIZE) <= MAX_BYTES);
+    }
+}
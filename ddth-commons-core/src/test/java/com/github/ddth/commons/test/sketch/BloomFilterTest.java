@@ -0,0 +1,121 @@
+package com.github.ddth.commons.test.sketch;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.sketch.BloomFilter;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class BloomFilterTest extends TestCase {
+
+    public BloomFilterTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(BloomFilterTest.class);
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @org.junit.Test
+    public void testNoFalseNegatives() {
+        for (boolean offHeap : new boolean[] { false, true }) {
+            BloomFilter filter = new BloomFilter(10000, 0.01, offHeap);
+            assertEquals(offHeap, filter.isOffHeap());
+            for (int i = 0; i < 10000; i++) {
+                filter.put("item-" + i);
+            }
+            for (int i = 0; i < 10000; i++) {
+                assertTrue(filter.mightContain("item-" + i));
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testFalsePositiveRate() {
+        for (boolean offHeap : new boolean[] { false, true }) {
+            BloomFilter filter = new BloomFilter(10000, 0.01, offHeap);
+            for (int i = 0; i < 10000; i++) {
+                filter.put(i);
+            }
+            int falsePositives = 0;
+            for (int i = 10000; i < 110000; i++) {
+                if (filter.mightContain(i)) {
+                    falsePositives++;
+                }
+            }
+            assertTrue("FPP: " + falsePositives / 100000.0, falsePositives < 100000 * 0.02);
+            long count = filter.approximateCount();
+            assertTrue("Count: " + count, Math.abs(count - 10000) < 500);
+        }
+    }
+
+    @org.junit.Test
+    public void testMerge() {
+        BloomFilter filter1 = new BloomFilter(1000, 0.01);
+        BloomFilter filter2 = new BloomFilter(1000, 0.01, true);
+        filter1.put("a");
+        filter2.put("b");
+        assertFalse(filter1.mightContain("b"));
+        filter1.merge(filter2);
+        assertTrue(filter1.mightContain("a"));
+        assertTrue(filter1.mightContain("b"));
+        try {
+            filter1.merge(new BloomFilter(2000, 0.01));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+        filter1.clear();
+        assertEquals(0, filter1.bitCount());
+    }
+
+    @org.junit.Test
+    public void testMaxSize() {
+        // ~19.2G bits (2.4 GiB): fits a long[] but not a direct ByteBuffer
+        long expectedInsertions = 2_000_000_000L;
+        try {
+            new BloomFilter(expectedInsertions, 0.01, true);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new BloomFilter(expectedInsertions * 10, 0.01);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+        assertTrue(BloomFilter.MAX_OFF_HEAP_BITS / Byte.SIZE <= Integer.MAX_VALUE);
+    }
+
+    @org.junit.Test
+    public void testSerialization() {
+        BloomFilter filter = new BloomFilter(1000, 0.01, true);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(i);
+        }
+        byte[] data = filter.toBytes();
+        BloomFilter copy = new BloomFilter(1, 0.01).fromBytes(data);
+        assertFalse(copy.isOffHeap());
+        assertEquals(filter.getNumBits(), copy.getNumBits());
+        assertEquals(filter.getNumHashFunctions(), copy.getNumHashFunctions());
+        assertEquals(filter.bitCount(), copy.bitCount());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(copy.mightContain(i));
+        }
+        try {
+            new BloomFilter(1000, 0.01).fromBytes(new byte[] { 1, 2, 3 });
+            fail("DeserializationException expected");
+        } catch (DeserializationException e) {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.ddth.commons.test.sketch;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.sketch.CountMinSketch;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class CountMinSketchTest extends TestCase {
+
+    public CountMinSketchTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(CountMinSketchTest.class);
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @org.junit.Test
+    public void testDimensions() {
+        CountMinSketch cms = new CountMinSketch(0.001, 0.01);
+        assertEquals(2719, cms.getWidth());
+        assertEquals(5, cms.getDepth());
+        try {
+            new CountMinSketch(0, 0.01);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @org.junit.Test
+    public void testEstimate() {
+        double epsilon = 0.001;
+        CountMinSketch cms = new CountMinSketch(epsilon, 0.01);
+        int numItems = 10000;
+        for (int i = 0; i < numItems; i++) {
+            /* item i occurs (i % 100 + 1) times */
+            cms.add("item-" + i, i % 100 + 1);
+        }
+        cms.add("heavy", 100000);
+        long total = cms.getTotalCount();
+        assertEquals(numItems / 100 * 5050 + 100000, total);
+        assertTrue(cms.estimate("heavy") >= 100000);
+        int withinBound = 0;
+        for (int i = 0; i < numItems; i++) {
+            long actual = i % 100 + 1;
+            long estimate = cms.estimate("item-" + i);
+            assertTrue(estimate >= actual);
+            if (estimate - actual <= epsilon * total) {
+                withinBound++;
+            }
+        }
+        assertTrue("Within bound: " + withinBound, withinBound >= numItems * 0.99);
+    }
+
+    @org.junit.Test
+    public void testMerge() {
+        CountMinSketch cms1 = new CountMinSketch(4, 1000);
+        CountMinSketch cms2 = new CountMinSketch(4, 1000);
+        cms1.add("a", 3);
+        cms2.add("a", 4);
+        cms2.add("b");
+        cms1.merge(cms2);
+        assertEquals(7, cms1.estimate("a"));
+        assertEquals(1, cms1.estimate("b"));
+        assertEquals(8, cms1.getTotalCount());
+        try {
+            cms1.merge(new CountMinSketch(4, 999));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+        cms1.clear();
+        assertEquals(0, cms1.estimate("a"));
+        assertEquals(0, cms1.getTotalCount());
+    }
+
+    @org.junit.Test
+    public void testSerialization() {
+        CountMinSketch cms = new CountMinSketch(0.01, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            cms.add(i, i);
+        }
+        byte[] data = cms.toBytes();
+        CountMinSketch copy = new CountMinSketch(1, 1).fromBytes(data);
+        assertEquals(cms.getDepth(), copy.getDepth());
+        assertEquals(cms.getWidth(), copy.getWidth());
+        assertEquals(cms.getTotalCount(), copy.getTotalCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(cms.estimate(i), copy.estimate(i));
+        }
+        try {
+            copy.fromBytes(new byte[] { (byte) 0xC3, 2 });
+            fail("DeserializationException expected");
+        } catch (DeserializationException e) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.ddth.commons.test.sketch;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.sketch.CuckooFilter;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class CuckooFilterTest extends TestCase {
+
+    public CuckooFilterTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(CuckooFilterTest.class);
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @org.junit.Test
+    public void testPutDelete() {
+        CuckooFilter filter = new CuckooFilter(10000);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.put("item-" + i));
+        }
+        assertEquals(10000, filter.size());
+        assertFalse(filter.isFull());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("item-" + i));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(filter.delete("item-" + i));
+        }
+        assertEquals(5000, filter.size());
+        int remaining = 0;
+        for (int i = 0; i < 10000; i += 2) {
+            if (filter.mightContain("item-" + i)) {
+                remaining++;
+            }
+        }
+        assertTrue("Deleted items still found: " + remaining, remaining < 10);
+        for (int i = 1; i < 10000; i += 2) {
+            assertTrue(filter.mightContain("item-" + i));
+        }
+    }
+
+    @org.junit.Test
+    public void testFalsePositiveRate() {
+        CuckooFilter filter = new CuckooFilter(10000);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(i);
+        }
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("FPP: " + falsePositives / 100000.0, falsePositives < 100);
+    }
+
+    @org.junit.Test
+    public void testFull() {
+        CuckooFilter filter = new CuckooFilter(100);
+        int slots = filter.getNumBuckets() * CuckooFilter.BUCKET_SIZE;
+        int added = 0;
+        while (filter.put(added)) {
+            added++;
+        }
+        assertTrue(filter.isFull());
+        assertTrue(added <= slots + 1);
+        for (int i = 0; i < added; i++) {
+            assertTrue(filter.mightContain(i));
+        }
+        for (int i = 0; i < added / 2; i++) {
+            assertTrue(filter.delete(i));
+        }
+        assertFalse(filter.isFull());
+        for (int i = added / 2; i < added; i++) {
+            assertTrue(filter.mightContain(i));
+        }
+        filter.clear();
+        assertEquals(0, filter.size());
+        assertFalse(filter.mightContain(1));
+    }
+
+    @org.junit.Test
+    public void testSerialization() {
+        CuckooFilter filter = new CuckooFilter(1000);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(i);
+        }
+        byte[] data = filter.toBytes();
+        CuckooFilter copy = new CuckooFilter(1).fromBytes(data);
+        assertEquals(filter.getNumBuckets(), copy.getNumBuckets());
+        assertEquals(filter.size(), copy.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(copy.mightContain(i));
+        }
+        assertTrue(copy.delete(1));
+        assertEquals(999, copy.size());
+        try {
+            new CuckooFilter(1).fromBytes(new byte[] { (byte) 0xC1, 1, 0, 0 });
+            fail("DeserializationException expected");
+        } catch (DeserializationException e) {
+        }
+    }
+}
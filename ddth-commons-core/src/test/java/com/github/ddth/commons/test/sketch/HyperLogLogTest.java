@@ -0,0 +1,103 @@
+package com.github.ddth.commons.test.sketch;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.github.ddth.commons.serialization.DeserializationException;
+import com.github.ddth.commons.sketch.HyperLogLog;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class HyperLogLogTest extends TestCase {
+
+    public HyperLogLogTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(HyperLogLogTest.class);
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static void assertCardinality(long expected, long actual, double maxError) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue("Expected ~" + expected + ", got " + actual, error <= maxError);
+    }
+
+    @org.junit.Test
+    public void testCardinality() {
+        HyperLogLog hll = new HyperLogLog();
+        assertEquals(0, hll.cardinality());
+        long[] checkpoints = { 10, 100, 1000, 10000, 100000, 1000000 };
+        int n = 0;
+        for (long checkpoint : checkpoints) {
+            for (; n < checkpoint; n++) {
+                hll.add("item-" + n);
+                /* duplicates do not count */
+                hll.add("item-" + (n / 2));
+            }
+            assertCardinality(checkpoint, hll.cardinality(), 0.03);
+        }
+    }
+
+    @org.junit.Test
+    public void testPrecision() {
+        HyperLogLog hll = new HyperLogLog(HyperLogLog.MIN_PRECISION);
+        for (int i = 0; i < 10000; i++) {
+            hll.add(i);
+        }
+        assertCardinality(10000, hll.cardinality(), 0.5);
+        try {
+            new HyperLogLog(HyperLogLog.MAX_PRECISION + 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @org.junit.Test
+    public void testMerge() {
+        HyperLogLog hll1 = new HyperLogLog(12);
+        HyperLogLog hll2 = new HyperLogLog(12);
+        for (int i = 0; i < 60000; i++) {
+            hll1.add(i);
+        }
+        for (int i = 40000; i < 100000; i++) {
+            hll2.add(i);
+        }
+        assertCardinality(100000, hll1.merge(hll2).cardinality(), 0.05);
+        try {
+            hll1.merge(new HyperLogLog(13));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+        hll1.clear();
+        assertEquals(0, hll1.cardinality());
+    }
+
+    @org.junit.Test
+    public void testSerialization() {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int i = 0; i < 10000; i++) {
+            hll.add(i);
+        }
+        byte[] data = hll.toBytes();
+        HyperLogLog copy = new HyperLogLog().fromBytes(data);
+        assertEquals(10, copy.getPrecision());
+        assertEquals(hll.cardinality(), copy.cardinality());
+        data[2] = 3;
+        try {
+            new HyperLogLog().fromBytes(data);
+            fail("DeserializationException expected");
+        } catch (DeserializationException e) {
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.ddth.commons.test.utils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.ddth.commons.utils.CompiledDPath;
+import com.github.ddth.commons.utils.CompiledDPathSet;
+import com.github.ddth.commons.utils.DPathUtils;
+import com.github.ddth.commons.utils.JacksonUtils;
+import com.github.ddth.commons.utils.SerializationUtils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class CompiledDPathTest extends TestCase {
+
+    public CompiledDPathTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(CompiledDPathTest.class);
+    }
+
+    private Map<String, Object> COMPANY;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> company = new HashMap<>();
+        company.put("name", "Monster Corp.");
+        company.put("year", "2003");
+        List<Map<String, Object>> employees = new ArrayList<>();
+        company.put("employees", employees);
+        Map<String, Object> employee = new HashMap<>();
+        employee.put("first_name", "Mike");
+        employee.put("age", 29);
+        employees.add(employee);
+        COMPANY = company;
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @org.junit.Test
+    public void testCompile() {
+        CompiledDPath dPath = CompiledDPath.compile("a.b[1][2].c");
+        assertEquals("a.b[1][2].c", dPath.getPath());
+        assertEquals(5, dPath.size());
+        assertEquals("[1]", dPath.getTokens()[2]);
+        assertSame(dPath, CompiledDPath.compile("a.b[1][2].c"));
+    }
+
+    @org.junit.Test
+    public void testGetValue() {
+        CompiledDPath dPath = CompiledDPath.compile("employees[0].first_name");
+        assertEquals("Mike", dPath.getValue(COMPANY));
+        assertEquals(Integer.valueOf(2003),
+                DPathUtils.getValue(COMPANY, CompiledDPath.compile("year"), Integer.class));
+        assertNull(CompiledDPath.compile("employees[0].not_exist").getValue(COMPANY));
+
+        JsonNode node = JacksonUtils.toJson(COMPANY);
+        assertEquals(29, CompiledDPath.compile("employees.[0].age").getValue(node).asInt());
+    }
+
+    @org.junit.Test
+    public void testInvalidIndex() {
+        try {
+            CompiledDPath.compile("employees[x]").getValue(COMPANY);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @org.junit.Test
+    public void testSetDeleteValue() {
+        CompiledDPath dPath = CompiledDPath.compile("employees[1].first_name");
+        dPath.setValue(COMPANY, "Sulley", true);
+        assertEquals("Sulley", dPath.getValue(COMPANY));
+        CompiledDPath.compile("employees[]").setValue(COMPANY, "last", false);
+        assertEquals("last", DPathUtils.getValue(COMPANY, "employees[2]"));
+        dPath.deleteValue(COMPANY);
+        assertNull(dPath.getValue(COMPANY));
+    }
+
+    @org.junit.Test
+    public void testCompiledDPathSet() {
+        CompiledDPathSet dPaths = CompiledDPathSet.compile("name", "employees[0].first_name",
+                "employees.[0].age", "employees[5].age", "employees[0]", "not_exist.a");
+        Object[] values = dPaths.extract(COMPANY);
+        assertEquals(6, values.length);
+        for (int i = 0; i < values.length; i++) {
+            Object expected;
+            try {
+                expected = DPathUtils.getValue(COMPANY, dPaths.getPaths().get(i));
+            } catch (IndexOutOfBoundsException e) {
+                expected = null;
+            }
+            assertEquals(expected, values[i]);
+        }
+
+        JsonNode node = JacksonUtils.toJson(COMPANY);
+        Map<String, Object> valueMap = DPathUtils.getValuesAsMap(node,
+                Arrays.asList("year", "employees[0].age"));
+        assertEquals("2003", ((JsonNode) valueMap.get("year")).asText());
+        assertEquals(29, ((JsonNode) valueMap.get("employees[0].age")).asInt());
+    }
+
+    @org.junit.Test
+    public void testStreamingExtract() throws Exception {
+        String json = "{\"skip\":{\"a\":[1,2,{\"b\":3}]},\"name\":\"Monster\",\"n\":null,"
+                + "\"employees\":[{\"age\":29,\"tags\":[\"x\",\"y\"]},{\"age\":30}],"
+                + "\"tail\": BROKEN";
+        CompiledDPathSet dPaths = CompiledDPathSet.compile("name", "employees[1].age",
+                "employees[0].tags", "employees[0].tags[1]", "n", "n.x", "skip.not_exist");
+        // all expressions are resolved before reaching the malformed tail
+        JsonNode[] values = dPaths.extract(json.getBytes(StandardCharsets.UTF_8));
+        assertEquals("Monster", values[0].asText());
+        assertEquals(30, values[1].asInt());
+        assertEquals(2, values[2].size());
+        assertEquals("y", values[3].asText());
+        assertTrue(values[4].isNull());
+        assertNull(values[5]);
+        assertNull(values[6]);
+
+        String validJson = json.replace("BROKEN", "1}");
+        Object[] expected = dPaths.extract(SerializationUtils.readJson(validJson));
+        values = dPaths.extract(new ByteArrayInputStream(validJson.getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expected[i], values[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @org.junit.Test
+    public void testWildcardAndSlice() {
+        Map<String, Object> employee = new HashMap<>();
+        employee.put("first_name", "Sulley");
+        employee.put("age", 30);
+        ((List<Object>) COMPANY.get("employees")).add(employee);
+        ((List<Object>) COMPANY.get("employees")).add("not-a-map");
+
+        assertTrue(CompiledDPath.compile("employees[*].first_name").isMultiValue());
+        assertFalse(CompiledDPath.compile("employees[0].first_name").isMultiValue());
+        assertEquals(Arrays.asList("Mike", "Sulley"),
+                DPathUtils.streamValues(COMPANY, "employees[*].first_name")
+                        .collect(Collectors.toList()));
+        assertEquals(Arrays.asList("Sulley"),
+                DPathUtils.streamValues(COMPANY, "employees[1:].first_name")
+                        .collect(Collectors.toList()));
+        assertEquals(Arrays.asList("Mike"),
+                DPathUtils.streamValues(COMPANY, "employees[:-2].first_name")
+                        .collect(Collectors.toList()));
+        assertEquals(0, DPathUtils.streamValues(COMPANY, "employees[2:1]").count());
+        assertEquals(2, DPathUtils.streamValues(COMPANY, "employees[0].*").count());
+        assertEquals(3, DPathUtils.streamValues(COMPANY, "*").count());
+        assertEquals(Arrays.asList("Monster Corp."),
+                DPathUtils.streamValues(COMPANY, "name").collect(Collectors.toList()));
+
+        // lazy evaluation: only what is consumed is evaluated
+        Iterator<Object> it = DPathUtils.iterateValues(COMPANY, "employees[*].age");
+        assertEquals(29, it.next());
+        assertTrue(it.hasNext());
+
+        JsonNode node = JacksonUtils.toJson(COMPANY);
+        assertEquals(Arrays.asList(29, 30), DPathUtils.streamValues(node, "employees[*].age")
+                .map(JsonNode::asInt).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("Mike", "Sulley"),
+                DPathUtils.streamValues(node, "employees[-3:-1].first_name")
+                        .map(JsonNode::asText).collect(Collectors.toList()));
+
+        // single-value semantics are unchanged
+        assertNull(DPathUtils.getValue(COMPANY, "*"));
+        try {
+            DPathUtils.getValue(COMPANY, "employees[*]");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.ddth.commons.test.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.github.ddth.commons.utils.ConsistentHashRouter;
+import com.github.ddth.commons.utils.ConsistentHashRouter.Algorithm;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class ConsistentHashRouterTest extends TestCase {
+
+    public ConsistentHashRouterTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(ConsistentHashRouterTest.class);
+    }
+
+    private final static int NUM_KEYS = 20000;
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static ConsistentHashRouter<String> createRouter(Algorithm algorithm, int numNodes) {
+        ConsistentHashRouter<String> router = new ConsistentHashRouter<>(algorithm);
+        for (int i = 0; i < numNodes; i++) {
+            router.addNode("node-" + i, "target-" + i);
+        }
+        return router;
+    }
+
+    @org.junit.Test
+    public void testEmpty() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            ConsistentHashRouter<String> router = new ConsistentHashRouter<>(algorithm);
+            assertNull(router.route("key"));
+            assertTrue(router.route("key", 3).isEmpty());
+            router.addNode("node", "target");
+            assertEquals("target", router.route(1981L));
+            assertEquals(1, router.route("key", 3).size());
+            router.removeNode("node");
+            assertNull(router.route("key"));
+        }
+    }
+
+    @org.junit.Test
+    public void testJumpHash() {
+        for (long key = 0; key < 1000; key++) {
+            int bucket = ConsistentHashRouter.jumpHash(key, 10);
+            assertTrue(bucket >= 0 && bucket < 10);
+            int next = ConsistentHashRouter.jumpHash(key, 11);
+            // growing the number of buckets moves keys only to the new bucket
+            assertTrue(next == bucket || next == 10);
+        }
+    }
+
+    @org.junit.Test
+    public void testMinimalMovement() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            ConsistentHashRouter<String> router = createRouter(algorithm, 10);
+            String[] before = new String[NUM_KEYS];
+            for (int i = 0; i < NUM_KEYS; i++) {
+                before[i] = router.route("key-" + i);
+            }
+            router.addNode("node-10", "target-10");
+            int moved = 0;
+            for (int i = 0; i < NUM_KEYS; i++) {
+                String after = router.route("key-" + i);
+                if (!after.equals(before[i])) {
+                    assertEquals(algorithm.toString(), "target-10", after);
+                    moved++;
+                }
+            }
+            // ~1/11 of keys move to the new node
+            assertTrue(algorithm + ": " + moved, moved > NUM_KEYS / 11 / 2);
+            assertTrue(algorithm + ": " + moved, moved < NUM_KEYS / 11 * 2);
+
+            router.removeNode("node-10");
+            for (int i = 0; i < NUM_KEYS; i++) {
+                assertEquals(before[i], router.route("key-" + i));
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testWeight() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            ConsistentHashRouter<String> router = new ConsistentHashRouter<String>(algorithm)
+                    .addNode("small", "small", 1).addNode("big", "big", 3);
+            Map<String, Integer> counter = new HashMap<>();
+            for (long i = 0; i < NUM_KEYS; i++) {
+                counter.merge(router.route(i), 1, Integer::sum);
+            }
+            double ratio = counter.get("big") / (double) counter.get("small");
+            assertTrue(algorithm + ": " + ratio, ratio > 2.5 && ratio < 3.5);
+        }
+    }
+
+    @org.junit.Test
+    public void testReplicas() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            ConsistentHashRouter<String> router = createRouter(algorithm, 5);
+            for (int i = 0; i < 1000; i++) {
+                List<String> targets = router.route("key-" + i, 3);
+                assertEquals(3, targets.size());
+                assertEquals(3, new HashSet<>(targets).size());
+                assertEquals(router.route("key-" + i), targets.get(0));
+            }
+            assertEquals(5, new HashSet<>(router.route("key", 10)).size());
+        }
+    }
+}
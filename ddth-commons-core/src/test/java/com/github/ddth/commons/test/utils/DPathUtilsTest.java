@@ -9,7 +9,9 @@ import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 
+import com.github.ddth.commons.utils.CompiledDPath;
 import com.github.ddth.commons.utils.DPathUtils;
+import com.github.ddth.commons.utils.JacksonUtils;
 import com.github.ddth.commons.utils.DateFormatUtils;
 
 import junit.framework.Test;
@@ -267,4 +269,105 @@ public class DPathUtilsTest extends TestCase {
         DPathUtils.deleteValue(COMPANY, "employees[0].email");
         assertNull(DPathUtils.getValue(COMPANY, "employees.[0].email"));
     }
+
+    public static class Employee {
+        public String email;
+        private final String firstName;
+        private final boolean active;
+        private final List<Object> tags = new ArrayList<>();
+
+        public Employee(String firstName, String email, boolean active) {
+            this.firstName = firstName;
+            this.email = email;
+            this.active = active;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public List<Object> getTags() {
+            return tags;
+        }
+    }
+
+    private static class Badge {
+        private final int level;
+
+        Badge(int level) {
+            this.level = level;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    @org.junit.Test
+    public void testBeanProperties() {
+        Employee employee = new Employee("Boo", "boo@monster.com", true);
+        employee.getTags().add(new Badge(7));
+        Map<String, Object> data = new HashMap<>();
+        data.put("employee", employee);
+
+        assertEquals("Boo", DPathUtils.getValue(data, "employee.firstName"));
+        assertEquals("boo@monster.com", DPathUtils.getValue(data, "employee.email"));
+        assertEquals(Boolean.TRUE, DPathUtils.getValue(data, "employee.active", Boolean.class));
+        assertEquals(Integer.valueOf(7),
+                DPathUtils.getValue(data, "employee.tags[0].level", Integer.class));
+        assertNull(DPathUtils.getValues(data, "employee.class")[0]);
+        assertEquals(4, DPathUtils.streamValues(employee, "*").count());
+
+        Throwable t = null;
+        try {
+            DPathUtils.getValue(data, "employee.not_exist");
+        } catch (IllegalArgumentException e) {
+            t = e;
+        }
+        assertNotNull(t);
+        // strings, numbers, dates... are not beans: their getters are not accessible
+        data.put("name", "Boo");
+        data.put("year", 2003);
+        for (String dPath : new String[] { "employee.firstName.bytes", "name.bytes",
+                "name.empty", "year.class" }) {
+            t = null;
+            try {
+                DPathUtils.getValue(data, dPath);
+            } catch (IllegalArgumentException e) {
+                t = e;
+            }
+            assertNotNull(dPath, t);
+        }
+        data.put("date", new Date());
+        assertEquals(0, DPathUtils.streamValues(data, "date.*").count());
+        assertEquals(-1L, DPathUtils.getLong(data, "date.time", -1L));
+    }
+
+    @org.junit.Test
+    public void testGetPrimitive() {
+        assertEquals(COMPANY_YEAR, DPathUtils.getInt(COMPANY, "year", -1));
+        assertEquals(EMPLOYEE1_AGE, DPathUtils.getLong(COMPANY, "employees[0].age", -1L));
+        assertEquals(-1.0, DPathUtils.getDouble(COMPANY, "employees[0].not_found", -1.0), 0.0);
+        assertTrue(DPathUtils.getBoolean(COMPANY, "not_found.x", true));
+        assertEquals(EMPLOYEE1_AGE, DPathUtils.getInt(JacksonUtils.toJson(COMPANY),
+                CompiledDPath.compile("employees[0].age"), -1));
+
+        // out-of-range indexes and type mismatches are missing values
+        assertEquals(-1L, DPathUtils.getLong(COMPANY, "employees[5].age", -1L));
+        assertEquals(-1, DPathUtils.getInt(COMPANY, "employees[-1].age", -1));
+        assertEquals(-1, DPathUtils.getInt(COMPANY, "name.x", -1));
+        assertEquals(-1, DPathUtils.getInt(COMPANY, "name[0]", -1));
+        assertEquals(-1, DPathUtils.getInt(new Object[] { 1 }, "[1]", -1));
+        assertEquals(-1, DPathUtils.getInt(JacksonUtils.toJson(COMPANY), "employees[5].age", -1));
+        assertEquals(-1, DPathUtils.getInt(JacksonUtils.toJson(COMPANY), "name.x", -1));
+        assertFalse(DPathUtils.getBoolean(JacksonUtils.toJson(COMPANY), "name[0]", false));
+        assertEquals(-1L, DPathUtils.getLong(COMPANY, "employees[*]", -1L));
+        assertEquals(-1L, DPathUtils.getLong(COMPANY, "employees[x].age", -1L));
+        assertEquals(-1L, DPathUtils.getLong(JacksonUtils.toJson(COMPANY), "employees[*]", -1L));
+        assertEquals(-1, DPathUtils.getInt(JacksonUtils.toJson(COMPANY), "employees[x].age", -1));
+    }
 }
@@ -1,8 +1,12 @@
 package com.github.ddth.commons.test.utils;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Date;
 
 import com.github.ddth.commons.utils.DateFormatUtils;
+import com.github.ddth.commons.utils.ValueUtils;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -178,4 +182,76 @@ public class DateFormatUtilsTest extends TestCase {
             }
         }
     }
+
+    private static Date parseLegacy(String source, String format) {
+        try {
+            return new SimpleDateFormat(format).parse(source);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @org.junit.Test
+    public void testFromStringSameAsSimpleDateFormat() {
+        String[][] cases = { { "2019-03-01 13:45:07", "yyyy-MM-dd HH:mm:ss" },
+                { "20190301134507", "yyyyMMddHHmmss" }, { "2019-3-1", "yyyy-MM-dd" },
+                { "Apr 29, 2011", "MMM d, yyyy" }, { "April 29, 2011", "MMM d, yyyy" },
+                { "2012-03-01 01:30:00 PM", "yyyy-MM-dd hh:mm:ss a" },
+                { "2012-03-01 12:30:00 AM", "yyyy-MM-dd hh:mm:ss a" },
+                { "2019-02-30", "yyyy-MM-dd" }, { "2019-01-01 24:00", "yyyy-MM-dd HH:mm" },
+                { "2019-01-02T03:04:05.678+0700", DateFormatUtils.DF_ISO8601 },
+                { "2019-01-02T03:04:05.6+0700", DateFormatUtils.DF_ISO8601 },
+                { "2019-01-02T03:04:05.678-02:30", "yyyy-MM-dd'T'HH:mm:ss.SSSXXX" },
+                { "2019-01-02T03:04:05.678Z", "yyyy-MM-dd'T'HH:mm:ss.SSSX" },
+                { "01/02/19", "MM/dd/yy" }, { "Wed, 02 Jan 2019 03:04:05 +0000",
+                        "EEE, dd MMM yyyy HH:mm:ss Z" },
+                { "13:45", "HH:mm" }, { "2019-01-01 trailing", "yyyy-MM-dd" },
+                { "2/1/19", "d/M/y" }, { "2/1/2019", "d/M/y" }, { "1500-03-01", "yyyy-MM-dd" },
+                { "1582-10-04", "yyyy-MM-dd" }, { "1582-10-15", "yyyy-MM-dd" },
+                { "1500-01-02T03:04:05.678+0700", DateFormatUtils.DF_ISO8601 },
+                { "1500-01-02 03:04:05", "yyyy-MM-dd HH:mm:ss" },
+                { "2019-01-02T03:04:05.678+0730", "yyyy-MM-dd'T'HH:mm:ss.SSSX" },
+                { "2019-01-02T03:04:05.678+07", "yyyy-MM-dd'T'HH:mm:ss.SSSX" } };
+        for (String[] c : cases) {
+            assertEquals(c[0] + " / " + c[1], parseLegacy(c[0], c[1]),
+                    DateFormatUtils.fromString(c[0], c[1]));
+        }
+        try {
+            DateFormatUtils.fromString("not a date", "yyyy-MM-dd");
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+        }
+    }
+
+    @org.junit.Test
+    public void testParseIso8601() {
+        assertEquals(parseLegacy("2019-01-02T03:04:05.678+0700", DateFormatUtils.DF_ISO8601),
+                DateFormatUtils.parseIso8601("2019-01-02T03:04:05.678+07:00"));
+        assertEquals(parseLegacy("2019-01-02 03:04:05 +0000", "yyyy-MM-dd HH:mm:ss Z"),
+                DateFormatUtils.parseIso8601("2019-01-02T03:04:05Z"));
+        assertEquals(parseLegacy("1969-12-31 23:00", "yyyy-MM-dd HH:mm"),
+                DateFormatUtils.parseIso8601("1969-12-31T23:00"));
+        assertEquals(parseLegacy("2020-02-29", "yyyy-MM-dd"),
+                DateFormatUtils.parseIso8601("2020-02-29"));
+        assertEquals(123, DateFormatUtils.parseIso8601("1970-01-01T00:00:00.123456Z").getTime());
+        assertEquals(parseLegacy("1500-01-02T03:04:05.678+0700", DateFormatUtils.DF_ISO8601),
+                DateFormatUtils.parseIso8601("1500-01-02T03:04:05.678+07:00"));
+        assertEquals(parseLegacy("1500-03-01", "yyyy-MM-dd"),
+                DateFormatUtils.parseIso8601("1500-03-01"));
+        assertNull(DateFormatUtils.parseIso8601("2019-02-29"));
+        assertNull(DateFormatUtils.parseIso8601("2019-01-02T25:00"));
+        assertNull(DateFormatUtils.parseIso8601("2019-01-02T03:04+7"));
+        assertNull(DateFormatUtils.parseIso8601("20190102"));
+    }
+
+    @org.junit.Test
+    public void testParseEpochMillis() {
+        assertEquals(1546398245678L, DateFormatUtils.parseEpochMillis("1546398245678").getTime());
+        assertEquals(-1000L, DateFormatUtils.parseEpochMillis("-1000").getTime());
+        assertNull(DateFormatUtils.parseEpochMillis("12a"));
+        assertNull(DateFormatUtils.parseEpochMillis("-"));
+        assertNull(DateFormatUtils.parseEpochMillis("99999999999999999999"));
+        assertEquals(new Date(1000), ValueUtils.convertDate("1000"));
+        assertEquals(new Date(1000), ValueUtils.convertDate("1970-01-01T00:00:01Z"));
+    }
 }
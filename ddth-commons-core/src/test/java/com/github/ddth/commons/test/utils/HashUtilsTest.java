@@ -2,6 +2,10 @@ package com.github.ddth.commons.test.utils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -10,6 +14,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
@@ -20,7 +25,13 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.junit.Assert;
 
 import com.github.ddth.commons.utils.HashUtils;
+import com.github.ddth.commons.utils.ILongHashFunction;
+import com.github.ddth.commons.utils.IncrementalChecksum;
+import com.github.ddth.commons.utils.WyHash;
+import com.github.ddth.commons.utils.XxHash64;
+import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -203,4 +214,159 @@ public class HashUtilsTest extends TestCase {
             }
         }
     }
+
+    @org.junit.Test
+    public void testChecksumPrimitiveArrayBoxed() {
+        Random random = new Random(1981);
+        byte[] bytes = new byte[1000];
+        random.nextBytes(bytes);
+        Byte[] Bytes = new Byte[bytes.length];
+        boolean[] booleans = new boolean[100];
+        Boolean[] Booleans = new Boolean[booleans.length];
+        char[] chars = new char[100];
+        Character[] Chars = new Character[chars.length];
+        double[] doubles = { Double.NaN, -0.0, Double.MAX_VALUE, 1.5 };
+        Double[] Doubles = { Double.NaN, -0.0, Double.MAX_VALUE, 1.5 };
+        for (int i = 0; i < bytes.length; i++) {
+            Bytes[i] = bytes[i];
+        }
+        for (int i = 0; i < booleans.length; i++) {
+            Booleans[i] = booleans[i] = random.nextBoolean();
+            Chars[i] = chars[i] = (char) random.nextInt();
+        }
+        for (HashFunction hf : HF_LIST) {
+            testChecksumEquals(hf, bytes, Bytes);
+            testChecksumEquals(hf, booleans, Booleans);
+            testChecksumEquals(hf, chars, Chars);
+            testChecksumEquals(hf, doubles, Doubles);
+        }
+    }
+
+    @org.junit.Test
+    public void testXxHash64WyHash() {
+        // reference test vectors
+        assertEquals(0xEF46DB3751D8E999L, HashUtils.xxHash64.hash(new byte[0]));
+        assertEquals(0x44BC2CF5AD770999L,
+                HashUtils.xxHash64.hash("abc".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0xFBCEA83C8A378BF1L, HashUtils.xxHash64.hash(
+                "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x93228A4DE0EEC5A2L, HashUtils.wyHash.hash(new byte[0]));
+        assertEquals(0xA97F2F7B1D9B3314L,
+                new WyHash(2).hash("abc".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x6CC5EAB49A92D617L, new WyHash(6).hash(
+                "12345678901234567890123456789012345678901234567890123456789012345678901234567890"
+                        .getBytes(StandardCharsets.US_ASCII)));
+
+        // primitive entry points are the same as hashing the little-endian bytes
+        ILongHashFunction[] hfs = { HashUtils.xxHash64, HashUtils.wyHash, new XxHash64(81),
+                new WyHash(81) };
+        Random random = new Random(1981);
+        for (ILongHashFunction hf : hfs) {
+            for (int len = 0; len < 100; len++) {
+                char[] chars = new char[len];
+                byte[] bytes = new byte[len * 2 + 3];
+                for (int i = 0; i < len; i++) {
+                    chars[i] = (char) random.nextInt();
+                    bytes[i * 2 + 3] = (byte) chars[i];
+                    bytes[i * 2 + 4] = (byte) (chars[i] >>> 8);
+                }
+                assertEquals(hf.hash(bytes, 3, len * 2), hf.hash(new String(chars)));
+            }
+            long value = random.nextLong();
+            assertEquals(hf.hash(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(value).array()), hf.hash(value));
+            assertEquals(HashUtils.fastHashValue(81, hf), HashUtils.fastHashValue(81L, hf));
+            assertEquals(hf.hash(81), HashUtils.fastHashValue((byte) 81, hf));
+            for (int i = 0; i < 100; i++) {
+                long bucket = HashUtils.consistentHashingMap("key" + i, 7, hf);
+                assertTrue(bucket >= 0 && bucket < 7);
+                assertEquals(bucket, HashUtils.consistentHashingMap(
+                        new StringBuilder("key").append(i), 7, hf));
+                bucket = HashUtils.linearHashingMap((long) i, 7, hf);
+                assertTrue(bucket >= 0 && bucket < 7);
+                assertEquals(bucket, HashUtils.linearHashingMap(Long.valueOf(i), 7, hf));
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testChecksumParallel() {
+        Random random = new Random(1981);
+        int n = HashUtils.PARALLEL_CHECKSUM_THRESHOLD * 3;
+        Map<Object, Object> map = new HashMap<>();
+        Map<Object, Object> treeMap = new TreeMap<>();
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            String key = "key" + i;
+            Object value = i % 3 == 0 ? random.nextLong()
+                    : i % 3 == 1 ? "value" + random.nextInt() : Arrays.asList(i, "v" + i);
+            map.put(key, value);
+            treeMap.put(key, value);
+            list.add(value);
+        }
+        Collection<Object> set = new HashSet<>(map.keySet());
+        Collection<Object> treeSet = new TreeSet<>(map.keySet());
+        Object[] objs = { map, treeMap, list, list.toArray(), set, treeSet, new HashMap<>(),
+                new HashSet<>(), list.subList(0, 10), "scalar" };
+        for (HashFunction hf : HF_LIST) {
+            for (Object obj : objs) {
+                assertEquals(HashUtils.checksum(obj, hf), HashUtils.checksumParallel(obj, hf));
+            }
+            assertEquals(HashUtils.checksumParallel(map, hf),
+                    HashUtils.checksumParallel(treeMap, hf));
+            assertEquals(HashUtils.checksumParallel(set, hf),
+                    HashUtils.checksumParallel(treeSet, hf));
+
+            // un-ordered combination is the same as Guava's
+            List<HashCode> hashCodes = new ArrayList<>();
+            for (Object item : set) {
+                hashCodes.add(hf.newHasher().putLong(HashUtils.checksum(item, hf)).hash());
+            }
+            assertEquals(Hashing.combineUnordered(hashCodes).padToLong(),
+                    HashUtils.checksumParallel(set, hf));
+        }
+        assertEquals(HashUtils.checksum(map), HashUtils.checksumParallel(map));
+    }
+
+    @org.junit.Test
+    public void testIncrementalChecksum() {
+        for (HashFunction hf : HF_LIST) {
+            Map<Object, Object> map = new HashMap<>();
+            Collection<Object> set = new HashSet<>();
+            IncrementalChecksum mapChecksum = new IncrementalChecksum(hf);
+            IncrementalChecksum setChecksum = new IncrementalChecksum(hf);
+            assertEquals(HashUtils.checksum(map, hf), mapChecksum.getValue());
+            assertEquals(HashUtils.checksum(set, hf), setChecksum.getValue());
+            for (int i = 0; i < 1000; i++) {
+                map.put("key" + i, i);
+                mapChecksum.put("key" + i, i);
+                set.add(i);
+                setChecksum.add(i);
+            }
+            assertEquals(HashUtils.checksum(map, hf), mapChecksum.getValue());
+            assertEquals(HashUtils.checksum(set, hf), setChecksum.getValue());
+            assertEquals(1000, setChecksum.size());
+            for (int i = 0; i < 999; i += 3) {
+                mapChecksum.remove("key" + i, map.remove("key" + i));
+                map.put("key" + (i + 1), "new value");
+                mapChecksum.remove("key" + (i + 1), i + 1).put("key" + (i + 1), "new value");
+                set.remove(i);
+                setChecksum.remove(i);
+            }
+            assertEquals(HashUtils.checksum(map, hf), mapChecksum.getValue());
+            assertEquals(HashUtils.checksum(set, hf), setChecksum.getValue());
+            assertEquals(map.size(), mapChecksum.size());
+            assertEquals(HashUtils.checksum(map, hf),
+                    new IncrementalChecksum(hf).putAll(map).getValue());
+            assertEquals(HashUtils.checksum(set, hf),
+                    new IncrementalChecksum(hf).addAll(set).getValue());
+
+            for (Object key : map.keySet()) {
+                mapChecksum.remove(key, map.get(key));
+            }
+            assertEquals(HashUtils.checksum(new HashMap<>(), hf), mapChecksum.getValue());
+            assertEquals(HashUtils.checksum(new HashSet<>(), hf),
+                    setChecksum.clear().getValue());
+        }
+    }
 }
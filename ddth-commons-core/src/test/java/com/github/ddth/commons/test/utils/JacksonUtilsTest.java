@@ -1,5 +1,9 @@
 package com.github.ddth.commons.test.utils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -170,4 +174,73 @@ public class JacksonUtilsTest extends TestCase {
         JacksonUtils.deleteValue(COMPANY, "employees[0].email");
         assertNull(JacksonUtils.getValue(COMPANY, "employees.[0].email"));
     }
+
+    @org.junit.Test
+    public void testGetPrimitive() {
+        assertEquals(2003L, JacksonUtils.getLong(COMPANY, "year", -1L));
+        assertEquals(EMPLOYEE1_AGE, JacksonUtils.getInt(COMPANY, "employees[0].age", -1));
+        assertEquals(30.0, JacksonUtils.getDouble(COMPANY, "employees[1].age", -1.0), 0.0);
+        assertEquals(-1, JacksonUtils.getInt(COMPANY, "employees[0].email", -1));
+        assertEquals(-1, JacksonUtils.getInt(COMPANY, "employees[0].not_found", -1));
+        assertTrue(JacksonUtils.getBoolean(COMPANY, "not_found", true));
+        assertEquals(-1L, JacksonUtils.getLong(COMPANY, "employees[5].age", -1L));
+        assertEquals(-1, JacksonUtils.getInt(COMPANY, "employees[0].email.x", -1));
+    }
+
+    @org.junit.Test
+    public void testChecksumVersion() {
+        JsonNode node1 = JacksonUtils.readJson("{\"a\":1,\"b\":[true,null,\"x\",1.5]}");
+        JsonNode node2 = JacksonUtils.readJson("{\"b\":[true,null,\"x\",1.5],\"a\":1.0}");
+        assertEquals(JacksonUtils.checksum(COMPANY),
+                JacksonUtils.checksum(COMPANY, JacksonUtils.ChecksumVersion.V1));
+
+        // V2 values are stable
+        assertEquals(-2706968358890790717L,
+                JacksonUtils.checksum(node1, JacksonUtils.ChecksumVersion.V2));
+        assertEquals(JacksonUtils.checksum(node1, JacksonUtils.ChecksumVersion.V2),
+                JacksonUtils.checksum(node2, JacksonUtils.ChecksumVersion.V2));
+        assertEquals(0, JacksonUtils.checksum(NullNode.instance, JacksonUtils.ChecksumVersion.V2));
+        assertFalse(JacksonUtils.checksum(JacksonUtils.toJson("1"),
+                JacksonUtils.ChecksumVersion.V2) == JacksonUtils.checksum(JacksonUtils.toJson(1),
+                        JacksonUtils.ChecksumVersion.V2));
+        assertFalse(JacksonUtils.checksum(JacksonUtils.readJson("[1,2]"),
+                JacksonUtils.ChecksumVersion.V2) == JacksonUtils.checksum(
+                        JacksonUtils.readJson("[2,1]"), JacksonUtils.ChecksumVersion.V2));
+    }
+
+    @org.junit.Test
+    public void testChecksumStreaming() throws Exception {
+        String[] docs = { "{\"a\":1,\"b\":[true,null,\"x\",1.5]}", "[]", "{}", "\"text\"", "-0.25",
+                "123456789012345678901234567890", "[[1,[2,[3,{\"deep\":[]}]]],{\"k\":null}]", "null" };
+        for (String doc : docs) {
+            JsonNode node = JacksonUtils.readJson(doc);
+            long expected = JacksonUtils.checksum(node, JacksonUtils.ChecksumVersion.V2);
+            assertEquals(doc, expected,
+                    JacksonUtils.checksumJson(doc.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(doc, expected, JacksonUtils.checksumJson(new StringReader(doc)));
+        }
+        assertEquals(JacksonUtils.checksum(COMPANY, JacksonUtils.ChecksumVersion.V2),
+                JacksonUtils.checksumJson(new ByteArrayInputStream(
+                        COMPANY.toString().getBytes(StandardCharsets.UTF_8))));
+        assertEquals(JacksonUtils.checksumJson("{\"b\":[1,2],\"a\":{\"y\":1,\"x\":2}}".getBytes()),
+                JacksonUtils.checksumJson("{\"a\":{\"x\":2,\"y\":1},\"b\":[1,2]}".getBytes()));
+
+        // deep nesting
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            deep.append("[{\"a\":");
+        }
+        deep.append(1);
+        for (int i = 0; i < 100; i++) {
+            deep.append("}]");
+        }
+        assertEquals(JacksonUtils.checksum(JacksonUtils.readJson(deep.toString()),
+                JacksonUtils.ChecksumVersion.V2), JacksonUtils.checksumJson(deep.toString().getBytes()));
+
+        try {
+            JacksonUtils.checksumJson("{\"a\":[1,2".getBytes());
+            fail("IOException expected");
+        } catch (IOException e) {
+        }
+    }
 }
@@ -89,4 +89,15 @@ public class MapUtilsTest extends TestCase {
                 EMPLOYEE_JOIN_DATE);
     }
 
+
+    @org.junit.Test
+    public void testGetPrimitive() {
+        assertEquals(EMPLOYEE_AGE, MapUtils.getInt(EMPLOYEE, "age", -1));
+        assertEquals(EMPLOYEE_AGE, MapUtils.getLong(EMPLOYEE, "age", -1L));
+        assertEquals(-1.0, MapUtils.getDouble(EMPLOYEE, "email", -1.0), 0.0);
+        assertEquals(-1L, MapUtils.getLong(null, "age", -1L));
+        EMPLOYEE.put("active", "TRUE");
+        assertTrue(MapUtils.getBoolean(EMPLOYEE, "active", false));
+        assertFalse(MapUtils.getBoolean(EMPLOYEE, "first_name", false));
+    }
 }
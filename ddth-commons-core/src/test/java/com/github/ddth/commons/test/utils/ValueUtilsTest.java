@@ -0,0 +1,126 @@
+package com.github.ddth.commons.test.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.github.ddth.commons.utils.JacksonUtils;
+import com.github.ddth.commons.utils.ValueUtils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class ValueUtilsTest extends TestCase {
+
+    public ValueUtilsTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(ValueUtilsTest.class);
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+        ValueUtils.unregisterConverter(AtomicLong.class, Long.class);
+        ValueUtils.unregisterConverter(CharSequence.class, Date.class);
+    }
+
+    @org.junit.Test
+    public void testConvertNumber() {
+        assertEquals(Integer.valueOf(12), ValueUtils.convertValue("12", Integer.class));
+        assertEquals(Long.valueOf(12), ValueUtils.convertValue(12.7, long.class));
+        assertEquals(Byte.valueOf((byte) 0), ValueUtils.convertValue(new Object(), Byte.class));
+        assertEquals(BigInteger.TEN, ValueUtils.convertValue(10, BigInteger.class));
+        assertEquals(BigDecimal.valueOf(1.5), ValueUtils.convertValue("1.5", BigDecimal.class));
+        assertNull(ValueUtils.convertValue("1", Number.class));
+        assertEquals(Double.valueOf(0), ValueUtils.convertNumber((Object) null, Double.class));
+        assertNull(ValueUtils.convertNumber(1, String.class));
+        try {
+            ValueUtils.convertValue("abc", Integer.class);
+            fail("NumberFormatException expected");
+        } catch (NumberFormatException e) {
+        }
+    }
+
+    @org.junit.Test
+    public void testConvertPrimitive() {
+        assertEquals(123L, ValueUtils.convertLong("123"));
+        assertEquals(123L, ValueUtils.convertLong(123.9));
+        assertEquals(0L, ValueUtils.convertLong(null));
+        assertEquals(5, ValueUtils.convertInt(JacksonUtils.toJson("5")));
+        assertEquals(2.5, ValueUtils.convertDouble(JacksonUtils.toJson(2.5)), 0.0);
+        assertEquals(0.0, ValueUtils.convertDouble(Boolean.TRUE), 0.0);
+    }
+
+    @org.junit.Test
+    public void testConvertOthers() {
+        assertEquals(Boolean.TRUE, ValueUtils.convertValue("true", boolean.class));
+        assertEquals(Boolean.FALSE, ValueUtils.convertValue(1, Boolean.class));
+        assertEquals(Character.valueOf('a'), ValueUtils.convertValue("abc", Character.class));
+        assertEquals("1", ValueUtils.convertValue(1, String.class));
+        assertEquals(new Date(1000), ValueUtils.convertValue(1000, Date.class));
+        assertEquals(Arrays.asList(1, 2),
+                ValueUtils.convertValue(new Integer[] { 1, 2 }, List.class));
+        Object obj = new Object();
+        assertSame(obj, ValueUtils.convertValue(obj, Object.class));
+        try {
+            ValueUtils.convertValue(obj, Thread.class);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @org.junit.Test
+    public void testRegisterConverter() {
+        assertEquals(0L, ValueUtils.convertLong(new Object()));
+        assertEquals(7L, ValueUtils.convertLong(new AtomicLong(7)));
+        ValueUtils.registerConverter(AtomicLong.class, Long.class, v -> v.get() * 2);
+        assertEquals(Long.valueOf(14), ValueUtils.convertValue(new AtomicLong(7), Long.class));
+        assertEquals(Long.valueOf(14), ValueUtils.convertValue(new AtomicLong(7), long.class));
+        assertEquals(14L, ValueUtils.convertLong(new AtomicLong(7)));
+        assertEquals(Long.valueOf(3), ValueUtils.convertValue("3", Long.class));
+
+        ValueUtils.registerConverter(CharSequence.class, Date.class, v -> new Date(v.length()));
+        assertEquals(new Date(4), ValueUtils.convertValue("abcd", Date.class));
+
+        ValueUtils.unregisterConverter(AtomicLong.class, Long.class);
+        assertEquals(Long.valueOf(7), ValueUtils.convertValue(new AtomicLong(7), Long.class));
+    }
+
+    @org.junit.Test
+    public void testConvertPrimitiveDefault() {
+        assertEquals(12L, ValueUtils.convertLong("12", -1L));
+        assertEquals(-1L, ValueUtils.convertLong("abc", -1L));
+        assertEquals(-1, ValueUtils.convertInt(null, -1));
+        assertEquals(-1, ValueUtils.convertInt(NullNode.getInstance(), -1));
+        assertEquals(3, ValueUtils.convertInt(new POJONode(3), -1));
+        assertEquals(1.5, ValueUtils.convertDouble(JacksonUtils.toJson("1.5"), -1.0), 0.0);
+        assertTrue(ValueUtils.convertBoolean(JacksonUtils.toJson(true), false));
+        assertTrue(ValueUtils.convertBoolean("abc", true));
+        assertFalse(ValueUtils.convertBoolean("False", true));
+        assertEquals(-1L, ValueUtils.convertLong(new StringBuilder("abc"), -1L));
+
+        ValueUtils.registerConverter(StringBuilder.class, Long.class, v -> (long) v.length());
+        try {
+            assertEquals(3L, ValueUtils.convertLong(new StringBuilder("abc"), -1L));
+            assertEquals(3L, ValueUtils.convertLong(new StringBuilder("abc")));
+        } finally {
+            ValueUtils.unregisterConverter(StringBuilder.class, Long.class);
+        }
+        assertEquals(-1L, ValueUtils.convertLong(new StringBuilder("abc"), -1L));
+    }
+}